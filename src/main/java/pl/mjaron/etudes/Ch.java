@@ -30,6 +30,24 @@ public abstract class Ch {
      */
     public static final char DEL = '\177';
 
+    /**
+     * Maps ASCII characters to hexadecimal digit values. Non-hex characters are mapped to {@code -1}.
+     *
+     * @see #hexDigitValue(char)
+     */
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        java.util.Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; ++i) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; ++i) {
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+        }
+    }
+
     /**
      * Checks if the given character is a control character. Based on: <a
      * href="https://en.cppreference.com/w/cpp/string/byte/iscntrl">std::iscntrl</a>
@@ -203,6 +221,19 @@ public abstract class Ch {
         return ch >= 48 && (ch <= 57 || (ch >= 65 && (ch <= 70 || (ch >= 97 && ch <= 102))));
     }
 
+    /**
+     * Converts given hex digit character to integer value with single table lookup.
+     *
+     * @param ch Any character.
+     * @return Number from range <code>0..15</code> (<code>0x00..0x0F</code>) or <code>-1</code> when given character
+     * is not a hexadecimal digit.
+     * @see #toHexValue(char)
+     * @since 0.3.0
+     */
+    public static int hexDigitValue(final char ch) {
+        return (ch < 128) ? HEX_VALUES[ch] : -1;
+    }
+
     /**
      * Converts given hex digit character to integer value.
      *
@@ -211,15 +242,10 @@ public abstract class Ch {
      * @throws RuntimeException When given character is illegal.
      */
     public static int toHexValue(final char ch) {
-        if (ch >= 48 && ch <= 57) {
-            return ch - 48;
-        }
-        if (ch >= 65 && ch <= 70) {
-            return ch - 55;
-        }
-        if (ch >= 97 && ch <= 102) {
-            return ch - 87;
+        final int value = hexDigitValue(ch);
+        if (value < 0) {
+            throw new RuntimeException("Failed to convert given char to hex value: [" + ch + "].");
         }
-        throw new RuntimeException("Failed to convert given char to hex value: [" + ch + "].");
+        return value;
     }
 }
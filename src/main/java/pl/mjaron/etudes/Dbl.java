@@ -0,0 +1,589 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+
+/**
+ * Floating point numbers formatting.
+ * <p>
+ * Shortest mode writes the shortest decimal which parses back to the same number, using the Schubfach algorithm by
+ * Raffaello Giulietti. The output format is the same as {@link Double#toString(double)} and
+ * {@link Float#toString(float)} of Java 19 and newer: plain notation for magnitudes in <code>[10^-3, 10^7)</code>, the
+ * computerized scientific notation otherwise, e.g. <code>1.0E7</code>. Unlike older Java versions, it is the same on
+ * all Java versions. The text is written to a single <code>char</code> buffer, appended to the output at once.
+ * <p>
+ * Fixed mode writes given count of fractional digits, rounding the shortest decimal half up, like
+ * <code>String.format("%.2f", value)</code> with {@link java.util.Locale#ROOT}.
+ *
+ * @since 0.3.0
+ */
+public abstract class Dbl {
+
+    /**
+     * Maximal count of characters written in shortest mode, e.g. <code>-2.2250738585072014E-308</code>.
+     *
+     * @since 0.3.0
+     */
+    public static final int MAX_CHARS = 24;
+
+    private static final long MASK_63 = 0x7FFF_FFFF_FFFF_FFFFL;
+
+    private static final long MASK_32 = 0xFFFF_FFFFL;
+
+    private static final int DOUBLE_P = 53;
+
+    private static final int DOUBLE_Q_MIN = -1074;
+
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+
+    private static final int DOUBLE_C_TINY = 3;
+
+    private static final int FLOAT_P = 24;
+
+    private static final int FLOAT_Q_MIN = -149;
+
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+
+    private static final int FLOAT_C_TINY = 8;
+
+    /**
+     * Range of decimal exponents <code>k</code> of {@link #G}.
+     */
+    private static final int K_MIN = -324;
+
+    private static final int K_MAX = 292;
+
+    /**
+     * For each <code>k</code>, the 126-bit <code>g = floor(10^-k * 2^(125 - flog2pow10(-k))) + 1</code>, split into
+     * high and low 63 bits.
+     */
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            final int e = -k;
+            final int shift = 125 - flog2pow10(e);
+            BigInteger g;
+            if (e >= 0) {
+                final BigInteger pow = BigInteger.TEN.pow(e);
+                g = (shift >= 0) ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(-e));
+            }
+            g = g.add(BigInteger.ONE);
+            G[(k - K_MIN) * 2] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) * 2 + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    /**
+     * Computes the high 64 bits of the 128-bit product of given numbers. Same as <code>Math.multiplyHigh()</code>
+     * available since Java 9.
+     *
+     * @param x First factor.
+     * @param y Second factor.
+     * @return High 64 bits of the signed product.
+     * @since 0.3.0
+     */
+    public static long multiplyHigh(final long x, final long y) {
+        final long x1 = x >> 32;
+        final long x2 = x & MASK_32;
+        final long y1 = y >> 32;
+        final long y2 = y & MASK_32;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & MASK_32;
+        final long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static int flog10pow2(final int e) {
+        return (int) ((e * 661_971_961_083L) >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(final int e) {
+        return (int) ((e * 661_971_961_083L - 274_743_187_321L) >> 41);
+    }
+
+    private static int flog2pow10(final int e) {
+        return (int) ((e * 913_124_641_741L) >> 38);
+    }
+
+    /**
+     * Writes the shortest decimal of given number.
+     *
+     * @param value  Number to write.
+     * @param buffer Output buffer with at least {@link #MAX_CHARS} characters available from the offset.
+     * @param offset Position of first written character.
+     * @return Position after the last written character.
+     * @since 0.3.0
+     */
+    public static int write(final double value, @NotNull final char[] buffer, final int offset) {
+        final int special = writeSpecial(value, Double.doubleToRawLongBits(value) < 0, buffer, offset);
+        if (special >= 0) {
+            return special;
+        }
+        int position = offset;
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        final char[] digits = new char[20];
+        return layout(decimal(Math.abs(value), digits), digits, buffer, position);
+    }
+
+    /**
+     * Writes the shortest decimal of given number.
+     *
+     * @param value  Number to write.
+     * @param buffer Output buffer with at least {@link #MAX_CHARS} characters available from the offset.
+     * @param offset Position of first written character.
+     * @return Position after the last written character.
+     * @since 0.3.0
+     */
+    public static int write(final float value, @NotNull final char[] buffer, final int offset) {
+        final int special = writeSpecial(value, Float.floatToRawIntBits(value) < 0, buffer, offset);
+        if (special >= 0) {
+            return special;
+        }
+        int position = offset;
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        final char[] digits = new char[20];
+        return layout(decimal(Math.abs(value), digits), digits, buffer, position);
+    }
+
+    /**
+     * Provides the shortest decimal of given number.
+     *
+     * @param value Number to format.
+     * @return Same text as {@link Double#toString(double)} of Java 19 and newer.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toString(final double value) {
+        final char[] buffer = new char[MAX_CHARS];
+        return new String(buffer, 0, write(value, buffer, 0));
+    }
+
+    /**
+     * Provides the shortest decimal of given number.
+     *
+     * @param value Number to format.
+     * @return Same text as {@link Float#toString(float)} of Java 19 and newer.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toString(final float value) {
+        final char[] buffer = new char[MAX_CHARS];
+        return new String(buffer, 0, write(value, buffer, 0));
+    }
+
+    /**
+     * Appends the shortest decimal of given number.
+     *
+     * @param value Number to write.
+     * @param out   Output.
+     * @since 0.3.0
+     */
+    public static void append(final double value, @NotNull final IPureAppendable out) {
+        final char[] buffer = new char[MAX_CHARS];
+        out.append(CharBuffer.wrap(buffer, 0, write(value, buffer, 0)));
+    }
+
+    /**
+     * Provides the decimal of given number with given count of fractional digits, in plain notation.
+     *
+     * @param value    Number to format.
+     * @param decimals Count of fractional digits.
+     * @return Formatted number, e.g. <code>1.50</code> for <code>1.5</code> and 2 decimals.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toFixed(final double value, final int decimals) {
+        final StringBuilder out = new StringBuilder(MAX_CHARS + decimals);
+        appendFixed(value, decimals, IPureAppendable.from(out));
+        return out.toString();
+    }
+
+    /**
+     * Provides the decimal of given number with given count of fractional digits, in plain notation.
+     *
+     * @param value    Number to format.
+     * @param decimals Count of fractional digits.
+     * @return Formatted number.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toFixed(final float value, final int decimals) {
+        if (decimals < 0) {
+            throw new IllegalArgumentException("Decimals count must not be negative: " + decimals + ".");
+        }
+        final StringBuilder out = new StringBuilder(MAX_CHARS + decimals);
+        if (appendFixedSpecial(value, IPureAppendable.from(out))) {
+            return out.toString();
+        }
+        if (Float.floatToRawIntBits(value) < 0) {
+            out.append('-');
+        }
+        final char[] digits = new char[20];
+        final int decimal = (value == 0) ? 0 : decimal(Math.abs(value), digits);
+        fixed(decimal, digits, decimals, IPureAppendable.from(out));
+        return out.toString();
+    }
+
+    /**
+     * Appends the decimal of given number with given count of fractional digits, in plain notation.
+     *
+     * @param value    Number to write.
+     * @param decimals Count of fractional digits.
+     * @param out      Output.
+     * @since 0.3.0
+     */
+    public static void appendFixed(final double value, final int decimals, @NotNull final IPureAppendable out) {
+        if (decimals < 0) {
+            throw new IllegalArgumentException("Decimals count must not be negative: " + decimals + ".");
+        }
+        if (appendFixedSpecial(value, out)) {
+            return;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        final char[] digits = new char[20];
+        final int decimal = (value == 0) ? 0 : decimal(Math.abs(value), digits);
+        fixed(decimal, digits, decimals, out);
+    }
+
+    private static boolean appendFixedSpecial(final double value, final IPureAppendable out) {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+            return true;
+        }
+        if (Double.isInfinite(value)) {
+            out.append((value > 0) ? "Infinity" : "-Infinity");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes NaN, infinities and zeros.
+     *
+     * @return Position after the last written character or <code>-1</code> if given value is not special.
+     */
+    private static int writeSpecial(final double value, final boolean negative, final char[] buffer, int position) {
+        final String text;
+        if (Double.isNaN(value)) {
+            text = "NaN";
+        } else if (Double.isInfinite(value)) {
+            text = negative ? "-Infinity" : "Infinity";
+        } else if (value == 0) {
+            text = negative ? "-0.0" : "0.0";
+        } else {
+            return -1;
+        }
+        text.getChars(0, text.length(), buffer, position);
+        return position + text.length();
+    }
+
+    /**
+     * Computes the shortest decimal of given positive, finite number.
+     *
+     * @param value  Positive number.
+     * @param digits Output of at least 17 significant digits, without trailing zeros.
+     * @return Packed decimal: <code>(point &lt;&lt; 5) | length</code>, where the number is
+     * <code>0.digits * 10^point</code>.
+     */
+    private static int decimal(final double value, final char[] digits) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & (DOUBLE_C_MIN - 1);
+        final int bq = (int) (bits >>> (DOUBLE_P - 1)) & 0x7FF;
+        if (bq != 0) {
+            final int mq = -DOUBLE_Q_MIN + 1 - bq;
+            final long c = DOUBLE_C_MIN | t;
+            if (0 < mq && mq < DOUBLE_P) {
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    return digits(f, 0, digits);
+                }
+            }
+            return decimal(-mq, c, 0, digits);
+        }
+        return (t < DOUBLE_C_TINY) ? decimal(DOUBLE_Q_MIN, 10 * t, -1, digits) : decimal(DOUBLE_Q_MIN, t, 0, digits);
+    }
+
+    /**
+     * Computes the shortest decimal of <code>c * 2^q</code>.
+     */
+    private static int decimal(final int q, final long c, final int dk, final char[] digits) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+        final long g1 = G[(k - K_MIN) * 2];
+        final long g0 = G[(k - K_MIN) * 2 + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 * floor(s / 10).
+            final long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= (sp10 << 2);
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return digits(upin ? sp10 : tp10, k, digits);
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= (s << 2);
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return digits(uin ? s : t, k + dk, digits);
+        }
+        final long cmp = vb - ((s + t) << 1);
+        return digits((cmp < 0 || (cmp == 0 && (s & 0x1) == 0)) ? s : t, k + dk, digits);
+    }
+
+    /**
+     * Computes rounded to odd <code>floor(g * cp / 2^127)</code>.
+     */
+    private static long rop(final long g1, final long g0, final long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+    }
+
+    /**
+     * Computes the shortest decimal of given positive, finite number.
+     *
+     * @see #decimal(double, char[])
+     */
+    private static int decimal(final float value, final char[] digits) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int t = bits & (FLOAT_C_MIN - 1);
+        final int bq = (bits >>> (FLOAT_P - 1)) & 0xFF;
+        if (bq != 0) {
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) {
+                final int f = c >> mq;
+                if (f << mq == c) {
+                    return digits(f, 0, digits);
+                }
+            }
+            return decimal(-mq, c, 0, digits);
+        }
+        return (t < FLOAT_C_TINY) ? decimal(FLOAT_Q_MIN, 10 * t, -1, digits) : decimal(FLOAT_Q_MIN, t, 0, digits);
+    }
+
+    /**
+     * Computes the shortest decimal of <code>c * 2^q</code>, for <code>float</code> precision.
+     */
+    private static int decimal(final int q, final int c, final int dk, final char[] digits) {
+        final int out = c & 0x1;
+        final long cb = ((long) c) << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 33;
+        final long g = G[(k - K_MIN) * 2] + 1;
+
+        final int vb = rop(g, cb << h);
+        final int vbl = rop(g, cbl << h);
+        final int vbr = rop(g, cbr << h);
+
+        final int s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 * floor(s / 10).
+            final int sp10 = 10 * (int) ((s * 1_717_986_919L) >>> 34);
+            final int tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= (sp10 << 2);
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return digits(upin ? sp10 : tp10, k, digits);
+            }
+        }
+        final int t = s + 1;
+        final boolean uin = vbl + out <= (s << 2);
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return digits(uin ? s : t, k + dk, digits);
+        }
+        final int cmp = vb - ((s + t) << 1);
+        return digits((cmp < 0 || (cmp == 0 && (s & 0x1) == 0)) ? s : t, k + dk, digits);
+    }
+
+    /**
+     * Computes rounded to odd <code>floor(g * cp / 2^95)</code>.
+     */
+    private static int rop(final long g, final long cp) {
+        final long x1 = multiplyHigh(g, cp);
+        final long vbp = x1 >>> 31;
+        return (int) (vbp | (((x1 & MASK_32) + MASK_32) >>> 32));
+    }
+
+    /**
+     * Writes the digits of <code>f * 10^e</code>, without trailing zeros.
+     *
+     * @return Packed decimal.
+     * @see #decimal(double, char[])
+     */
+    private static int digits(long f, int e, final char[] digits) {
+        while (f % 10 == 0) {
+            f /= 10;
+            ++e;
+        }
+        int length = 0;
+        for (long rest = f; rest != 0; rest /= 10) {
+            ++length;
+        }
+        for (int i = length - 1; i >= 0; --i) {
+            digits[i] = (char) ('0' + (f % 10));
+            f /= 10;
+        }
+        return ((e + length) << 5) | length;
+    }
+
+    /**
+     * Writes the decimal like {@link Double#toString(double)} of Java 19.
+     */
+    private static int layout(final int decimal, final char[] digits, final char[] buffer, int position) {
+        final int length = decimal & 31;
+        final int point = decimal >> 5;
+        if (0 < point && point <= 7) {
+            for (int i = 0; i < point; ++i) {
+                buffer[position++] = (i < length) ? digits[i] : '0';
+            }
+            buffer[position++] = '.';
+            if (length <= point) {
+                buffer[position++] = '0';
+            } else {
+                for (int i = point; i < length; ++i) {
+                    buffer[position++] = digits[i];
+                }
+            }
+            return position;
+        }
+        if (-3 < point && point <= 0) {
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+            for (int i = point; i < 0; ++i) {
+                buffer[position++] = '0';
+            }
+            for (int i = 0; i < length; ++i) {
+                buffer[position++] = digits[i];
+            }
+            return position;
+        }
+        buffer[position++] = digits[0];
+        buffer[position++] = '.';
+        if (length == 1) {
+            buffer[position++] = '0';
+        } else {
+            for (int i = 1; i < length; ++i) {
+                buffer[position++] = digits[i];
+            }
+        }
+        buffer[position++] = 'E';
+        int exponent = point - 1;
+        if (exponent < 0) {
+            buffer[position++] = '-';
+            exponent = -exponent;
+        }
+        if (exponent >= 100) {
+            buffer[position++] = (char) ('0' + exponent / 100);
+            exponent %= 100;
+            buffer[position++] = (char) ('0' + exponent / 10);
+        } else if (exponent >= 10) {
+            buffer[position++] = (char) ('0' + exponent / 10);
+        }
+        buffer[position++] = (char) ('0' + exponent % 10);
+        return position;
+    }
+
+    /**
+     * Writes the decimal rounded half up to given count of fractional digits.
+     */
+    private static void fixed(final int decimal, final char[] digits, final int decimals, final IPureAppendable out) {
+        int length = decimal & 31;
+        int point = decimal >> 5;
+        final int kept = point + decimals;
+        if (kept < length) {
+            final boolean up = kept >= 0 && digits[kept] >= '5';
+            length = Math.max(kept, 0);
+            if (up) {
+                int i = length - 1;
+                while (i >= 0 && digits[i] == '9') {
+                    --i;
+                }
+                if (i >= 0) {
+                    ++digits[i];
+                    length = i + 1;
+                } else {
+                    digits[0] = '1';
+                    length = 1;
+                    ++point;
+                }
+            }
+        }
+        if (point <= 0) {
+            out.append('0');
+        } else {
+            for (int i = 0; i < point; ++i) {
+                out.append((i < length) ? digits[i] : '0');
+            }
+        }
+        if (decimals > 0) {
+            out.append('.');
+            for (int i = point; i < point + decimals; ++i) {
+                out.append((i >= 0 && i < length) ? digits[i] : '0');
+            }
+        }
+    }
+}
@@ -1,7 +1,17 @@
 package pl.mjaron.etudes;
 
+import pl.mjaron.etudes.io.AsyncFileWriter;
+import pl.mjaron.etudes.io.DeleteContext;
+import pl.mjaron.etudes.io.DeleteStats;
+import pl.mjaron.etudes.text.HexDumpWriter;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 @SuppressWarnings("unused")
 public class IO {
@@ -11,6 +21,32 @@ public class IO {
      */
     public static final int DEFAULT_BUFFER_SIZE = 4 * 1024;
 
+    /**
+     * Buffer size used by bulk operations on big data, like {@link #hexDump(InputStream, IPureAppendable)}.
+     *
+     * @since 0.3.0
+     */
+    public static final int LARGE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Maximum size of single memory-mapped file region. Bigger files are mapped region by region.
+     *
+     * @since 0.3.0
+     */
+    public static final int MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Maximum buffer size reached by adaptive buffer used by {@link #copy(InputStream, OutputStream)}.
+     *
+     * @since 0.3.0
+     */
+    public static final int MAX_ADAPTIVE_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Maximum size of Java array. Some VMs reserve header words in an array.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     /**
      * Write all <code>data</code> to given <code>outputStream</code>.
      *
@@ -67,6 +103,43 @@ public class IO {
         write(string.getBytes(), file);
     }
 
+    /**
+     * Write given <code>data</code> to <code>file</code> asynchronously with {@link AsyncFileWriter#shared()} writer.
+     *
+     * @param data Byte array. Must not be modified until the write completes.
+     * @param file Any {@link java.io.File}.
+     * @return Future completed when the file is written.
+     * @since 0.3.0
+     */
+    public static CompletableFuture<File> writeAsync(final byte[] data, final File file) {
+        return AsyncFileWriter.shared().write(data, file);
+    }
+
+    /**
+     * Write given <code>string</code> to given <code>file</code> asynchronously with given <code>charset</code>.
+     *
+     * @param string  String used to write to the file.
+     * @param file    Written file.
+     * @param charset Charset.
+     * @return Future completed when the file is written.
+     * @since 0.3.0
+     */
+    public static CompletableFuture<File> writeAsync(final String string, final File file, final Charset charset) {
+        return AsyncFileWriter.shared().write(string, file, charset);
+    }
+
+    /**
+     * Write given <code>string</code> to given <code>file</code> asynchronously with default {@link java.nio.charset.Charset}.
+     *
+     * @param string String used to write to the file.
+     * @param file   Written file.
+     * @return Future completed when the file is written.
+     * @since 0.3.0
+     */
+    public static CompletableFuture<File> writeAsync(final String string, final File file) {
+        return AsyncFileWriter.shared().write(string, file);
+    }
+
     /**
      * Read whole content of file to byte array.
      *
@@ -75,11 +148,46 @@ public class IO {
      * @throws RuntimeException when file is not found or file read operation fails.
      */
     public static byte[] readAllBytes(final File file) {
+        final FileInputStream inputStream;
         try {
-            return readAllBytes(new FileInputStream(file));
+            inputStream = new FileInputStream(file);
         } catch (final FileNotFoundException e) {
             throw new RuntimeException("Failed to read from file: File is not found: [" + file.getPath() + "].", e);
         }
+        try (final FileChannel channel = inputStream.getChannel()) {
+            final long size = channel.size();
+            if (size == 0) {
+                // Special files may report 0 size, but still have some content.
+                return readAllBytes(inputStream);
+            }
+            if (size > MAX_ARRAY_SIZE) {
+                throw new RuntimeException("Failed to read from file: File is too big: [" + file.getPath() + "], size: " + size + ".");
+            }
+            final byte[] data = new byte[(int) size];
+            int position = 0;
+            while (position < data.length) {
+                // Limited fragments are read through the cached temporary direct buffer of reasonable size.
+                final int count = channel.read(ByteBuffer.wrap(data, position, Math.min(data.length - position, MAX_ADAPTIVE_BUFFER_SIZE)));
+                if (count < 0) {
+                    return Arrays.copyOf(data, position);
+                }
+                position += count;
+            }
+            if (channel.size() <= data.length) {
+                return data;
+            }
+            // File has grown during the reading.
+            channel.position(data.length);
+            return Arr.add(data, readAllBytes(inputStream));
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read from file: [" + file.getPath() + "].", e);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     /**
@@ -104,14 +212,152 @@ public class IO {
     }
 
     /**
-     * Copy any {@link java.io.InputStream} to {@link java.io.OutputStream} with default buffer size.
+     * Copy any {@link java.io.InputStream} to {@link java.io.OutputStream} with adaptive buffer size.
      *
      * @param inputStream  Any {@link java.io.InputStream} used to read data.
      * @param outputStream Any {@link java.io.OutputStream} used to write data.
      * @throws IOException on any IO operation error.
+     * @see #copy(InputStream, OutputStream)
      */
     public static void copyStream(final InputStream inputStream, final OutputStream outputStream) throws IOException {
-        copyStream(inputStream, outputStream, DEFAULT_BUFFER_SIZE);
+        copyImpl(inputStream, outputStream);
+    }
+
+    /**
+     * Copy any {@link java.io.InputStream} to {@link java.io.OutputStream}.
+     * <p>
+     * When both streams are file streams, the data is transferred by {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)}, so it may not be copied to Java heap at all. Otherwise, the buffer starts
+     * with {@link #DEFAULT_BUFFER_SIZE} and grows up to {@link #MAX_ADAPTIVE_BUFFER_SIZE} while the stream fills it
+     * completely, so short streams don't allocate big buffers and long streams are copied with few system calls.
+     *
+     * @param inputStream  Any {@link java.io.InputStream}. User is responsible to close this stream when no longer
+     *                     used.
+     * @param outputStream Any {@link java.io.OutputStream}. User is responsible to close this stream when no longer
+     *                     used.
+     * @return Count of copied bytes.
+     * @throws RuntimeException on any IO operation error.
+     * @since 0.3.0
+     */
+    public static long copy(final InputStream inputStream, final OutputStream outputStream) {
+        try {
+            return copyImpl(inputStream, outputStream);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to copy stream.", e);
+        }
+    }
+
+    /**
+     * Copy the file content to another file. Content is transferred by {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)}, which may use the zero-copy system calls.
+     *
+     * @param source      Copied file.
+     * @param destination Destination file. It is overwritten if exists.
+     * @return Count of copied bytes.
+     * @throws RuntimeException on any IO operation error.
+     * @since 0.3.0
+     */
+    public static long copy(final File source, final File destination) {
+        try (final FileInputStream inputStream = new FileInputStream(source); final FileOutputStream outputStream = new FileOutputStream(destination)) {
+            return copyImpl(inputStream, outputStream);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to copy file: [" + source.getPath() + "] to: [" + destination.getPath() + "].", e);
+        }
+    }
+
+    /**
+     * Maps the whole file to memory as read-only buffer. The file is not read to the Java heap.
+     * <p>
+     * The mapping remains valid after this method returns, even though the underlying channel is closed.
+     *
+     * @param file Mapped file.
+     * @return Read-only buffer with file content.
+     * @throws RuntimeException on any IO operation error or when the file is bigger than
+     *                          {@link Integer#MAX_VALUE} bytes.
+     * @see #map(File, long, long)
+     * @since 0.3.0
+     */
+    public static MappedByteBuffer map(final File file) {
+        final long size = file.length();
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("Failed to map file: File is too big to map as single buffer: [" + file.getPath() + "], size: " + size + ".");
+        }
+        return map(file, 0, size);
+    }
+
+    /**
+     * Maps the region of file to memory as read-only buffer.
+     *
+     * @param file     Mapped file.
+     * @param position Position of the first mapped byte.
+     * @param size     Count of mapped bytes. It must not be greater than {@link Integer#MAX_VALUE}.
+     * @return Read-only buffer with file content.
+     * @throws RuntimeException on any IO operation error.
+     * @since 0.3.0
+     */
+    public static MappedByteBuffer map(final File file, final long position, final long size) {
+        try (final FileInputStream inputStream = new FileInputStream(file); final FileChannel channel = inputStream.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to map file: [" + file.getPath() + "].", e);
+        }
+    }
+
+    private static long copyImpl(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        long total = 0;
+        if (inputStream instanceof FileInputStream && outputStream instanceof FileOutputStream) {
+            // Bytes appended after the transfer, and content of special files, are copied by the loop below.
+            total = transfer(((FileInputStream) inputStream).getChannel(), ((FileOutputStream) outputStream).getChannel());
+        }
+        byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+        while (true) {
+            final int bytesReadCount = inputStream.read(buffer, 0, buffer.length);
+            if (bytesReadCount == -1) {
+                break;
+            }
+            outputStream.write(buffer, 0, bytesReadCount);
+            total += bytesReadCount;
+            if (bytesReadCount == buffer.length && buffer.length < MAX_ADAPTIVE_BUFFER_SIZE) {
+                buffer = new byte[buffer.length * 2];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Transfers all bytes from current position of source channel to the destination channel, when the source is a
+     * seekable file of known size.
+     * <p>
+     * Pipes are not seekable, and special files, e.g. <code>/dev/stdin</code> or <code>/proc</code> files, may report
+     * 0 size, so nothing is transferred and such sources are copied by the buffered loop.
+     *
+     * @param source      Source channel.
+     * @param destination Destination channel.
+     * @return Count of transferred bytes.
+     * @throws IOException on any IO operation error.
+     */
+    private static long transfer(final FileChannel source, final FileChannel destination) throws IOException {
+        final long begin;
+        final long size;
+        try {
+            begin = source.position();
+            size = source.size();
+        } catch (final IOException e) {
+            return 0;
+        }
+        if (size <= 0) {
+            return 0;
+        }
+        long position = begin;
+        while (position < size) {
+            final long count = source.transferTo(position, size - position, destination);
+            if (count <= 0) {
+                break;
+            }
+            position += count;
+        }
+        source.position(position);
+        return position - begin;
     }
 
     /**
@@ -143,23 +389,14 @@ public class IO {
 
     /**
      * Cleans content of a directory but doesn't delete itself.
+     * <p>
+     * Symbolic links are not followed, the links themselves are deleted.
      *
      * @param directory Any file which is a directory. Other files will be ignored.
      * @throws RuntimeException when cannot delete a file or directory.
      */
     public static void cleanDirectory(final File directory) {
-        final File[] children = directory.listFiles();
-        if (children == null) {
-            return;
-        }
-        for (final File entry : children) {
-            if (entry.isDirectory()) {
-                cleanDirectory(entry);
-            }
-            if (!entry.delete()) {
-                throw new RuntimeException("Failed to delete file: [" + entry.getAbsolutePath() + "].");
-            }
-        }
+        DeleteContext.make().withContentOnly().run(directory);
     }
 
     /**
@@ -172,18 +409,40 @@ public class IO {
         cleanDirectory(new File(directory));
     }
 
+    /**
+     * Cleans content of a directory but doesn't delete itself. Subdirectories are processed concurrently.
+     *
+     * @param directory Any file which is a directory. Other files will be ignored.
+     * @return Summary of removed entries.
+     * @throws RuntimeException when cannot delete a file or directory.
+     * @see DeleteContext
+     * @since 0.3.0
+     */
+    public static DeleteStats cleanDirectoryParallel(final File directory) {
+        return DeleteContext.make().withParallel().withContentOnly().run(directory);
+    }
+
     /**
      * Delete file or directory, even if directory is not empty.
      *
      * @param file File which will be deleted.
+     * @throws RuntimeException when cannot delete a file or directory.
      */
     public static void delete(final File file) {
-        if (file.isDirectory()) {
-            cleanDirectory(file);
-        }
-        if (!file.delete()) {
-            throw new RuntimeException("Failed to delete file: [" + file.getAbsolutePath() + "].");
-        }
+        DeleteContext.make().run(file);
+    }
+
+    /**
+     * Delete file or directory, even if directory is not empty. Subdirectories are processed concurrently.
+     *
+     * @param file File which will be deleted.
+     * @return Summary of removed entries.
+     * @throws RuntimeException when cannot delete a file or directory.
+     * @see DeleteContext
+     * @since 0.3.0
+     */
+    public static DeleteStats deleteParallel(final File file) {
+        return DeleteContext.make().withParallel().run(file);
     }
 
     /**
@@ -205,4 +464,110 @@ public class IO {
     public static File mkdirs(final String destination) {
         return mkdirs(new File(destination));
     }
+
+    /**
+     * Writes the hexdump of given stream with offset, HEX and ASCII columns. Stream is read through fixed-size buffer,
+     * so memory usage doesn't depend on the stream size.
+     *
+     * @param inputStream   Dumped stream. User is responsible to close this stream when no longer used.
+     * @param out           Where to write the dump.
+     * @param bytesPerLine  Count of bytes dumped in single line.
+     * @param byteSeparator String used to separate bytes in HEX column.
+     * @throws RuntimeException on any IO operation error.
+     * @see HexDumpWriter
+     * @since 0.3.0
+     */
+    public static void hexDump(final InputStream inputStream, final IPureAppendable out, final int bytesPerLine, final String byteSeparator) {
+        final HexDumpWriter writer = new HexDumpWriter(out, bytesPerLine, byteSeparator);
+        final byte[] buffer = new byte[LARGE_BUFFER_SIZE];
+        try {
+            while (true) {
+                final int bytesReadCount = inputStream.read(buffer, 0, buffer.length);
+                if (bytesReadCount == -1) {
+                    break;
+                }
+                writer.write(buffer, 0, bytesReadCount);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to dump input stream.", e);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Writes the hexdump of given stream with default bytes per line and separator.
+     *
+     * @param inputStream Dumped stream. User is responsible to close this stream when no longer used.
+     * @param out         Where to write the dump.
+     * @throws RuntimeException on any IO operation error.
+     * @since 0.3.0
+     */
+    public static void hexDump(final InputStream inputStream, final IPureAppendable out) {
+        hexDump(inputStream, out, HexDumpWriter.DEFAULT_BYTES_PER_LINE, Str.STR_HEX_DEFAULT_BYTE_SEPARATOR);
+    }
+
+    /**
+     * Writes the hexdump of given file. The file is memory-mapped region by region, so files bigger than available
+     * heap may be dumped.
+     *
+     * @param file          Dumped file.
+     * @param out           Where to write the dump.
+     * @param bytesPerLine  Count of bytes dumped in single line.
+     * @param byteSeparator String used to separate bytes in HEX column.
+     * @throws RuntimeException on any IO operation error.
+     * @see #MAPPED_REGION_SIZE
+     * @since 0.3.0
+     */
+    public static void hexDump(final File file, final IPureAppendable out, final int bytesPerLine, final String byteSeparator) {
+        final HexDumpWriter writer = new HexDumpWriter(out, bytesPerLine, byteSeparator);
+        try (final FileInputStream inputStream = new FileInputStream(file); final FileChannel channel = inputStream.getChannel()) {
+            final long size = channel.size();
+            for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+                final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_REGION_SIZE, size - position));
+                writer.write(region);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to dump file: [" + file.getPath() + "].", e);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Writes the hexdump of given file with default bytes per line and separator.
+     *
+     * @param file Dumped file.
+     * @param out  Where to write the dump.
+     * @throws RuntimeException on any IO operation error.
+     * @since 0.3.0
+     */
+    public static void hexDump(final File file, final IPureAppendable out) {
+        hexDump(file, out, HexDumpWriter.DEFAULT_BYTES_PER_LINE, Str.STR_HEX_DEFAULT_BYTE_SEPARATOR);
+    }
+
+    /**
+     * Writes the hexdump of remaining bytes of given buffer. The buffer position is not changed.
+     *
+     * @param buffer        Dumped buffer.
+     * @param out           Where to write the dump.
+     * @param bytesPerLine  Count of bytes dumped in single line.
+     * @param byteSeparator String used to separate bytes in HEX column.
+     * @since 0.3.0
+     */
+    public static void hexDump(final ByteBuffer buffer, final IPureAppendable out, final int bytesPerLine, final String byteSeparator) {
+        final HexDumpWriter writer = new HexDumpWriter(out, bytesPerLine, byteSeparator);
+        writer.write(buffer.duplicate());
+        writer.finish();
+    }
+
+    /**
+     * Writes the hexdump of remaining bytes of given buffer with default bytes per line and separator. The buffer
+     * position is not changed.
+     *
+     * @param buffer Dumped buffer.
+     * @param out    Where to write the dump.
+     * @since 0.3.0
+     */
+    public static void hexDump(final ByteBuffer buffer, final IPureAppendable out) {
+        hexDump(buffer, out, HexDumpWriter.DEFAULT_BYTES_PER_LINE, Str.STR_HEX_DEFAULT_BYTE_SEPARATOR);
+    }
 }
@@ -149,7 +149,8 @@ public interface IRandomIterator<T> extends ICurrIterator<T> {
     }
 
     /**
-     * Creates {@link IRandomIterator} from any {@link Iterable} object.
+     * Creates {@link IRandomIterator} from any {@link Iterable} object. Objects implementing {@link IRandomAccess} or
+     * random access {@link List} are accessed directly, other objects are cached while iterated.
      *
      * @param it  Any iterable object.
      * @param <U> Container element type.
@@ -158,6 +159,13 @@ public interface IRandomIterator<T> extends ICurrIterator<T> {
      */
     @NotNull
     static <U> IRandomIterator<U> from(Iterable<U> it) {
+        if (it instanceof IRandomAccess) {
+            @SuppressWarnings("unchecked") final IRandomAccess<U> randomAccess = (IRandomAccess<U>) it;
+            return new RandomAccessIteratorWrapper<>(randomAccess);
+        }
+        if (it instanceof List) {
+            return from((List<U>) it);
+        }
         return new CachingRandomIteratorWrapper<>(it.iterator());
     }
 }
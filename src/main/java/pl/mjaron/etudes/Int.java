@@ -19,8 +19,60 @@
 
 package pl.mjaron.etudes;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
 public class Int {
 
+    /**
+     * Maximal count of characters written without grouping, e.g. <code>-9223372036854775808</code>.
+     *
+     * @since 0.3.0
+     */
+    public static final int MAX_CHARS = 20;
+
+    /**
+     * Maximal count of characters written with thousands grouping, e.g. <code>-9,223,372,036,854,775,808</code>.
+     *
+     * @since 0.3.0
+     */
+    public static final int MAX_GROUPED_CHARS = 26;
+
+    /**
+     * Separator value which disables the thousands grouping.
+     *
+     * @since 0.3.0
+     */
+    public static final char NO_GROUPING = '\0';
+
+    /**
+     * Tens digits of numbers in range <code>0..99</code>.
+     */
+    private static final char[] DIGIT_TENS = new char[100];
+
+    /**
+     * Ones digits of numbers in range <code>0..99</code>.
+     */
+    private static final char[] DIGIT_ONES = new char[100];
+
+    /**
+     * Powers of 10 in range <code>10^0..10^18</code>.
+     */
+    private static final long[] POWERS_OF_10 = new long[19];
+
+    static {
+        for (int i = 0; i < 100; ++i) {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+        }
+        POWERS_OF_10[0] = 1;
+        for (int i = 1; i < POWERS_OF_10.length; ++i) {
+            POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+        }
+    }
+
     /**
      * Provides high four bits of given byte.
      *
@@ -158,4 +210,207 @@ public class Int {
         toByteArrayLE(what, result);
         return result;
     }
+
+    /**
+     * Provides the count of decimal digits of given number, without the sign.
+     *
+     * @param value Any number.
+     * @return Value in range <code>1..19</code>.
+     * @since 0.3.0
+     */
+    public static int digitsCount(final long value) {
+        final long magnitude = (value < 0) ? -value : value;
+        if (magnitude < 0) {
+            return 19; // Long.MIN_VALUE
+        }
+        // Zero has one digit, like one.
+        final long nonZero = magnitude | 1;
+        // floor(log10(2^bits)) is the count of digits of 2^bits - 1, corrected for greater magnitudes.
+        final int guess = ((64 - Long.numberOfLeadingZeros(nonZero)) * 1233) >>> 12;
+        return (nonZero >= POWERS_OF_10[guess]) ? guess + 1 : guess;
+    }
+
+    /**
+     * Provides the count of characters of formatted number.
+     *
+     * @param value     Any number.
+     * @param separator Thousands separator or {@link #NO_GROUPING}.
+     * @return Count of characters written by {@link #write(long, char, char[], int)}.
+     * @since 0.3.0
+     */
+    public static int length(final long value, final char separator) {
+        final int digits = digitsCount(value);
+        final int separators = (separator == NO_GROUPING) ? 0 : (digits - 1) / 3;
+        return digits + separators + ((value < 0) ? 1 : 0);
+    }
+
+    /**
+     * Writes the decimal of given number.
+     *
+     * @param value  Number to write.
+     * @param buffer Output buffer with at least {@link #MAX_CHARS} characters available from the offset.
+     * @param offset Position of first written character.
+     * @return Position after the last written character.
+     * @since 0.3.0
+     */
+    public static int write(final long value, @NotNull final char[] buffer, final int offset) {
+        return write(value, NO_GROUPING, buffer, offset);
+    }
+
+    /**
+     * Writes the decimal of given number, two digits at once.
+     *
+     * @param value     Number to write.
+     * @param separator Thousands separator or {@link #NO_GROUPING}.
+     * @param buffer    Output buffer with at least {@link #MAX_GROUPED_CHARS} characters available from the offset.
+     * @param offset    Position of first written character.
+     * @return Position after the last written character.
+     * @since 0.3.0
+     */
+    public static int write(final long value, final char separator, @NotNull final char[] buffer, final int offset) {
+        final int end = offset + length(value, separator);
+        int position = end;
+        // Negative numbers are used, so Long.MIN_VALUE doesn't overflow.
+        long remaining = (value < 0) ? value : -value;
+        if (separator == NO_GROUPING) {
+            while (remaining <= -100) {
+                final long quotient = remaining / 100;
+                final int pair = (int) (quotient * 100 - remaining);
+                remaining = quotient;
+                buffer[--position] = DIGIT_ONES[pair];
+                buffer[--position] = DIGIT_TENS[pair];
+            }
+        } else {
+            while (remaining <= -1000) {
+                final long quotient = remaining / 1000;
+                final int group = (int) (quotient * 1000 - remaining);
+                remaining = quotient;
+                final int pair = group % 100;
+                buffer[--position] = DIGIT_ONES[pair];
+                buffer[--position] = DIGIT_TENS[pair];
+                buffer[--position] = (char) ('0' + group / 100);
+                buffer[--position] = separator;
+            }
+        }
+        final int head = (int) -remaining;
+        if (head >= 100) {
+            final int pair = head % 100;
+            buffer[--position] = DIGIT_ONES[pair];
+            buffer[--position] = DIGIT_TENS[pair];
+            buffer[--position] = (char) ('0' + head / 100);
+        } else if (head >= 10) {
+            buffer[--position] = DIGIT_ONES[head];
+            buffer[--position] = DIGIT_TENS[head];
+        } else {
+            buffer[--position] = (char) ('0' + head);
+        }
+        if (value < 0) {
+            buffer[--position] = '-';
+        }
+        return end;
+    }
+
+    /**
+     * Writes the decimal of given number padded to given width.
+     * <p>
+     * When padding from left with <code>'0'</code> character, the sign is written before the padding, e.g.
+     * <code>-0042</code>.
+     *
+     * @param value     Number to write.
+     * @param separator Thousands separator or {@link #NO_GROUPING}.
+     * @param width     Minimal count of written characters.
+     * @param fill      Character used to fill padding gap.
+     * @param padRight  <code>true</code> to fill from right side, <code>false</code> to fill from left side.
+     * @param buffer    Output buffer with at least <code>max(width, MAX_GROUPED_CHARS)</code> characters available from
+     *                  the offset.
+     * @param offset    Position of first written character.
+     * @return Position after the last written character.
+     * @since 0.3.0
+     */
+    public static int write(final long value, final char separator, final int width, final char fill, final boolean padRight, @NotNull final char[] buffer, final int offset) {
+        final int missing = width - length(value, separator);
+        if (missing <= 0) {
+            return write(value, separator, buffer, offset);
+        }
+        if (padRight) {
+            final int end = write(value, separator, buffer, offset);
+            Arrays.fill(buffer, end, end + missing, fill);
+            return end + missing;
+        }
+        if (fill == '0' && value < 0) {
+            final int end = write(value, separator, buffer, offset + missing);
+            buffer[offset] = '-';
+            Arrays.fill(buffer, offset + 1, offset + missing + 1, fill);
+            return end;
+        }
+        Arrays.fill(buffer, offset, offset + missing, fill);
+        return write(value, separator, buffer, offset + missing);
+    }
+
+    /**
+     * Provides the decimal of given number.
+     *
+     * @param value Number to format.
+     * @return Same text as {@link Long#toString(long)}.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toString(final long value) {
+        final char[] buffer = new char[MAX_CHARS];
+        return new String(buffer, 0, write(value, NO_GROUPING, buffer, 0));
+    }
+
+    /**
+     * Provides the decimal of given number with thousands grouping.
+     *
+     * @param value     Number to format.
+     * @param separator Thousands separator or {@link #NO_GROUPING}.
+     * @return Formatted number, e.g. <code>1,234,567</code>.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static String toString(final long value, final char separator) {
+        final char[] buffer = new char[MAX_GROUPED_CHARS];
+        return new String(buffer, 0, write(value, separator, buffer, 0));
+    }
+
+    /**
+     * Appends the decimal of given number.
+     *
+     * @param value Number to write.
+     * @param out   Output.
+     * @since 0.3.0
+     */
+    public static void append(final long value, @NotNull final IPureAppendable out) {
+        append(value, NO_GROUPING, 0, ' ', false, out);
+    }
+
+    /**
+     * Appends the decimal of given number padded to given width, without creating intermediate {@link String}.
+     *
+     * @param value     Number to write.
+     * @param separator Thousands separator or {@link #NO_GROUPING}.
+     * @param width     Minimal count of written characters.
+     * @param fill      Character used to fill padding gap.
+     * @param padRight  <code>true</code> to fill from right side, <code>false</code> to fill from left side.
+     * @param out       Output.
+     * @see #write(long, char, int, char, boolean, char[], int)
+     * @since 0.3.0
+     */
+    public static void append(final long value, final char separator, final int width, final char fill, final boolean padRight, @NotNull final IPureAppendable out) {
+        final char[] buffer = new char[MAX_GROUPED_CHARS];
+        int begin = 0;
+        final int end = write(value, separator, buffer, 0);
+        int missing = width - end;
+        if (!padRight) {
+            if (fill == '0' && value < 0 && missing > 0) {
+                out.append('-');
+                begin = 1;
+            }
+            Str.pad(out, missing, fill);
+            missing = 0;
+        }
+        out.append(CharBuffer.wrap(buffer, begin, end - begin));
+        Str.pad(out, missing, fill);
+    }
 }
@@ -68,40 +68,98 @@ public abstract class Obj {
      */
     public static <T> void visitFieldValues(final T what, final Class<T> tClass, final Field[] fields, final IFieldVisitor visitor) {
         for (final Field field : fields) {
+            visitor.visit(field.getName(), new FieldGetter(tClass, field).get(what));
+        }
+    }
+
+    /**
+     * Reads the value of single field of Java Bean objects. The field is read directly if accessible, otherwise with its
+     * getter. The access method is resolved once, on first read, and reused for next objects.
+     *
+     * @since 0.3.0
+     */
+    public static class FieldGetter {
+
+        private final Class<?> tClass;
+
+        private final Field field;
+
+        /**
+         * Getter method, resolved when the field is not accessible.
+         */
+        private Method getter = null;
+
+        public FieldGetter(final Class<?> tClass, final Field field) {
+            this.tClass = tClass;
+            this.field = field;
+        }
+
+        /**
+         * Provides the related field.
+         *
+         * @return Field read by this getter.
+         * @since 0.3.0
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * Reads the field value of given object.
+         *
+         * @param what Object instance.
+         * @return Field value.
+         * @throws RuntimeException When the field is not accessible and there is no getter method.
+         * @since 0.3.0
+         */
+        public Object get(final Object what) {
+            if (getter == null) {
+                try {
+                    return field.get(what);
+                } catch (final IllegalAccessException e) {
+                    getter = findGetter();
+                }
+            }
             try {
-                final Object fieldValue = field.get(what);
-                visitor.visit(field.getName(), fieldValue);
-                continue;
-            } catch (IllegalAccessException e) {
-//                throw new RuntimeException("Cannot obtain value of field: [" + field.getName() +
-//                        "], of type: [" + field.getType() + "]: Getting field value has failed.");
+                return getter.invoke(what);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: invocation of getter has failed.", e);
             }
+        }
 
-            // Failed to get field value. Trying to obtain getter method.
+        private Method findGetter() {
             final String fieldNameCapitalized = Str.capitalize(field.getName());
-            Method getter;
             try {
-                getter = tClass.getMethod("get" + fieldNameCapitalized);
+                return tClass.getMethod("get" + fieldNameCapitalized);
             } catch (final NoSuchMethodException e1) {
                 if (field.getType().equals(boolean.class) || field.getType().equals(Boolean.class)) {
                     try {
-                        getter = tClass.getMethod("is" + fieldNameCapitalized);
+                        return tClass.getMethod("is" + fieldNameCapitalized);
                     } catch (final NoSuchMethodException e2) {
-                        throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: Field is not public and there is no get" + fieldNameCapitalized + "() + nor is" + fieldNameCapitalized + "() method accessible.", e2);
+                        throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: Field is not public and there is no get" + fieldNameCapitalized + "() nor is" + fieldNameCapitalized + "() method accessible.", e2);
                     }
-                } else {
-                    throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: Field is not public and there is no get" + fieldNameCapitalized + "() method accessible.", e1);
                 }
+                throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: Field is not public and there is no get" + fieldNameCapitalized + "() method accessible.", e1);
             }
-            try {
-                final Object getterResult = getter.invoke(what);
-                visitor.visit(field.getName(), getterResult);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException("Cannot obtain value of field: [" + field.getName() + "], of type: [" + field.getType() + "]: invocation of getter has failed.", e);
-            }
         }
     }
 
+    /**
+     * Creates the getters of given fields.
+     *
+     * @param tClass Class of object.
+     * @param fields Fields of object class.
+     * @return Array of getters related to given fields.
+     * @since 0.3.0
+     */
+    public static FieldGetter[] getFieldGetters(final Class<?> tClass, final Field[] fields) {
+        final FieldGetter[] getters = new FieldGetter[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            getters[i] = new FieldGetter(tClass, fields[i]);
+        }
+        return getters;
+    }
+
     /**
      * Provides map with fields and its values.
      *
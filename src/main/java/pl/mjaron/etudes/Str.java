@@ -21,6 +21,9 @@ package pl.mjaron.etudes;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
@@ -74,6 +77,44 @@ public abstract class Str {
      */
     public static final char LF_H = '\n';
 
+    /**
+     * Size of temporary {@code char} buffer used when HEX-string is written to {@link IPureAppendable} or
+     * {@link StringBuilder} in chunks.
+     *
+     * @since 0.3.0
+     */
+    private static final int HEX_CHUNK_SIZE = 4 * 1024;
+
+    /**
+     * Two upper-case HEX digits for each byte value. Digits of byte <code>b</code> are stored at indexes
+     * <code>2 * b</code> and <code>2 * b + 1</code>.
+     *
+     * @since 0.3.0
+     */
+    private static final char[] HEX_PAIRS = new char[512];
+
+    /**
+     * Maximal length of cached fill String. Longer paddings are appended in chunks.
+     *
+     * @since 0.3.0
+     */
+    private static final int MAX_FILL_LENGTH = 1024;
+
+    /**
+     * Cached Strings of repeated character, for each character in range <code>0..255</code>, grown on demand. Racy
+     * updates are harmless, because the Strings are immutable.
+     *
+     * @since 0.3.0
+     */
+    private static final String[] FILLS = new String[256];
+
+    static {
+        final char[] digits = "0123456789ABCDEF".toCharArray();
+        for (int b = 0; b < 256; ++b) {
+            HEX_PAIRS[b << 1] = digits[b >>> 4];
+            HEX_PAIRS[(b << 1) + 1] = digits[b & 0x0F];
+        }
+    }
 
     /**
      * Tells whether String is empty.
@@ -117,12 +158,22 @@ public abstract class Str {
 
     /**
      * @param what Any object.
-     * @return toString() result or empty String if given object was null.
+     * @return toString() result or empty String if given object was null. {@link Double} and {@link Float} values are
+     * formatted with {@link Dbl}, {@link Long}, {@link Integer}, {@link Short} and {@link Byte} values with {@link Int}.
      */
     public static String orEmpty(final Object what) {
         if (what == null) {
             return "";
         }
+        if (what instanceof Double) {
+            return Dbl.toString((double) (Double) what);
+        }
+        if (what instanceof Float) {
+            return Dbl.toString((float) (Float) what);
+        }
+        if (what instanceof Integer || what instanceof Long || what instanceof Short || what instanceof Byte) {
+            return Int.toString(((Number) what).longValue());
+        }
         return what.toString();
     }
 
@@ -226,11 +277,7 @@ public abstract class Str {
      */
     public static void padLeft(final String what, final int size, final char ch, final Appendable out) {
         try {
-            int missing = size - what.length();
-            while (missing > 0) {
-                out.append(ch);
-                --missing;
-            }
+            pad(out, size - what.length(), ch);
             out.append(what);
         } catch (IOException e) {
             throw new RuntimeException("Failed to append String.", e);
@@ -274,11 +321,7 @@ public abstract class Str {
     public static void padRight(final String what, final int size, final char ch, final Appendable out) {
         try {
             out.append(what);
-            int missing = size - what.length();
-            while (missing > 0) {
-                out.append(ch);
-                --missing;
-            }
+            pad(out, size - what.length(), ch);
         } catch (IOException e) {
             throw new RuntimeException("Failed to append String.", e);
         }
@@ -311,6 +354,9 @@ public abstract class Str {
 
     /**
      * Append given count of characters to StringBuilder.
+     * <p>
+     * The characters are appended as runs of cached fill String, so the output is called once for paddings up to 1024
+     * characters.
      *
      * @param out  {@link Appendable} instance.
      * @param size Characters count.
@@ -318,14 +364,44 @@ public abstract class Str {
      */
     public static void pad(final Appendable out, int size, final char ch) {
         try {
-            for (; size > 0; --size) {
-                out.append(ch);
+            while (size > 0) {
+                final int chunk = Math.min(size, MAX_FILL_LENGTH);
+                out.append(fill(ch, chunk), 0, chunk);
+                size -= chunk;
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to append character " + size + " times.", e);
         }
     }
 
+    /**
+     * Provides the String of repeated character, at least of given length.
+     *
+     * @param ch     Repeated character.
+     * @param length Minimal length, up to {@link #MAX_FILL_LENGTH}.
+     * @return Cached String for characters in range <code>0..255</code>, new String otherwise.
+     * @since 0.3.0
+     */
+    private static String fill(final char ch, final int length) {
+        if (ch >= FILLS.length) {
+            return repeat(ch, length);
+        }
+        final String cached = FILLS[ch];
+        if (cached != null && cached.length() >= length) {
+            return cached;
+        }
+        final int grown = Math.min(MAX_FILL_LENGTH, Math.max(length, (cached == null) ? 16 : cached.length() * 2));
+        final String filled = repeat(ch, grown);
+        FILLS[ch] = filled;
+        return filled;
+    }
+
+    private static String repeat(final char ch, final int length) {
+        final char[] chars = new char[length];
+        Arrays.fill(chars, ch);
+        return new String(chars);
+    }
+
     /**
      * Fills String with given character from right and left side to achieve the text at the center.
      *
@@ -343,11 +419,6 @@ public abstract class Str {
                 out.append(what);
                 return;
             }
-            if (toPad == 1) {
-                out.append(what);
-                out.append(ch);
-                return;
-            }
             final int toPadRight = toPad / 2 + (((toPad & 1) == 1) ? 1 : 0);
             final int toPadLeft = toPad / 2;
 
@@ -447,10 +518,8 @@ public abstract class Str {
      * @since 0.1.7
      */
     public static void hex(final StringBuilder str, final byte[] arr, final int arrBegin, final int arrEnd, final int bytesPerLine, final String byteSeparator) {
-        for (int i = arrBegin, index = 0; i < arrEnd; ++i, ++index) {
-            final byte b = arr[i];
-            impl.hexEntryImpl(str, b, index, bytesPerLine, byteSeparator);
-        }
+        str.ensureCapacity(str.length() + hexLength(arrEnd - arrBegin, bytesPerLine, byteSeparator));
+        hex(arr, arrBegin, arrEnd, bytesPerLine, byteSeparator, IPureAppendable.from(str));
     }
 
     /**
@@ -485,9 +554,9 @@ public abstract class Str {
      * @since 0.1.7
      */
     public static String hex(final byte[] arr, final int arrBegin, final int arrEnd, final int bytesPerLine, final String byteSeparator) {
-        StringBuilder str = impl.hexPrepareStringBuilder(arrBegin, arrEnd, bytesPerLine, byteSeparator);
-        hex(str, arr, arrBegin, arrEnd, bytesPerLine, byteSeparator);
-        return str.toString();
+        final char[] chars = new char[hexLength(arrEnd - arrBegin, bytesPerLine, byteSeparator)];
+        hex(arr, arrBegin, arrEnd, bytesPerLine, byteSeparator, chars, 0);
+        return new String(chars);
     }
 
     /**
@@ -562,6 +631,193 @@ public abstract class Str {
         return hex(arr, 0, arr.length, STR_HEX_DEFAULT_BYTES_PER_LINE, STR_HEX_DEFAULT_BYTE_SEPARATOR);
     }
 
+    /**
+     * Computes the exact count of characters produced when converting given count of bytes to HEX-string.
+     *
+     * @param bytesCount    Count of converted bytes.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes.
+     * @return Count of HEX-string characters.
+     * @since 0.3.0
+     */
+    public static int hexLength(final int bytesCount, final int bytesPerLine, final String byteSeparator) {
+        if (bytesCount <= 0) {
+            return 0;
+        }
+        final int boundaries = bytesCount - 1;
+        final int lineBreaks = (bytesPerLine > 0) ? (boundaries / bytesPerLine) : 0;
+        return 2 * bytesCount + lineBreaks + (boundaries - lineBreaks) * byteSeparator.length();
+    }
+
+    /**
+     * Converts the byte array to HEX-string written to preallocated <code>char</code> array.
+     *
+     * @param arr           Array from where bytes are read.
+     * @param arrBegin      Index pointing where to start array reading.
+     * @param arrEnd        Index where to stop array reading. It is first not read index.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes. Usually single space is good separator.
+     * @param dst           Destination array. It must have at least {@link #hexLength(int, int, String)} characters
+     *                      available from <code>dstBegin</code>.
+     * @param dstBegin      Index of first written character.
+     * @return Index after last written character.
+     * @since 0.3.0
+     */
+    public static int hex(final byte[] arr, final int arrBegin, final int arrEnd, final int bytesPerLine, final String byteSeparator, final char[] dst, final int dstBegin) {
+        return impl.hexImpl(arr, arrBegin, arrEnd, 0, bytesPerLine, byteSeparator, dst, dstBegin);
+    }
+
+    /**
+     * Converts remaining bytes of given {@link ByteBuffer} to HEX-string written to preallocated <code>char</code>
+     * array. Bytes are read with absolute get operations, so the buffer position is not changed. Direct buffers are
+     * read without copying to temporary heap array.
+     *
+     * @param buffer        Buffer from where bytes between position and limit are read.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes. Usually single space is good separator.
+     * @param dst           Destination array. It must have at least {@link #hexLength(int, int, String)} characters
+     *                      available from <code>dstBegin</code>.
+     * @param dstBegin      Index of first written character.
+     * @return Index after last written character.
+     * @since 0.3.0
+     */
+    public static int hex(final ByteBuffer buffer, final int bytesPerLine, final String byteSeparator, final char[] dst, final int dstBegin) {
+        return impl.hexImpl(buffer, buffer.position(), buffer.limit(), 0, bytesPerLine, byteSeparator, dst, dstBegin);
+    }
+
+    /**
+     * Converts the byte array to HEX-string and writes it to given {@link IPureAppendable} in chunks, so no
+     * intermediate {@link String} of whole result is created.
+     *
+     * @param arr           Array from where bytes are read.
+     * @param arrBegin      Index pointing where to start array reading.
+     * @param arrEnd        Index where to stop array reading. It is first not read index.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes. Usually single space is good separator.
+     * @param out           Where to write the HEX-string.
+     * @since 0.3.0
+     */
+    public static void hex(final byte[] arr, final int arrBegin, final int arrEnd, final int bytesPerLine, final String byteSeparator, final IPureAppendable out) {
+        final char[] chunk = new char[HEX_CHUNK_SIZE];
+        final int bytesPerChunk = impl.hexBytesPerChunk(chunk.length, byteSeparator);
+        for (int begin = arrBegin; begin < arrEnd; begin += bytesPerChunk) {
+            final int end = Math.min(arrEnd, begin + bytesPerChunk);
+            final int length = impl.hexImpl(arr, begin, end, begin - arrBegin, bytesPerLine, byteSeparator, chunk, 0);
+            impl.appendChunk(out, chunk, length);
+        }
+    }
+
+    /**
+     * Converts remaining bytes of given {@link ByteBuffer} to HEX-string and writes it to given
+     * {@link IPureAppendable} in chunks. The buffer position is not changed.
+     *
+     * @param buffer        Buffer from where bytes between position and limit are read.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes. Usually single space is good separator.
+     * @param out           Where to write the HEX-string.
+     * @since 0.3.0
+     */
+    public static void hex(final ByteBuffer buffer, final int bytesPerLine, final String byteSeparator, final IPureAppendable out) {
+        final char[] chunk = new char[HEX_CHUNK_SIZE];
+        final int bytesPerChunk = impl.hexBytesPerChunk(chunk.length, byteSeparator);
+        final int bufferBegin = buffer.position();
+        final int bufferEnd = buffer.limit();
+        for (int begin = bufferBegin; begin < bufferEnd; begin += bytesPerChunk) {
+            final int end = Math.min(bufferEnd, begin + bytesPerChunk);
+            final int length = impl.hexImpl(buffer, begin, end, begin - bufferBegin, bytesPerLine, byteSeparator, chunk, 0);
+            impl.appendChunk(out, chunk, length);
+        }
+    }
+
+    /**
+     * Converts remaining bytes of given {@link ByteBuffer} to HEX-string. The buffer position is not changed.
+     *
+     * @param buffer        Buffer from where bytes between position and limit are read.
+     * @param bytesPerLine  If positive, output HEX bytes will be grouped into separated lies. When negative, all bytes
+     *                      will be represented in single line.
+     * @param byteSeparator String used to separate bytes. Usually single space is good separator.
+     * @return Hex-formatted String.
+     * @since 0.3.0
+     */
+    public static String hex(final ByteBuffer buffer, final int bytesPerLine, final String byteSeparator) {
+        final char[] chars = new char[hexLength(buffer.remaining(), bytesPerLine, byteSeparator)];
+        hex(buffer, bytesPerLine, byteSeparator, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Converts remaining bytes of given {@link ByteBuffer} to HEX-string. Uses default count of bytes per line and
+     * default byte separator. The buffer position is not changed.
+     *
+     * @param buffer Buffer from where bytes between position and limit are read.
+     * @return Hex-formatted String.
+     * @see #STR_HEX_DEFAULT_BYTES_PER_LINE
+     * @see #STR_HEX_DEFAULT_BYTE_SEPARATOR
+     * @since 0.3.0
+     */
+    public static String hex(final ByteBuffer buffer) {
+        return hex(buffer, STR_HEX_DEFAULT_BYTES_PER_LINE, STR_HEX_DEFAULT_BYTE_SEPARATOR);
+    }
+
+    /**
+     * Converts HEX-string characters to bytes written to preallocated array. Characters without graphical
+     * representation (like spaces or line breaks) are skipped, so the output of {@link #hex(byte[])} may be decoded.
+     *
+     * @param src      Characters with HEX digits.
+     * @param srcBegin Index of first read character.
+     * @param srcEnd   Index after last read character.
+     * @param dst      Destination array. Up to <code>(srcEnd - srcBegin) / 2</code> bytes may be written.
+     * @param dstBegin Index of first written byte.
+     * @return Index after last written byte.
+     * @throws RuntimeException When any graphical character is not a HEX digit.
+     * @see Ch#isGraph(char)
+     * @since 0.3.0
+     */
+    public static int hex(final char[] src, final int srcBegin, final int srcEnd, final byte[] dst, final int dstBegin) {
+        return hex(CharBuffer.wrap(src), srcBegin, srcEnd, dst, dstBegin);
+    }
+
+    /**
+     * Converts HEX-string characters to bytes written to preallocated array. Characters without graphical
+     * representation (like spaces or line breaks) are skipped, so the output of {@link #hex(byte[])} may be decoded.
+     *
+     * @param src      Characters with HEX digits.
+     * @param srcBegin Index of first read character.
+     * @param srcEnd   Index after last read character.
+     * @param dst      Destination array. Up to <code>(srcEnd - srcBegin) / 2</code> bytes may be written.
+     * @param dstBegin Index of first written byte.
+     * @return Index after last written byte.
+     * @throws RuntimeException When any graphical character is not a HEX digit.
+     * @see Ch#isGraph(char)
+     * @since 0.3.0
+     */
+    public static int hex(final CharSequence src, final int srcBegin, final int srcEnd, final byte[] dst, final int dstBegin) {
+        int d = dstBegin;
+        int highNibble = -1;
+        for (int i = srcBegin; i < srcEnd; ++i) {
+            final char ch = src.charAt(i);
+            final int value = Ch.hexDigitValue(ch);
+            if (value < 0) {
+                if (Ch.isGraph(ch)) {
+                    Ch.toHexValue(ch); // Throws the exception.
+                }
+                continue;
+            }
+            if (highNibble < 0) {
+                highNibble = value << 4;
+            } else {
+                dst[d++] = (byte) (highNibble | value);
+                highNibble = -1;
+            }
+        }
+        return d;
+    }
+
     /**
      * Converts hex String to byte array.
      *
@@ -569,25 +825,9 @@ public abstract class Str {
      * @return Byte array.
      */
     public static byte[] hex(final String str) {
-        int hCount = isGraphCount(str) / 2;
-        byte[] arr = new byte[hCount];
-        boolean isHighNibble = true;
-        byte b = 0; // Byte value.
-        int a = 0; // Index of arr.
-        for (int i = 0; i < str.length(); ++i) {
-            if (Ch.isGraph(str.charAt(i))) {
-                if (isHighNibble) {
-                    b = (byte) (Ch.toHexValue(str.charAt(i)) << 4);
-                    isHighNibble = false;
-                } else {
-                    b |= Ch.toHexValue(str.charAt(i));
-                    arr[a] = b;
-                    ++a;
-                    isHighNibble = true;
-                }
-            }
-        }
-        return arr;
+        final byte[] arr = new byte[str.length() / 2];
+        final int length = hex(str, 0, str.length(), arr, 0);
+        return (length == arr.length) ? arr : Arrays.copyOf(arr, length);
     }
 
     /**
@@ -677,7 +917,8 @@ public abstract class Str {
                     str.append(byteSeparator);
                 }
             }
-            str.append(String.format("%02X", b));
+            final int pair = (b & 0xFF) << 1;
+            str.append(HEX_PAIRS[pair]).append(HEX_PAIRS[pair + 1]);
         }
 
         /**
@@ -696,5 +937,116 @@ public abstract class Str {
             final int linesCount = (bytesPerLine <= 0) ? 1 : (bytesCount / bytesPerLine);
             return new StringBuilder(bytesCount * byteSize + linesCount);
         }
+
+        /**
+         * Tells how many bytes may be converted at once to fit in the chunk of given size.
+         *
+         * @param chunkSize     Count of characters in the chunk.
+         * @param byteSeparator How bytes are separated.
+         * @return Count of bytes which HEX-string fits in the chunk. At least one.
+         * @since 0.3.0
+         */
+        static int hexBytesPerChunk(final int chunkSize, final String byteSeparator) {
+            return Math.max(1, chunkSize / (2 + Math.max(1, byteSeparator.length())));
+        }
+
+        /**
+         * Writes the chunk of characters. Avoids copying when the underlying object is a {@link StringBuilder}.
+         *
+         * @param out    Destination.
+         * @param chunk  Characters to write.
+         * @param length Count of characters to write.
+         * @since 0.3.0
+         */
+        public static void appendChunk(final IPureAppendable out, final char[] chunk, final int length) {
+            if (out.getUnderlyingObject() instanceof StringBuilder) {
+                ((StringBuilder) out.getUnderlyingObject()).append(chunk, 0, length);
+            } else {
+                out.append(CharBuffer.wrap(chunk, 0, length));
+            }
+        }
+
+        /**
+         * Table-driven conversion of byte array fragment to HEX-string.
+         *
+         * @param arr           Source bytes.
+         * @param arrBegin      Index of first converted byte.
+         * @param arrEnd        Index after last converted byte.
+         * @param firstIndex    Number of the first converted byte in the whole converted sequence. Used to continue
+         *                      the lines and separators when the sequence is converted in chunks.
+         * @param bytesPerLine  How many bytes in single line. Negative or 0 means that all bytes should be in single
+         *                      line.
+         * @param byteSeparator How to separate bytes.
+         * @param dst           Destination array.
+         * @param dstBegin      Index of first written character.
+         * @return Index after last written character.
+         * @since 0.3.0
+         */
+        public static int hexImpl(final byte[] arr, final int arrBegin, final int arrEnd, final int firstIndex, final int bytesPerLine, final String byteSeparator, final char[] dst, final int dstBegin) {
+            final int separatorLength = byteSeparator.length();
+            int column = (bytesPerLine > 0) ? (firstIndex % bytesPerLine) : firstIndex;
+            int d = dstBegin;
+            for (int i = arrBegin; i < arrEnd; ++i) {
+                if (i != arrBegin || firstIndex != 0) {
+                    if (column == 0) {
+                        dst[d++] = '\n';
+                    } else {
+                        byteSeparator.getChars(0, separatorLength, dst, d);
+                        d += separatorLength;
+                    }
+                }
+                final int pair = (arr[i] & 0xFF) << 1;
+                dst[d] = HEX_PAIRS[pair];
+                dst[d + 1] = HEX_PAIRS[pair + 1];
+                d += 2;
+                if (++column == bytesPerLine) {
+                    column = 0;
+                }
+            }
+            return d;
+        }
+
+        /**
+         * Table-driven conversion of {@link ByteBuffer} fragment to HEX-string. Uses absolute get operations, so the
+         * buffer position is not changed.
+         *
+         * @param buffer        Source bytes.
+         * @param begin         Index of first converted byte.
+         * @param end           Index after last converted byte.
+         * @param firstIndex    Number of the first converted byte in the whole converted sequence.
+         * @param bytesPerLine  How many bytes in single line. Negative or 0 means that all bytes should be in single
+         *                      line.
+         * @param byteSeparator How to separate bytes.
+         * @param dst           Destination array.
+         * @param dstBegin      Index of first written character.
+         * @return Index after last written character.
+         * @since 0.3.0
+         */
+        public static int hexImpl(final ByteBuffer buffer, final int begin, final int end, final int firstIndex, final int bytesPerLine, final String byteSeparator, final char[] dst, final int dstBegin) {
+            if (buffer.hasArray()) {
+                return hexImpl(buffer.array(), buffer.arrayOffset() + begin, buffer.arrayOffset() + end, firstIndex, bytesPerLine, byteSeparator, dst, dstBegin);
+            }
+            final int separatorLength = byteSeparator.length();
+            int column = (bytesPerLine > 0) ? (firstIndex % bytesPerLine) : firstIndex;
+            int d = dstBegin;
+            for (int i = begin; i < end; ++i) {
+                if (i != begin || firstIndex != 0) {
+                    if (column == 0) {
+                        dst[d++] = '\n';
+                    } else {
+                        byteSeparator.getChars(0, separatorLength, dst, d);
+                        d += separatorLength;
+                    }
+                }
+                final int pair = (buffer.get(i) & 0xFF) << 1;
+                dst[d] = HEX_PAIRS[pair];
+                dst[d + 1] = HEX_PAIRS[pair + 1];
+                d += 2;
+                if (++column == bytesPerLine) {
+                    column = 0;
+                }
+            }
+            return d;
+        }
     }
 }
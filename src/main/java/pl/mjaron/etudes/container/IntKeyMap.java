@@ -0,0 +1,378 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.container;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Map of <code>int</code> keys to not null values, without boxing the keys nor allocating the entries.
+ * <p>
+ * Compact keys are stored in the dense array indexed by the key, other keys in the open-addressing hash table with
+ * linear probing. The representation is switched when the map grows: to the hash table when the keys range becomes
+ * more than twice as large as the count of keys, and back to the array when the keys become dense again.
+ *
+ * @param <V> Value type.
+ * @since 0.3.0
+ */
+public class IntKeyMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Tells whether the values are stored in the dense array, at index <code>key - base</code>.
+     */
+    private boolean dense = true;
+
+    /**
+     * Key of the first dense array element.
+     */
+    private int base = 0;
+
+    /**
+     * Keys of the hash table slots, not used by the dense array.
+     */
+    private int[] keys = null;
+
+    /**
+     * Values of the dense array elements or of the hash table slots. Empty slots store <code>null</code>.
+     */
+    private Object[] values = null;
+
+    private int size = 0;
+
+    /**
+     * Range of keys put to the map. Not narrowed when the keys are removed.
+     */
+    private int minKey = Integer.MAX_VALUE;
+    private int maxKey = Integer.MIN_VALUE;
+
+    /**
+     * Provides the count of stored values.
+     *
+     * @return Count of keys.
+     * @since 0.3.0
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tells whether the map is empty.
+     *
+     * @return <code>true</code> when there are no keys.
+     * @since 0.3.0
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Tells whether the values are stored in the dense array rather than in the hash table.
+     *
+     * @return <code>true</code> for the dense array.
+     * @since 0.3.0
+     */
+    public boolean isDense() {
+        return dense;
+    }
+
+    /**
+     * Provides the value of given key.
+     *
+     * @param key Any key.
+     * @return Value or <code>null</code> if the key is not present.
+     * @since 0.3.0
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V get(final int key) {
+        if (values == null) {
+            return null;
+        }
+        if (dense) {
+            final long index = (long) key - base;
+            return (index >= 0 && index < values.length) ? (V) values[(int) index] : null;
+        }
+        final int slot = find(key);
+        return (slot < 0) ? null : (V) values[slot];
+    }
+
+    /**
+     * Tells whether given key is present.
+     *
+     * @param key Any key.
+     * @return <code>true</code> when the map contains the key.
+     * @since 0.3.0
+     */
+    public boolean containsKey(final int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets the value of given key.
+     *
+     * @param key   Any key.
+     * @param value New value or <code>null</code> to remove the key.
+     * @return Previous value or <code>null</code> if the key was not present.
+     * @since 0.3.0
+     */
+    @Nullable
+    public V put(final int key, @Nullable final V value) {
+        if (value == null) {
+            return remove(key);
+        }
+        if (values == null) {
+            base = key;
+            values = new Object[MIN_CAPACITY];
+        }
+        final int newMin = Math.min(minKey, key);
+        final int newMax = Math.max(maxKey, key);
+        if (dense) {
+            final long index = (long) key - base;
+            if (index < 0 || index >= values.length) {
+                final long range = (long) newMax - newMin + 1;
+                if (range > Math.max(MIN_CAPACITY, 2L * (size + 1))) {
+                    toHashTable();
+                } else {
+                    resizeDense(newMin, (int) range);
+                }
+            }
+        }
+        minKey = newMin;
+        maxKey = newMax;
+        if (dense) {
+            return setDense(key, value);
+        }
+        final V previous = putHashed(key, value);
+        if (previous == null && size > MIN_CAPACITY && (long) maxKey - minKey + 1 <= 2L * size) {
+            toDense();
+        }
+        return previous;
+    }
+
+    /**
+     * Removes given key.
+     *
+     * @param key Any key.
+     * @return Removed value or <code>null</code> if the key was not present.
+     * @since 0.3.0
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V remove(final int key) {
+        if (values == null) {
+            return null;
+        }
+        if (dense) {
+            final long index = (long) key - base;
+            if (index < 0 || index >= values.length || values[(int) index] == null) {
+                return null;
+            }
+            final V previous = (V) values[(int) index];
+            values[(int) index] = null;
+            --size;
+            return previous;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        final V previous = (V) values[slot];
+        --size;
+        // Backward shift deletion, so the probe sequences of other keys stay unbroken.
+        final int mask = values.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            final int home = hash(keys[next], mask);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        values[slot] = null;
+        return previous;
+    }
+
+    /**
+     * Removes all keys.
+     *
+     * @since 0.3.0
+     */
+    public void clear() {
+        dense = true;
+        keys = null;
+        values = null;
+        size = 0;
+        minKey = Integer.MAX_VALUE;
+        maxKey = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Visits all values in ascending order of their keys.
+     *
+     * @param visitor Receives the value and its key.
+     * @since 0.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull final ObjIntConsumer<? super V> visitor) {
+        if (values == null) {
+            return;
+        }
+        if (dense) {
+            for (int i = 0; i < values.length; ++i) {
+                if (values[i] != null) {
+                    visitor.accept((V) values[i], base + i);
+                }
+            }
+            return;
+        }
+        final int[] sorted = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < values.length; ++slot) {
+            if (values[slot] != null) {
+                sorted[count++] = keys[slot];
+            }
+        }
+        Arrays.sort(sorted);
+        for (final int key : sorted) {
+            visitor.accept((V) values[find(key)], key);
+        }
+    }
+
+    private static int hash(final int key, final int mask) {
+        final int h = key * 0x9E37_79B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Finds the hash table slot of given key.
+     *
+     * @return Slot index or <code>-1</code> if not found.
+     */
+    private int find(final int key) {
+        final int mask = values.length - 1;
+        for (int slot = hash(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V setDense(final int key, final V value) {
+        final int index = key - base;
+        final V previous = (V) values[index];
+        if (previous == null) {
+            ++size;
+        }
+        values[index] = value;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V putHashed(final int key, final V value) {
+        if (2 * (size + 1) > values.length) {
+            rehash(values.length * 2);
+        }
+        final int mask = values.length - 1;
+        int slot = hash(key, mask);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        ++size;
+        return null;
+    }
+
+    /**
+     * Moves the dense array, so it starts at given key and has at least given length.
+     */
+    private void resizeDense(final int newBase, final int range) {
+        final Object[] resized = new Object[Math.max(range, Math.min(values.length * 2, 2 * (size + 1) + MIN_CAPACITY))];
+        System.arraycopy(values, 0, resized, base - newBase, Math.min(values.length, resized.length - (base - newBase)));
+        values = resized;
+        base = newBase;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void toHashTable() {
+        final Object[] denseValues = values;
+        final int denseBase = base;
+        dense = false;
+        keys = new int[tableCapacity(size + 1)];
+        values = new Object[keys.length];
+        size = 0;
+        for (int i = 0; i < denseValues.length; ++i) {
+            if (denseValues[i] != null) {
+                putHashed(denseBase + i, (V) denseValues[i]);
+            }
+        }
+    }
+
+    private void toDense() {
+        final int[] hashedKeys = keys;
+        final Object[] hashedValues = values;
+        dense = true;
+        keys = null;
+        base = minKey;
+        values = new Object[maxKey - minKey + 1];
+        for (int slot = 0; slot < hashedValues.length; ++slot) {
+            if (hashedValues[slot] != null) {
+                values[hashedKeys[slot] - base] = hashedValues[slot];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(final int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int slot = 0; slot < oldValues.length; ++slot) {
+            if (oldValues[slot] != null) {
+                putHashed(oldKeys[slot], (V) oldValues[slot]);
+            }
+        }
+    }
+
+    /**
+     * Provides the power of 2 hash table capacity, so given count of keys fills at most half of the slots.
+     */
+    private static int tableCapacity(final int count) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, 2 * count - 1)) << 1);
+    }
+}
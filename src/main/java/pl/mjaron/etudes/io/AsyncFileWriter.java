@@ -0,0 +1,379 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.io;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes files asynchronously on a dedicated I/O thread, e.g:
+ * <pre>{@code
+ *     try (AsyncFileWriter writer = new AsyncFileWriter()) {
+ *         for (Report report : reports) {
+ *             writer.write(report.render(), report.getFile());
+ *         }
+ *     } // Waits for all pending writes.
+ * }</pre>
+ * Submitting a write never blocks the calling thread. Pending writes are taken from the queue in batches and strings
+ * are encoded directly into a direct {@link ByteBuffer} which is reused for all writes, so no intermediate byte array
+ * of whole content is created.
+ * <p>
+ * Given byte arrays and char sequences must not be modified until the returned future completes. When a write fails
+ * with an {@link Error}, the I/O thread keeps running, but the failed write and all next writes are completed
+ * exceptionally.
+ *
+ * @see IO#writeAsync(String, File)
+ * @since 0.3.0
+ */
+public class AsyncFileWriter implements AutoCloseable {
+
+    /**
+     * Default size of the direct buffer used to write the files.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_BUFFER_SIZE = IO.LARGE_BUFFER_SIZE;
+
+    /**
+     * Default maximal count of writes taken from the queue at once.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Minimal buffer size, big enough to hold the longest encoded character of any charset.
+     *
+     * @since 0.3.0
+     */
+    public static final int MIN_BUFFER_SIZE = 16;
+
+    private final LinkedBlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+
+    private final Thread thread;
+
+    private final int bufferSize;
+
+    private final int maxBatchSize;
+
+    /**
+     * Set under the lock of this object, so no job is queued after the stop job.
+     */
+    private boolean closed = false;
+
+    /**
+     * Lazily created writer shared by {@link IO#writeAsync(String, File)} methods.
+     */
+    private static class SharedHolder {
+        static final AsyncFileWriter INSTANCE = new AsyncFileWriter();
+    }
+
+    /**
+     * Provides writer shared by the whole application. It is never closed and its thread is a daemon thread, so
+     * pending writes should be awaited with returned futures or {@link #flush()} before the application exits.
+     *
+     * @return Shared writer instance.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static AsyncFileWriter shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Creates the writer with {@link #DEFAULT_BUFFER_SIZE} and {@link #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @since 0.3.0
+     */
+    public AsyncFileWriter() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates the writer and starts its I/O thread.
+     *
+     * @param bufferSize   Size of the direct buffer used to write the files. At least {@link #MIN_BUFFER_SIZE}.
+     * @param maxBatchSize Maximal count of writes taken from the queue at once.
+     * @since 0.3.0
+     */
+    public AsyncFileWriter(final int bufferSize, final int maxBatchSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize + ".");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize + ".");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBatchSize = maxBatchSize;
+        this.thread = new Thread(this::runLoop, "AsyncFileWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Writes given <code>data</code> to <code>file</code>.
+     *
+     * @param data Byte array. Must not be modified until the write completes.
+     * @param file Written file.
+     * @return Future completed with written file or completed exceptionally with {@link RuntimeException} when write
+     * fails.
+     * @since 0.3.0
+     */
+    @NotNull
+    public CompletableFuture<File> write(@NotNull final byte[] data, @NotNull final File file) {
+        return submit(new Job(file, data, null, null));
+    }
+
+    /**
+     * Writes given <code>text</code> to <code>file</code> with given <code>charset</code>.
+     *
+     * @param text    Written text. Must not be modified until the write completes.
+     * @param file    Written file.
+     * @param charset Charset. Malformed and unmappable characters are replaced like in {@link String#getBytes(Charset)}.
+     * @return Future completed with written file or completed exceptionally with {@link RuntimeException} when write
+     * fails.
+     * @since 0.3.0
+     */
+    @NotNull
+    public CompletableFuture<File> write(@NotNull final CharSequence text, @NotNull final File file, @NotNull final Charset charset) {
+        return submit(new Job(file, null, text, charset));
+    }
+
+    /**
+     * Writes given <code>text</code> to <code>file</code> with default {@link Charset}.
+     *
+     * @param text Written text. Must not be modified until the write completes.
+     * @param file Written file.
+     * @return Future completed with written file or completed exceptionally with {@link RuntimeException} when write
+     * fails.
+     * @since 0.3.0
+     */
+    @NotNull
+    public CompletableFuture<File> write(@NotNull final CharSequence text, @NotNull final File file) {
+        return write(text, file, Charset.defaultCharset());
+    }
+
+    /**
+     * Provides future completed when all writes submitted before this call are finished, regardless of their result.
+     *
+     * @return Future of all previously submitted writes.
+     * @since 0.3.0
+     */
+    @NotNull
+    public CompletableFuture<File> flush() {
+        return submit(new Job(null, null, null, null));
+    }
+
+    /**
+     * Stops accepting new writes and waits until all pending writes are finished.
+     *
+     * @since 0.3.0
+     */
+    @Override
+    public void close() {
+        if (this == SharedHolder.INSTANCE) {
+            throw new IllegalStateException("Shared writer cannot be closed.");
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(Job.STOP);
+        }
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<File> submit(final Job job) {
+        synchronized (this) {
+            if (!closed) {
+                queue.add(job);
+                return job.future;
+            }
+        }
+        job.future.completeExceptionally(new IllegalStateException("Writer is closed."));
+        return job.future;
+    }
+
+    private void runLoop() {
+        final Worker worker = new Worker(bufferSize);
+        final List<Job> batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+        Throwable fatal = null;
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (final InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            for (final Job job : batch) {
+                if (job == Job.STOP) {
+                    return;
+                }
+                if (fatal != null) {
+                    fail(job, fatal);
+                    continue;
+                }
+                try {
+                    worker.execute(job);
+                } catch (final Throwable e) {
+                    job.future.completeExceptionally(new RuntimeException("Failed to write data to file: [" + job.file + "].", e));
+                    if (e instanceof Error) {
+                        fatal = e;
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Completes given job after a fatal error of the I/O thread. Writes are failed, flushes are completed.
+     */
+    private static void fail(final Job job, final Throwable fatal) {
+        if (job.file == null) {
+            job.future.complete(null);
+        } else {
+            job.future.completeExceptionally(new IllegalStateException("Writer failed before writing file: [" + job.file.getPath() + "].", fatal));
+        }
+    }
+
+    /**
+     * Single file write request.
+     */
+    private static class Job {
+
+        static final Job STOP = new Job(null, null, null, null);
+
+        final File file;
+        final byte[] data;
+        final CharSequence text;
+        final Charset charset;
+        final CompletableFuture<File> future = new CompletableFuture<>();
+
+        Job(final File file, final byte[] data, final CharSequence text, final Charset charset) {
+            this.file = file;
+            this.data = data;
+            this.text = text;
+            this.charset = charset;
+        }
+    }
+
+    /**
+     * State owned by the I/O thread: the direct buffer and encoders reused between writes.
+     */
+    private static class Worker {
+
+        private final ByteBuffer buffer;
+
+        private final Map<Charset, CharsetEncoder> encoders = new HashMap<>();
+
+        Worker(final int bufferSize) {
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        void execute(final Job job) {
+            if (job.file == null) {
+                job.future.complete(null);
+                return;
+            }
+            try (final FileChannel channel = FileChannel.open(job.file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                buffer.clear();
+                if (job.data != null) {
+                    putBytes(channel, job.data);
+                } else {
+                    putText(channel, job.text, job.charset);
+                }
+                drain(channel);
+                job.future.complete(job.file);
+            } catch (final IOException | RuntimeException e) {
+                job.future.completeExceptionally(new RuntimeException("Failed to write data to file: [" + job.file.getPath() + "].", e));
+            }
+        }
+
+        private void putBytes(final FileChannel channel, final byte[] data) throws IOException {
+            int position = 0;
+            while (position < data.length) {
+                final int count = Math.min(buffer.remaining(), data.length - position);
+                buffer.put(data, position, count);
+                position += count;
+                if (!buffer.hasRemaining()) {
+                    drain(channel);
+                }
+            }
+        }
+
+        private void putText(final FileChannel channel, final CharSequence text, final Charset charset) throws IOException {
+            final CharsetEncoder encoder = encoders.computeIfAbsent(charset, c -> c.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE));
+            encoder.reset();
+            final CharBuffer in = CharBuffer.wrap(text);
+            while (true) {
+                final CoderResult result = encoder.encode(in, buffer, true);
+                if (result.isOverflow()) {
+                    drain(channel);
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain(channel);
+            }
+        }
+
+        private void drain(final FileChannel channel) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
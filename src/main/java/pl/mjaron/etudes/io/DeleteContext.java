@@ -0,0 +1,302 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recursive delete options, e.g:
+ * <pre>{@code
+ *     DeleteStats stats = DeleteContext.make().withParallel().withContentOnly().run(cacheDirectory);
+ * }</pre>
+ * Directories are traversed with NIO {@link Files#walkFileTree(Path, FileVisitor)} or, in parallel mode, with
+ * {@link DirectoryStream} per directory, so no {@code File[]} of whole directory content is allocated. Symbolic links
+ * are not followed: the link itself is removed.
+ *
+ * @see pl.mjaron.etudes.IO#delete(File)
+ * @see pl.mjaron.etudes.IO#cleanDirectory(File)
+ * @since 0.3.0
+ */
+public class DeleteContext {
+
+    /**
+     * Whether subdirectories are processed concurrently by {@link ForkJoinPool}.
+     */
+    private boolean parallel = false;
+
+    /**
+     * Pool used in parallel mode. When null, {@link ForkJoinPool#commonPool()} is used.
+     */
+    private ForkJoinPool pool = null;
+
+    /**
+     * When true, entries are only counted, nothing is removed.
+     */
+    private boolean dryRun = false;
+
+    /**
+     * When true, the directory content is removed, but the directory itself is kept.
+     */
+    private boolean contentOnly = false;
+
+    /**
+     * Default constructor. By convention, use {@link #make()} to create the object.
+     *
+     * @since 0.3.0
+     */
+    public DeleteContext() {
+    }
+
+    /**
+     * Initializes the {@link DeleteContext} object.
+     *
+     * @return New instance of {@link DeleteContext}.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static DeleteContext make() {
+        return new DeleteContext();
+    }
+
+    /**
+     * Processes subdirectories concurrently with {@link ForkJoinPool#commonPool()}. Useful for wide trees with many
+     * files.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public DeleteContext withParallel() {
+        return withParallel(null);
+    }
+
+    /**
+     * Processes subdirectories concurrently with given pool.
+     *
+     * @param pool Pool used to process subdirectories. If {@code null}, {@link ForkJoinPool#commonPool()} is used.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public DeleteContext withParallel(final ForkJoinPool pool) {
+        this.parallel = true;
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Only counts the entries which would be removed.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public DeleteContext withDryRun() {
+        this.dryRun = true;
+        return this;
+    }
+
+    /**
+     * Removes only the content of the directory. The directory itself is kept.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public DeleteContext withContentOnly() {
+        this.contentOnly = true;
+        return this;
+    }
+
+    /**
+     * Removes given file or directory with its content.
+     *
+     * @param file Removed file or directory.
+     * @return Summary of removed entries.
+     * @throws RuntimeException When any entry cannot be removed.
+     * @since 0.3.0
+     */
+    @NotNull
+    public DeleteStats run(@NotNull final File file) {
+        return run(file.toPath());
+    }
+
+    /**
+     * Removes given file or directory with its content.
+     *
+     * @param path Removed file or directory.
+     * @return Summary of removed entries.
+     * @throws RuntimeException When any entry cannot be removed.
+     * @since 0.3.0
+     */
+    @NotNull
+    public DeleteStats run(@NotNull final Path path) {
+        final Counters counters = new Counters();
+        if (contentOnly && !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            return counters.toStats();
+        }
+        if (parallel) {
+            final BasicFileAttributes attributes = readAttributes(path);
+            if (attributes.isDirectory()) {
+                final DirectoryTask task = new DirectoryTask(path, !contentOnly, counters);
+                ((pool != null) ? pool : ForkJoinPool.commonPool()).invoke(task);
+            } else {
+                deleteFile(path, attributes, counters);
+            }
+        } else {
+            walk(path, counters);
+        }
+        return counters.toStats();
+    }
+
+    private void walk(final Path root, final Counters counters) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    deleteFile(file, attributes, counters);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException e) throws IOException {
+                    throw e;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(final Path directory, final IOException e) throws IOException {
+                    if (e != null) {
+                        throw e;
+                    }
+                    if (!contentOnly || !directory.equals(root)) {
+                        deleteDirectory(directory, counters);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to delete file: [" + root.toAbsolutePath() + "].", e);
+        }
+    }
+
+    private void deleteFile(final Path file, final BasicFileAttributes attributes, final Counters counters) {
+        if (!dryRun) {
+            delete(file);
+        }
+        counters.files.increment();
+        counters.bytes.add(attributes.isRegularFile() ? attributes.size() : 0);
+    }
+
+    private void deleteDirectory(final Path directory, final Counters counters) {
+        if (!dryRun) {
+            delete(directory);
+        }
+        counters.directories.increment();
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.delete(path);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to delete file: [" + path.toAbsolutePath() + "].", e);
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to delete file: [" + path.toAbsolutePath() + "].", e);
+        }
+    }
+
+    /**
+     * Counters shared by concurrent tasks.
+     */
+    private static class Counters {
+        final LongAdder files = new LongAdder();
+        final LongAdder directories = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+
+        DeleteStats toStats() {
+            return new DeleteStats(files.sum(), directories.sum(), bytes.sum());
+        }
+    }
+
+    /**
+     * Removes single directory content. Files are removed directly, subdirectories are forked as separate tasks.
+     */
+    private class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        private final boolean deleteSelf;
+
+        private final Counters counters;
+
+        DirectoryTask(final Path directory, final boolean deleteSelf, final Counters counters) {
+            this.directory = directory;
+            this.deleteSelf = deleteSelf;
+            this.counters = counters;
+        }
+
+        @Override
+        protected void compute() {
+            final List<DirectoryTask> subtasks = new ArrayList<>();
+            try (final DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (final Path entry : entries) {
+                    final BasicFileAttributes attributes = readAttributes(entry);
+                    if (attributes.isDirectory()) {
+                        final DirectoryTask subtask = new DirectoryTask(entry, true, counters);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                    } else {
+                        deleteFile(entry, attributes, counters);
+                    }
+                }
+            } catch (final IOException e) {
+                throw new RuntimeException("Failed to delete file: [" + directory.toAbsolutePath() + "].", e);
+            }
+            for (final DirectoryTask subtask : subtasks) {
+                subtask.join();
+            }
+            if (deleteSelf) {
+                deleteDirectory(directory, counters);
+            }
+        }
+    }
+}
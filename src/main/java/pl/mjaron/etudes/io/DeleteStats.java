@@ -0,0 +1,78 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.io;
+
+/**
+ * Summary of delete operation: count of removed files, directories and bytes.
+ * <p>
+ * When the operation is run in dry-run mode, it describes the entries which would be removed.
+ *
+ * @see DeleteContext
+ * @since 0.3.0
+ */
+public class DeleteStats {
+
+    private final long filesCount;
+
+    private final long directoriesCount;
+
+    private final long bytesCount;
+
+    public DeleteStats(final long filesCount, final long directoriesCount, final long bytesCount) {
+        this.filesCount = filesCount;
+        this.directoriesCount = directoriesCount;
+        this.bytesCount = bytesCount;
+    }
+
+    /**
+     * Provides count of removed files, including symbolic links and other non-directory entries.
+     *
+     * @return Count of removed files.
+     * @since 0.3.0
+     */
+    public long getFilesCount() {
+        return filesCount;
+    }
+
+    /**
+     * Provides count of removed directories.
+     *
+     * @return Count of removed directories.
+     * @since 0.3.0
+     */
+    public long getDirectoriesCount() {
+        return directoriesCount;
+    }
+
+    /**
+     * Provides summary size of removed files.
+     *
+     * @return Count of removed bytes.
+     * @since 0.3.0
+     */
+    public long getBytesCount() {
+        return bytesCount;
+    }
+
+    @Override
+    public String toString() {
+        return "files: " + filesCount + ", directories: " + directoriesCount + ", bytes: " + bytesCount;
+    }
+}
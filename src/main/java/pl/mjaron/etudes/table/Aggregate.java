@@ -0,0 +1,64 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+/**
+ * Aggregate function computed over the column cells and rendered in the table footer.
+ * <p>
+ * Numbers are taken from raw {@link Number} values when the rows provide them (see {@link LazyRow}), otherwise they are
+ * parsed from the cell text. Empty cells and cells which are not numbers are ignored by all functions except
+ * {@link #COUNT} and {@link #DISTINCT}.
+ *
+ * @see TableFooter
+ * @since 0.3.0
+ */
+public enum Aggregate {
+
+    /**
+     * Count of non-empty cells.
+     */
+    COUNT,
+
+    /**
+     * Sum of numeric cells.
+     */
+    SUM,
+
+    /**
+     * Minimal numeric cell.
+     */
+    MIN,
+
+    /**
+     * Maximal numeric cell.
+     */
+    MAX,
+
+    /**
+     * Arithmetic mean of numeric cells.
+     */
+    AVG,
+
+    /**
+     * Approximate count of distinct non-empty cells, estimated with HyperLogLog in constant memory. Standard error is
+     * about 3%.
+     */
+    DISTINCT
+}
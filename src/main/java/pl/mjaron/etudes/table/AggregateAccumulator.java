@@ -0,0 +1,317 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Computes single {@link Aggregate} function for many slots (e.g. groups of rows) at once. Accumulated state is kept in
+ * primitive arrays indexed by the slot, so memory is proportional to the slots count, not to the accumulated values
+ * count.
+ *
+ * @since 0.3.0
+ */
+class AggregateAccumulator {
+
+    /**
+     * Precision of {@link Aggregate#DISTINCT} estimation: each slot uses <code>2^DISTINCT_PRECISION</code> one-byte
+     * registers. Standard error is about <code>1.04 / sqrt(2^DISTINCT_PRECISION)</code>, about 3%.
+     */
+    static final int DISTINCT_PRECISION = 10;
+
+    private static final int DISTINCT_REGISTERS = 1 << DISTINCT_PRECISION;
+
+    private final Aggregate aggregate;
+
+    private int capacity = 0;
+
+    /**
+     * Count of accumulated numbers, or count of non-empty values in case of {@link Aggregate#COUNT}.
+     */
+    private long[] counts;
+
+    private double[] sums;
+
+    /**
+     * Exact sums, valid while {@link #nonIntegral} is not set.
+     */
+    private long[] longSums;
+
+    /**
+     * Set when any accumulated number is not an integer or the sum of integers overflows.
+     */
+    private boolean[] nonIntegral;
+
+    /**
+     * Set when any accumulated number is not an integer, so {@link #longMins} and {@link #longMaxes} are not valid.
+     */
+    private boolean[] fractional;
+
+    private double[] mins;
+
+    private double[] maxes;
+
+    /**
+     * Exact minimums, valid while {@link #fractional} is not set.
+     */
+    private long[] longMins;
+
+    /**
+     * Exact maximums, valid while {@link #fractional} is not set.
+     */
+    private long[] longMaxes;
+
+    /**
+     * HyperLogLog registers of {@link Aggregate#DISTINCT}, {@link #DISTINCT_REGISTERS} per slot.
+     */
+    private byte[] registers;
+
+    AggregateAccumulator(@NotNull final Aggregate aggregate, final int capacity) {
+        this.aggregate = aggregate;
+        ensureCapacity(capacity);
+    }
+
+    @NotNull
+    Aggregate getAggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Grows the accumulated state arrays, so slots below given capacity may be used.
+     *
+     * @param required Required count of slots.
+     */
+    void ensureCapacity(final int required) {
+        if (required <= capacity) {
+            return;
+        }
+        final int newCapacity = Math.max(required, capacity + (capacity >> 1));
+        if (aggregate == Aggregate.DISTINCT) {
+            registers = (registers == null) ? new byte[newCapacity * DISTINCT_REGISTERS] : Arrays.copyOf(registers, newCapacity * DISTINCT_REGISTERS);
+        } else {
+            counts = (counts == null) ? new long[newCapacity] : Arrays.copyOf(counts, newCapacity);
+            if (aggregate != Aggregate.COUNT) {
+                sums = (sums == null) ? new double[newCapacity] : Arrays.copyOf(sums, newCapacity);
+                longSums = (longSums == null) ? new long[newCapacity] : Arrays.copyOf(longSums, newCapacity);
+                nonIntegral = (nonIntegral == null) ? new boolean[newCapacity] : Arrays.copyOf(nonIntegral, newCapacity);
+                fractional = (fractional == null) ? new boolean[newCapacity] : Arrays.copyOf(fractional, newCapacity);
+                mins = (mins == null) ? new double[newCapacity] : Arrays.copyOf(mins, newCapacity);
+                maxes = (maxes == null) ? new double[newCapacity] : Arrays.copyOf(maxes, newCapacity);
+                longMins = (longMins == null) ? new long[newCapacity] : Arrays.copyOf(longMins, newCapacity);
+                longMaxes = (longMaxes == null) ? new long[newCapacity] : Arrays.copyOf(longMaxes, newCapacity);
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Accumulates the value. Raw {@link Number} values are used directly, other values are parsed from their text.
+     * <code>null</code> and empty values are ignored, as well as values which are not numbers, unless
+     * {@link Aggregate#COUNT} or {@link Aggregate#DISTINCT} is computed.
+     *
+     * @param slot  Slot index.
+     * @param value Raw cell value or cell text.
+     */
+    void accept(final int slot, @Nullable final Object value) {
+        if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+            return;
+        }
+        if (aggregate == Aggregate.COUNT) {
+            ++counts[slot];
+            return;
+        }
+        if (aggregate == Aggregate.DISTINCT) {
+            acceptHash(slot, hash(value));
+            return;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            acceptLong(slot, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            acceptDouble(slot, ((Number) value).doubleValue());
+        } else {
+            acceptText(slot, value.toString());
+        }
+    }
+
+    private void acceptText(final int slot, @NotNull final String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (isLong(text)) {
+            acceptLong(slot, Long.parseLong(text));
+            return;
+        }
+        final double value;
+        try {
+            value = Double.parseDouble(text);
+        } catch (final NumberFormatException e) {
+            return;
+        }
+        acceptDouble(slot, value);
+    }
+
+    /**
+     * Tells whether given text is a decimal integer which surely fits in <code>long</code>.
+     */
+    private static boolean isLong(@NotNull final String text) {
+        final int begin = (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        final int digits = text.length() - begin;
+        if (digits < 1 || digits > 18) {
+            return false;
+        }
+        for (int i = begin; i < text.length(); ++i) {
+            final char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void acceptLong(final int slot, final long value) {
+        if (!nonIntegral[slot]) {
+            final long sum = longSums[slot] + value;
+            if (((longSums[slot] ^ sum) & (value ^ sum)) < 0) {
+                nonIntegral[slot] = true;
+            } else {
+                longSums[slot] = sum;
+            }
+        }
+        if (counts[slot] == 0 || value < longMins[slot]) {
+            longMins[slot] = value;
+        }
+        if (counts[slot] == 0 || value > longMaxes[slot]) {
+            longMaxes[slot] = value;
+        }
+        accumulate(slot, value);
+    }
+
+    private void acceptDouble(final int slot, final double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        nonIntegral[slot] = true;
+        fractional[slot] = true;
+        accumulate(slot, value);
+    }
+
+    private void accumulate(final int slot, final double value) {
+        if (counts[slot] == 0 || value < mins[slot]) {
+            mins[slot] = value;
+        }
+        if (counts[slot] == 0 || value > maxes[slot]) {
+            maxes[slot] = value;
+        }
+        ++counts[slot];
+        sums[slot] += value;
+    }
+
+    /**
+     * Computes 64-bit hash of the value. Integer numbers and texts have their own hash functions, because
+     * {@link Object#hashCode()} provides only 32 bits.
+     */
+    private static long hash(@NotNull final Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof CharSequence) {
+            final CharSequence text = (CharSequence) value;
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); ++i) {
+                h = (h ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(h);
+        }
+        return mix(value.hashCode());
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading the bits of given value over the whole result.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private void acceptHash(final int slot, final long hash) {
+        final int index = slot * DISTINCT_REGISTERS + (int) (hash >>> (64 - DISTINCT_PRECISION));
+        final byte rank = (byte) (Long.numberOfLeadingZeros((hash << DISTINCT_PRECISION) | (1L << (DISTINCT_PRECISION - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    private long estimateDistinct(final int slot) {
+        final int begin = slot * DISTINCT_REGISTERS;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = begin; i < begin + DISTINCT_REGISTERS; ++i) {
+            sum += Math.scalb(1.0, -registers[i]);
+            if (registers[i] == 0) {
+                ++zeros;
+            }
+        }
+        final double m = DISTINCT_REGISTERS;
+        final double estimate = (0.7213 / (1 + 1.079 / m)) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log(m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Provides the aggregate result of given slot.
+     *
+     * @param slot Slot index.
+     * @return {@link Long} or {@link Double} result, or <code>null</code> when no number was accumulated.
+     */
+    @Nullable
+    Object getValue(final int slot) {
+        if (aggregate == Aggregate.COUNT) {
+            return counts[slot];
+        }
+        if (aggregate == Aggregate.DISTINCT) {
+            return estimateDistinct(slot);
+        }
+        if (counts[slot] == 0) {
+            return null;
+        }
+        final boolean integral = !nonIntegral[slot];
+        switch (aggregate) {
+            case SUM:
+                return integral ? (Object) longSums[slot] : (Object) sums[slot];
+            case MIN:
+                return fractional[slot] ? (Object) mins[slot] : (Object) longMins[slot];
+            case MAX:
+                return fractional[slot] ? (Object) maxes[slot] : (Object) longMaxes[slot];
+            case AVG:
+                return (integral ? (double) longSums[slot] : sums[slot]) / counts[slot];
+            default:
+                throw new RuntimeException("Unsupported " + Aggregate.class.getSimpleName() + " value: " + aggregate);
+        }
+    }
+}
@@ -19,13 +19,13 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.Obj;
-import pl.mjaron.etudes.Str;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Creates table source from the java bean. Each table row describes single object instance. Each table column describes
@@ -33,13 +33,18 @@ import java.util.List;
  *
  * @param <BeanT> Bean class type.
  */
-public class BeanTableSource<BeanT> implements ITableSource {
+public class BeanTableSource<BeanT> implements IProjectableTableSource, ISliceableTableSource, IRandomAccessTableSource {
 
     final private Class<BeanT> tClass;
     final private Iterable<BeanT> values;
     final private Field[] tFields;
     final private List<String> headers;
 
+    /**
+     * Getters used by {@link #getValue(int, int)}, created on first use.
+     */
+    private Obj.FieldGetter[] getters = null;
+
     /**
      * Initializes the object which is ready to iterate.
      *
@@ -64,6 +69,82 @@ public class BeanTableSource<BeanT> implements ITableSource {
         this.headers = Obj.getFieldNames(tFields);
     }
 
+    private BeanTableSource(final Iterable<BeanT> values, final Class<BeanT> tClass, final Field[] tFields) {
+        this.tClass = tClass;
+        this.values = values;
+        this.tFields = tFields;
+        this.headers = Obj.getFieldNames(tFields);
+    }
+
+    /**
+     * Creates the source reading only given fields, so other fields values are not obtained nor converted to
+     * {@link String}.
+     *
+     * @param columns Indices of this source columns.
+     * @return Source reading only selected fields.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public BeanTableSource<BeanT> project(@NotNull final int[] columns) {
+        final Field[] projectedFields = new Field[columns.length];
+        for (int i = 0; i < columns.length; ++i) {
+            projectedFields[i] = tFields[columns[i]];
+        }
+        return new BeanTableSource<>(values, tClass, projectedFields);
+    }
+
+    /**
+     * Creates the source providing only given range of beans. Slice of {@link java.util.RandomAccess} list, including
+     * arrays, is created in constant time. Other iterables are skipped while iterated.
+     *
+     * @param fromRow   First row, counting from <code>0</code>.
+     * @param rowsCount Maximal count of rows.
+     * @return Source providing given range of beans.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public ITableSource slice(final long fromRow, final long rowsCount) {
+        if (values instanceof List && values instanceof RandomAccess) {
+            final List<BeanT> list = (List<BeanT>) values;
+            final int from = (int) Math.min(fromRow, list.size());
+            final int to = (int) (from + Math.min(list.size() - from, rowsCount));
+            return new BeanTableSource<>(list.subList(from, to), tClass, tFields);
+        }
+        return new SlicedTableSource(this, fromRow, rowsCount);
+    }
+
+    /**
+     * Tells whether the beans are stored in a {@link java.util.RandomAccess} list, including arrays.
+     *
+     * @return <code>true</code> when cells may be accessed by their row index.
+     * @since 0.3.0
+     */
+    @Override
+    public boolean hasRandomAccess() {
+        return values instanceof List && values instanceof RandomAccess;
+    }
+
+    @Override
+    public int getRowsCount() {
+        if (!hasRandomAccess()) {
+            throw new IllegalStateException("Beans are not stored in a random access list.");
+        }
+        return ((List<BeanT>) values).size();
+    }
+
+    @Override
+    public Object getValue(final int row, final int column) {
+        if (!hasRandomAccess()) {
+            throw new IllegalStateException("Beans are not stored in a random access list.");
+        }
+        if (getters == null) {
+            getters = Obj.getFieldGetters(tClass, tFields);
+        }
+        return getters[column].get(((List<BeanT>) values).get(row));
+    }
+
     @Override
     public int getColumnsCount() {
         return tFields.length;
@@ -76,7 +157,7 @@ public class BeanTableSource<BeanT> implements ITableSource {
 
     @Override
     public Iterator<Iterable<String>> iterator() {
-        return new RowsIterator<>(tClass, tFields, values);
+        return new RowsIterator<>(Obj.getFieldGetters(tClass, tFields), values);
     }
 
     /**
@@ -87,12 +168,10 @@ public class BeanTableSource<BeanT> implements ITableSource {
     private static class RowsIterator<BeanT> implements Iterator<Iterable<String>> {
 
         final Iterator<BeanT> beanIterator;
-        final private Class<BeanT> tClass;
-        final private Field[] tFields;
+        final private Obj.FieldGetter[] getters;
 
-        public RowsIterator(final Class<BeanT> tClass, final Field[] tFields, final Iterable<BeanT> values) {
-            this.tClass = tClass;
-            this.tFields = tFields;
+        public RowsIterator(final Obj.FieldGetter[] getters, final Iterable<BeanT> values) {
+            this.getters = getters;
             this.beanIterator = values.iterator();
         }
 
@@ -102,16 +181,15 @@ public class BeanTableSource<BeanT> implements ITableSource {
         }
 
         /**
-         * Prepares next table row. Iterating returned row allows obtaining row's cell values.
+         * Prepares next table row. Field values are read and converted to {@link String} only when the cell is
+         * accessed.
          *
          * @return Next table row.
          */
         @Override
-        public Iterable<String> next() {
+        public LazyRow next() {
             final BeanT bean = beanIterator.next();
-            List<String> stringSeries = new ArrayList<>(tFields.length);
-            Obj.visitFieldValues(bean, this.tClass, this.tFields, (name, value) -> stringSeries.add(Str.orEmpty(value)));
-            return stringSeries;
+            return new LazyRow(getters.length, column -> getters[column].get(bean));
         }
     }
 }
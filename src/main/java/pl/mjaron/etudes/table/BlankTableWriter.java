@@ -19,14 +19,13 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.Str;
 
 public class BlankTableWriter implements ITableWriter {
 
     RenderRuntime runtime = null;
 
-    private int columnIdx = 0;
-
     @Override
     public boolean getDefaultAlignedColumnWidths() {
         return true;
@@ -55,7 +54,6 @@ public class BlankTableWriter implements ITableWriter {
 
     @Override
     public void beginRow() {
-        columnIdx = 0;
     }
 
     @Override
@@ -65,13 +63,37 @@ public class BlankTableWriter implements ITableWriter {
 
     @Override
     public void writeCell(String what) {
+        writeCell(what, runtime.getContext().getColumnWidthResolver().getWidths());
+    }
+
+    /**
+     * Writes the cell of current column.
+     *
+     * @param what   Escaped cell text.
+     * @param widths Column widths or <code>null</code> if the cells are not padded.
+     * @since 0.3.0
+     */
+    private void writeCell(final String what, final int[] widths) {
         runtime.append(' ');
-        if (runtime.hasColumnWidths()) {
-            Str.padLeft(what, runtime.getColumnWidth(columnIdx), ' ', runtime.getOut());
+        if (widths != null) {
+            Str.padLeft(what, widths[runtime.getColumnIdx()], ' ', runtime.getOut());
         } else {
             runtime.append(what);
         }
         runtime.append(' ');
-        ++columnIdx;
+    }
+
+    /**
+     * Writes the row cells, reading the column widths once per row.
+     */
+    @Override
+    public void writeRow(@NotNull final RenderRuntime runtime, @NotNull final IEscaper escaper, @NotNull final String[] cells, final int count) {
+        final boolean escaping = IEscaper.isEscaping(escaper);
+        final int[] widths = runtime.getContext().getColumnWidthResolver().getWidths();
+        runtime.resetColumn();
+        for (int i = 0; i < count; ++i) {
+            writeCell(escaping ? escaper.escape(cells[i]) : cells[i], widths);
+            runtime.nextColumn();
+        }
     }
 }
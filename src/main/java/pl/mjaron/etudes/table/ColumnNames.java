@@ -0,0 +1,55 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.Str;
+
+import java.util.List;
+
+/**
+ * Resolves the column names used by the table sources, e.g. query, grouping or join columns, to column indices.
+ *
+ * @since 0.3.0
+ */
+abstract class ColumnNames {
+
+    /**
+     * Finds the indices of given columns.
+     *
+     * @param headers Headers of the source.
+     * @param names   Names of resolved columns.
+     * @param usage   Usage of the columns described in the error message, e.g. <code>"query"</code>.
+     * @return Index of each given column.
+     * @throws IllegalArgumentException When any name is not found in the headers.
+     * @since 0.3.0
+     */
+    @NotNull
+    static int[] resolve(@NotNull final List<String> headers, @NotNull final List<String> names, @NotNull final String usage) {
+        final int[] columns = new int[names.size()];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = headers.indexOf(names.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Cannot resolve " + usage + " column: [" + names.get(i) + "]: Given column name not found. All column identifiers: " + Str.join(headers, ", "));
+            }
+        }
+        return columns;
+    }
+}
@@ -19,10 +19,17 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.Pair;
+import pl.mjaron.etudes.text.TimestampFormatter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Used to select the columns which will be rendered.
@@ -37,6 +44,13 @@ public class ColumnSelector {
 
     List<Pair<String, String>> entries = new ArrayList<>();
 
+    /**
+     * Computed columns of related entries.
+     *
+     * @since 0.3.0
+     */
+    final Map<Pair<String, String>, ComputedColumn> computedColumns = new IdentityHashMap<>();
+
     public ColumnSelector col(final String id) {
         last = new Pair<>(id, null);
         entries.add(last);
@@ -54,6 +68,82 @@ public class ColumnSelector {
         return this;
     }
 
+    /**
+     * Declares the column computed from the raw values of given source columns. The expression is evaluated only when
+     * the cell is used, e.g. rendered, and the input columns are read from the source even if they are not selected.
+     *
+     * @param name       Computed column name. May be aliased with {@link #as(String)}.
+     * @param inputs     Source column names, passed to the expression in the same order.
+     * @param expression Computes the cell value from the input values.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    public ColumnSelector computed(@NotNull final String name, @NotNull final String[] inputs, @NotNull final Function<Object[], ?> expression) {
+        last = new Pair<>(name, null);
+        entries.add(last);
+        computedColumns.put(last, new ComputedColumn(Arrays.asList(inputs), expression));
+        return this;
+    }
+
+    /**
+     * Declares the column computed from the raw value of single source column.
+     *
+     * @param name       Computed column name. May be aliased with {@link #as(String)}.
+     * @param input      Source column name.
+     * @param expression Computes the cell value from the input value.
+     * @param <T>        Input value type.
+     * @return This reference.
+     * @see #computed(String, String[], Function)
+     * @since 0.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ColumnSelector computed(@NotNull final String name, @NotNull final String input, @NotNull final Function<T, ?> expression) {
+        return computed(name, new String[]{input}, values -> expression.apply((T) values[0]));
+    }
+
+    /**
+     * Declares the column computed from the raw values of two source columns.
+     *
+     * @param name       Computed column name. May be aliased with {@link #as(String)}.
+     * @param first      First source column name.
+     * @param second     Second source column name.
+     * @param expression Computes the cell value from the input values.
+     * @param <T>        First input value type.
+     * @param <U>        Second input value type.
+     * @return This reference.
+     * @see #computed(String, String[], Function)
+     * @since 0.3.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T, U> ColumnSelector computed(@NotNull final String name, @NotNull final String first, @NotNull final String second, @NotNull final BiFunction<T, U, ?> expression) {
+        return computed(name, new String[]{first, second}, values -> expression.apply((T) values[0], (U) values[1]));
+    }
+
+    /**
+     * Declares the source column formatted as timestamp. Supports {@link java.util.Date}, {@link java.time.Instant},
+     * {@link java.util.Calendar} and epoch milliseconds values.
+     *
+     * @param column    Source column name. May be aliased with {@link #as(String)}.
+     * @param formatter Timestamp formatter.
+     * @return This reference.
+     * @see TimestampFormatter#formatValue(Object)
+     * @since 0.3.0
+     */
+    public ColumnSelector timestamp(@NotNull final String column, @NotNull final TimestampFormatter formatter) {
+        return computed(column, column, formatter::formatValue);
+    }
+
+    /**
+     * Provides the computed column of given entry.
+     *
+     * @param entry One of {@link #getEntries()}.
+     * @return Computed column or <code>null</code> if the entry selects the source column.
+     * @since 0.3.0
+     */
+    ComputedColumn getComputedColumn(final Pair<String, String> entry) {
+        return computedColumns.get(entry);
+    }
+
     public List<Pair<String, String>> getEntries() {
         return entries;
     }
@@ -81,14 +81,38 @@ public class ColumnWidthResolver {
         }
 
         if (mode == AlignmentMode.ALIGNED) {
-            this.widths = TableColumnsWidthDetector.compute(runtime.getSource(), runtime.getEscaper());
+            this.widths = computeWidths(runtime);
         } else if (mode == AlignmentMode.EQUAL) {
-            this.widths = TableColumnsWidthDetector.compute(runtime.getSource(), runtime.getEscaper());
+            this.widths = computeWidths(runtime);
             final int maxWidth = Arr.max(this.widths);
             Arrays.fill(widths, maxWidth);
         }
     }
 
+    private static int[] computeWidths(@NotNull final RenderRuntime runtime) {
+        final FooterAccumulator footer = runtime.getFooterAccumulator();
+        final DecimalColumns decimalColumns = runtime.getDecimalColumns();
+        final int[] widths;
+        if (runtime.getContext().getSpillBufferSize() > 0 || runtime.getSource().prefersSinglePass()) {
+            widths = runtime.spill();
+        } else {
+            widths = TableColumnsWidthDetector.compute(runtime.getSource(), runtime.getEscaper(), runtime.getRowObserver());
+        }
+        if (footer != null) {
+            footer.complete();
+            footer.applyWidths(widths, runtime.getEscaper());
+        }
+        if (decimalColumns != null) {
+            if (footer != null) {
+                for (int i = 0; i < widths.length; ++i) {
+                    decimalColumns.accept(i, footer.getCell(i));
+                }
+            }
+            decimalColumns.applyWidths(widths);
+        }
+        return widths;
+    }
+
     /**
      * Tells whether column widths are specified or not.
      *
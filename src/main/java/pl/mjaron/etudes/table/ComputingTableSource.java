@@ -0,0 +1,131 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Provides all columns of underlying source followed by the {@link ComputedColumn}s. Computed cells are evaluated only
+ * when accessed, from the raw values of their input columns.
+ *
+ * @since 0.3.0
+ */
+class ComputingTableSource implements ITableSource {
+
+    private final ITableSource source;
+
+    private final List<String> names;
+
+    private final List<ComputedColumn> columns;
+
+    /**
+     * Underlying source columns of each computed column arguments.
+     */
+    private final int[][] inputs;
+
+    /**
+     * Creates the source.
+     *
+     * @param source  Underlying source.
+     * @param names   Computed columns headers.
+     * @param columns Computed columns.
+     * @param inputs  Underlying source columns of each computed column arguments.
+     */
+    ComputingTableSource(@NotNull final ITableSource source, @NotNull final List<String> names, @NotNull final List<ComputedColumn> columns, @NotNull final int[][] inputs) {
+        this.source = source;
+        this.names = names;
+        this.columns = columns;
+        this.inputs = inputs;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return source.getColumnsCount() + columns.size();
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        if (!source.hasHeaders()) {
+            return null;
+        }
+        final List<String> headers = new ArrayList<>(getColumnsCount());
+        for (final String header : source.getHeaders()) {
+            headers.add(header);
+        }
+        headers.addAll(names);
+        return headers;
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return source.hasHeaders();
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        return new ComputingIterator(source.iterator());
+    }
+
+    @Override
+    public boolean prefersSinglePass() {
+        return source.prefersSinglePass();
+    }
+
+    private class ComputingIterator implements Iterator<Iterable<String>>, AutoCloseable {
+
+        private final Iterator<Iterable<String>> rows;
+
+        private final int sourceColumns = source.getColumnsCount();
+
+        ComputingIterator(final Iterator<Iterable<String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public Iterable<String> next() {
+            final LazyRow row = LazyRow.from(rows.next());
+            return new LazyRow(sourceColumns + columns.size(), column -> {
+                if (column < sourceColumns) {
+                    return row.getValue(column);
+                }
+                final int computed = column - sourceColumns;
+                final Object[] arguments = new Object[inputs[computed].length];
+                for (int i = 0; i < arguments.length; ++i) {
+                    arguments[i] = row.getValue(inputs[computed][i]);
+                }
+                return columns.get(computed).expression.apply(arguments);
+            });
+        }
+
+        @Override
+        public void close() {
+            ITableSource.close(rows);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.IO;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Compact index of CSV record offsets: byte offset of every {@link #getStride() stride}-th record. Allows seeking to
+ * any record of large CSV file without scanning it from the beginning.
+ * <p>
+ * The file is scanned once, in parallel over byte ranges. Quote characters are counted to resolve which line breaks
+ * are inside quoted fields: a line break ends a record only when preceded by an even count of quotes. Each range is
+ * scanned first to count its quotes and its line breaks after even and odd counts of quotes, so the state at the
+ * beginning of each range is resolved without scanning the previous ranges again. The second parallel pass collects
+ * the offsets.
+ * <p>
+ * The file charset must encode {@code '"'}, {@code CR} and {@code LF} as single bytes which never occur inside other
+ * characters, like UTF-8, US-ASCII or ISO-8859 family.
+ *
+ * @see CsvTableSource#withIndex(CsvIndex)
+ * @since 0.3.0
+ */
+public class CsvIndex {
+
+    /**
+     * Default count of records between indexed offsets.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_STRIDE = 1024;
+
+    /**
+     * Index file extension, appended to the CSV file name.
+     *
+     * @since 0.3.0
+     */
+    public static final String EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x43535649;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Minimal size of the byte range scanned by single task.
+     */
+    private static final long MIN_RANGE_SIZE = 1024 * 1024;
+
+    private final long fileSize;
+
+    private final long lastModified;
+
+    private final int stride;
+
+    private final long recordsCount;
+
+    private final long[] offsets;
+
+    private CsvIndex(final long fileSize, final long lastModified, final int stride, final long recordsCount, final long[] offsets) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.stride = stride;
+        this.recordsCount = recordsCount;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Provides the index file path related to given CSV file.
+     *
+     * @param csvFile CSV file.
+     * @return File with {@link #EXTENSION} appended to the CSV file name.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static File indexFileOf(@NotNull final File csvFile) {
+        return new File(csvFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * Scans given CSV file with {@link #DEFAULT_STRIDE}.
+     *
+     * @param csvFile CSV file.
+     * @return New index.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex build(@NotNull final File csvFile) {
+        return build(csvFile, DEFAULT_STRIDE);
+    }
+
+    /**
+     * Scans given CSV file in parallel, using {@link ForkJoinPool#commonPool()}.
+     *
+     * @param csvFile CSV file.
+     * @param stride  Count of records between indexed offsets.
+     * @return New index.
+     * @throws RuntimeException When the file cannot be read or the last quoted field is not terminated.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex build(@NotNull final File csvFile, final int stride) {
+        final long size = csvFile.length();
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return build(csvFile, stride, Math.min(IO.MAPPED_REGION_SIZE, Math.max(MIN_RANGE_SIZE, (size + parallelism - 1) / parallelism)));
+    }
+
+    /**
+     * Scans given CSV file in parallel, using {@link ForkJoinPool#commonPool()}.
+     *
+     * @param csvFile   CSV file.
+     * @param stride    Count of records between indexed offsets.
+     * @param rangeSize Size of the byte range scanned by single task. At most {@link IO#MAPPED_REGION_SIZE}.
+     * @return New index.
+     * @throws RuntimeException When the file cannot be read or the last quoted field is not terminated.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex build(@NotNull final File csvFile, final int stride, final long rangeSize) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be positive: " + stride + ".");
+        }
+        if (rangeSize < 1 || rangeSize > IO.MAPPED_REGION_SIZE) {
+            throw new IllegalArgumentException("Invalid range size: " + rangeSize + ".");
+        }
+        final long lastModified = csvFile.lastModified();
+        final long size = csvFile.length();
+        final int rangesCount = (int) ((size + rangeSize - 1) / rangeSize);
+
+        final RangeStats[] ranges = IntStream.range(0, rangesCount).parallel()
+                .mapToObj(i -> RangeStats.count(csvFile, i * rangeSize, Math.min(size, (i + 1) * rangeSize), size))
+                .toArray(RangeStats[]::new);
+
+        int parity = 0;
+        long breaks = 0;
+        for (final RangeStats range : ranges) {
+            range.startParity = parity;
+            range.breaksBefore = breaks;
+            breaks += range.breaks[parity];
+            parity ^= range.quotesParity;
+        }
+        if (parity != 0) {
+            throw new RuntimeException("Failed to index CSV file: Unterminated quoted field: [" + csvFile.getPath() + "].");
+        }
+
+        IntStream.range(0, rangesCount).parallel().forEach(i -> ranges[i].collect(csvFile, stride, size));
+
+        final LongStream.Builder offsets = LongStream.builder();
+        long lastRecordStart = 0;
+        if (size > 0) {
+            offsets.add(0);
+        }
+        for (final RangeStats range : ranges) {
+            for (final long offset : range.offsets) {
+                offsets.add(offset);
+            }
+            if (range.lastBreakEnd >= 0) {
+                lastRecordStart = range.lastBreakEnd;
+            }
+        }
+        final long recordsCount = breaks + ((lastRecordStart < size) ? 1 : 0);
+        return new CsvIndex(size, lastModified, stride, recordsCount, offsets.build().toArray());
+    }
+
+    /**
+     * Reads the index stored beside given CSV file if it is up-to-date, otherwise builds and stores new index.
+     *
+     * @param csvFile CSV file.
+     * @param stride  Count of records between indexed offsets.
+     * @return Up-to-date index.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex load(@NotNull final File csvFile, final int stride) {
+        final File indexFile = indexFileOf(csvFile);
+        if (indexFile.isFile()) {
+            final CsvIndex stored = read(indexFile);
+            if (stored.stride == stride && stored.isValidFor(csvFile)) {
+                return stored;
+            }
+        }
+        final CsvIndex index = build(csvFile, stride);
+        index.write(indexFile);
+        return index;
+    }
+
+    /**
+     * Reads the index stored beside given CSV file if it is up-to-date, otherwise builds and stores new index with
+     * {@link #DEFAULT_STRIDE}.
+     *
+     * @param csvFile CSV file.
+     * @return Up-to-date index.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex load(@NotNull final File csvFile) {
+        return load(csvFile, DEFAULT_STRIDE);
+    }
+
+    /**
+     * Reads the index file.
+     *
+     * @param indexFile Index file written with {@link #write(File)}.
+     * @return Read index.
+     * @throws RuntimeException When the file cannot be read or has unexpected format.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvIndex read(@NotNull final File indexFile) {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), IO.LARGE_BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new RuntimeException("Failed to read CSV index: Unexpected file format: [" + indexFile.getPath() + "].");
+            }
+            final long fileSize = in.readLong();
+            final long lastModified = in.readLong();
+            final int stride = in.readInt();
+            final long recordsCount = in.readLong();
+            final long[] offsets = new long[in.readInt()];
+            long offset = 0;
+            for (int i = 0; i < offsets.length; ++i) {
+                offset += readVarLong(in);
+                offsets[i] = offset;
+            }
+            return new CsvIndex(fileSize, lastModified, stride, recordsCount, offsets);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read CSV index: [" + indexFile.getPath() + "].", e);
+        }
+    }
+
+    /**
+     * Writes the index. Offsets are stored as variable length differences.
+     *
+     * @param indexFile Written file.
+     * @since 0.3.0
+     */
+    public void write(@NotNull final File indexFile) {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), IO.LARGE_BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeInt(stride);
+            out.writeLong(recordsCount);
+            out.writeInt(offsets.length);
+            long previous = 0;
+            for (final long offset : offsets) {
+                writeVarLong(out, offset - previous);
+                previous = offset;
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to write CSV index: [" + indexFile.getPath() + "].", e);
+        }
+    }
+
+    /**
+     * Tells whether the indexed file size and modification time match given file.
+     *
+     * @param csvFile CSV file.
+     * @return <code>true</code> if the index is up-to-date.
+     * @since 0.3.0
+     */
+    public boolean isValidFor(@NotNull final File csvFile) {
+        return csvFile.length() == fileSize && csvFile.lastModified() == lastModified;
+    }
+
+    /**
+     * Provides count of records, including the header record.
+     *
+     * @return Count of CSV records.
+     * @since 0.3.0
+     */
+    public long getRecordsCount() {
+        return recordsCount;
+    }
+
+    /**
+     * Provides count of records between indexed offsets.
+     *
+     * @return Index stride.
+     * @since 0.3.0
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Provides the nearest indexed record not after given record.
+     *
+     * @param record Record index counting from <code>0</code>.
+     * @return Index of the record with known offset.
+     * @since 0.3.0
+     */
+    public long getIndexedRecord(final long record) {
+        return (record / stride) * stride;
+    }
+
+    /**
+     * Provides the byte offset of the record returned by {@link #getIndexedRecord(long)}.
+     *
+     * @param record Record index counting from <code>0</code>.
+     * @return Byte offset of the nearest indexed record.
+     * @since 0.3.0
+     */
+    public long getIndexedOffset(final long record) {
+        if (record < 0 || record >= recordsCount) {
+            throw new IndexOutOfBoundsException("Record index: " + record + ", records count: " + recordsCount + ".");
+        }
+        return offsets[(int) (record / stride)];
+    }
+
+    private static void writeVarLong(final DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * State of a single byte range of the scanned file.
+     */
+    private static class RangeStats {
+
+        final long begin;
+        final long end;
+
+        /**
+         * Parity of the quotes count in this range.
+         */
+        int quotesParity = 0;
+
+        /**
+         * Count of line breaks after even (index 0) and odd (index 1) count of quotes in this range.
+         */
+        final long[] breaks = new long[2];
+
+        /**
+         * Quotes parity at the beginning of this range, resolved after the first pass.
+         */
+        int startParity = 0;
+
+        /**
+         * Count of records ends before this range, resolved after the first pass.
+         */
+        long breaksBefore = 0;
+
+        long[] offsets = new long[0];
+
+        /**
+         * Offset following the last record end in this range, or <code>-1</code>.
+         */
+        long lastBreakEnd = -1;
+
+        RangeStats(final long begin, final long end) {
+            this.begin = begin;
+            this.end = end;
+        }
+
+        /**
+         * Maps the range with one following byte, needed to tell whether {@code CR} is followed by {@code LF}.
+         */
+        static MappedByteBuffer map(final File file, final long begin, final long end, final long size) {
+            return IO.map(file, begin, Math.min(end + 1, size) - begin);
+        }
+
+        /**
+         * Tells whether the byte at given position of the buffer ends the line.
+         */
+        static boolean isBreak(final MappedByteBuffer buffer, final int i, final byte b) {
+            return b == '\n' || (b == '\r' && (i + 1 >= buffer.limit() || buffer.get(i + 1) != '\n'));
+        }
+
+        static RangeStats count(final File file, final long begin, final long end, final long size) {
+            final RangeStats stats = new RangeStats(begin, end);
+            final MappedByteBuffer buffer = map(file, begin, end, size);
+            final int length = (int) (end - begin);
+            int parity = 0;
+            for (int i = 0; i < length; ++i) {
+                final byte b = buffer.get(i);
+                if (b == '"') {
+                    parity ^= 1;
+                } else if (isBreak(buffer, i, b)) {
+                    ++stats.breaks[parity];
+                }
+            }
+            stats.quotesParity = parity;
+            return stats;
+        }
+
+        void collect(final File file, final int stride, final long size) {
+            final MappedByteBuffer buffer = map(file, begin, end, size);
+            final int length = (int) (end - begin);
+            final LongStream.Builder builder = LongStream.builder();
+            int parity = startParity;
+            long record = breaksBefore;
+            for (int i = 0; i < length; ++i) {
+                final byte b = buffer.get(i);
+                if (b == '"') {
+                    parity ^= 1;
+                } else if (parity == 0 && isBreak(buffer, i, b)) {
+                    ++record;
+                    lastBreakEnd = begin + i + 1;
+                    if (record % stride == 0 && lastBreakEnd < size) {
+                        builder.add(lastBreakEnd);
+                    }
+                }
+            }
+            offsets = builder.build().toArray();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 parser. Reads the records through a single reusable char buffer and keeps only the field bounds,
+ * so no {@link String} is created until the field value is requested.
+ * <p>
+ * The record is parsed only when it is fully present in the buffer. Otherwise, the buffer is compacted, refilled
+ * (doubled if the record is longer than the buffer) and the record is parsed again.
+ *
+ * @see CsvTableSource
+ * @since 0.3.0
+ */
+class CsvParser implements AutoCloseable {
+
+    private final Reader reader;
+
+    private final char delimiter;
+
+    private final char quote;
+
+    private char[] buffer;
+
+    private int limit = 0;
+
+    private boolean eof = false;
+
+    /**
+     * Beginning of current record in the buffer.
+     */
+    private int recordStart = 0;
+
+    /**
+     * Beginning of the next record in the buffer, valid after the record is parsed.
+     */
+    private int recordEnd = 0;
+
+    /**
+     * Count of fields of current record.
+     */
+    private int fieldsCount = 0;
+
+    private int[] fieldStarts = new int[16];
+
+    private int[] fieldEnds = new int[16];
+
+    /**
+     * Whether the field is quoted and contains escaped (doubled) quotes.
+     */
+    private boolean[] fieldEscaped = new boolean[16];
+
+    /**
+     * Count of parsed records, used in error messages.
+     */
+    private long recordsCount = 0;
+
+    CsvParser(@NotNull final Reader reader, final char delimiter, final char quote, final int bufferSize) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Parses next record. Previously parsed record bounds become invalid.
+     *
+     * @return <code>true</code> if the record is parsed, <code>false</code> at the end of data.
+     */
+    boolean next() {
+        recordStart = recordEnd;
+        try {
+            while (!tryParse()) {
+                fill();
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read CSV data after record " + recordsCount + ".", e);
+        }
+        if (fieldsCount == 0) {
+            return false;
+        }
+        ++recordsCount;
+        return true;
+    }
+
+    long getRecordsCount() {
+        return recordsCount;
+    }
+
+    int getFieldsCount() {
+        return fieldsCount;
+    }
+
+    /**
+     * Provides the field value length, counting the escaped quotes once.
+     */
+    int getLength(final int field) {
+        final int start = fieldStarts[field];
+        final int end = fieldEnds[field];
+        if (!fieldEscaped[field]) {
+            return end - start;
+        }
+        int length = 0;
+        for (int i = start; i < end; ++i, ++length) {
+            if (buffer[i] == quote) {
+                ++i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Creates the field value.
+     */
+    String getString(final int field) {
+        final int start = fieldStarts[field];
+        final int end = fieldEnds[field];
+        if (!fieldEscaped[field]) {
+            return new String(buffer, start, end - start);
+        }
+        final char[] chars = new char[getLength(field)];
+        int length = 0;
+        for (int i = start; i < end; ++i) {
+            chars[length++] = buffer[i];
+            if (buffer[i] == quote) {
+                ++i;
+            }
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to close CSV reader.", e);
+        }
+    }
+
+    private void fill() throws IOException {
+        if (recordStart > 0) {
+            System.arraycopy(buffer, recordStart, buffer, 0, limit - recordStart);
+            limit -= recordStart;
+            recordStart = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        final int count = reader.read(buffer, limit, buffer.length - limit);
+        if (count < 0) {
+            eof = true;
+        } else {
+            limit += count;
+        }
+    }
+
+    private void addField(final int start, final int end, final boolean escaped) {
+        if (fieldsCount == fieldStarts.length) {
+            final int capacity = fieldsCount * 2;
+            fieldStarts = Arrays.copyOf(fieldStarts, capacity);
+            fieldEnds = Arrays.copyOf(fieldEnds, capacity);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, capacity);
+        }
+        fieldStarts[fieldsCount] = start;
+        fieldEnds[fieldsCount] = end;
+        fieldEscaped[fieldsCount] = escaped;
+        ++fieldsCount;
+    }
+
+    /**
+     * Tries to parse the record beginning at {@link #recordStart}.
+     *
+     * @return <code>false</code> when more data is needed.
+     */
+    private boolean tryParse() {
+        fieldsCount = 0;
+        int p = recordStart;
+        if (p == limit) {
+            return eof;
+        }
+        final char[] b = buffer;
+        while (true) {
+            if (p < limit && b[p] == quote) {
+                final int start = ++p;
+                boolean escaped = false;
+                while (true) {
+                    if (p >= limit) {
+                        if (!eof) {
+                            return false;
+                        }
+                        throw new RuntimeException("Unterminated quoted field in CSV record " + (recordsCount + 1) + ".");
+                    }
+                    if (b[p] == quote) {
+                        if (p + 1 >= limit && !eof) {
+                            return false;
+                        }
+                        if (p + 1 < limit && b[p + 1] == quote) {
+                            escaped = true;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    ++p;
+                }
+                addField(start, p, escaped);
+                ++p;
+                // Characters between closing quote and delimiter are not allowed by RFC 4180, they are ignored.
+                while (p < limit && b[p] != delimiter && b[p] != '\r' && b[p] != '\n') {
+                    ++p;
+                }
+            } else {
+                final int start = p;
+                while (p < limit && b[p] != delimiter && b[p] != '\r' && b[p] != '\n') {
+                    ++p;
+                }
+                addField(start, p, false);
+            }
+            if (p >= limit) {
+                if (!eof) {
+                    return false;
+                }
+                recordEnd = p;
+                return true;
+            }
+            final char ch = b[p];
+            if (ch == delimiter) {
+                ++p;
+                continue;
+            }
+            if (ch == '\r') {
+                if (p + 1 >= limit && !eof) {
+                    return false;
+                }
+                p += (p + 1 < limit && b[p + 1] == '\n') ? 2 : 1;
+            } else {
+                ++p;
+            }
+            recordEnd = p;
+            return true;
+        }
+    }
+}
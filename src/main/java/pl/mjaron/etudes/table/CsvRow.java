@@ -0,0 +1,115 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.IRandomAccess;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lightweight view of the CSV record, valid until the next record is read. The cell {@link String} is created only
+ * when requested with {@link #get(int)}.
+ * <p>
+ * Records shorter than the table columns count are padded with empty cells.
+ *
+ * @see CsvTableSource
+ * @since 0.3.0
+ */
+public class CsvRow implements Iterable<String>, IRandomAccess<String> {
+
+    private final CsvParser parser;
+
+    private final int columnsCount;
+
+    CsvRow(@NotNull final CsvParser parser, final int columnsCount) {
+        this.parser = parser;
+        this.columnsCount = columnsCount;
+    }
+
+    /**
+     * Provides count of cells, equal to the table columns count.
+     *
+     * @return Count of cells.
+     * @since 0.3.0
+     */
+    @Override
+    public int size() {
+        return columnsCount;
+    }
+
+    /**
+     * Creates the unescaped cell value.
+     *
+     * @param position Cell index counting from <code>0</code>.
+     * @return Cell value. Empty if the record has fewer fields.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public String get(final int position) {
+        if (position < 0 || position >= columnsCount) {
+            throw new IndexOutOfBoundsException("Cell index: " + position + ", columns count: " + columnsCount + ".");
+        }
+        if (position >= parser.getFieldsCount()) {
+            return "";
+        }
+        return parser.getString(position);
+    }
+
+    /**
+     * Provides the unescaped cell value length without creating the {@link String}.
+     *
+     * @param position Cell index counting from <code>0</code>.
+     * @return Count of cell characters.
+     * @since 0.3.0
+     */
+    public int getLength(final int position) {
+        if (position < 0 || position >= columnsCount) {
+            throw new IndexOutOfBoundsException("Cell index: " + position + ", columns count: " + columnsCount + ".");
+        }
+        if (position >= parser.getFieldsCount()) {
+            return 0;
+        }
+        return parser.getLength(position);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < columnsCount;
+            }
+
+            @Override
+            public String next() {
+                if (position >= columnsCount) {
+                    throw new NoSuchElementException();
+                }
+                return get(position++);
+            }
+        };
+    }
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Streaming RFC 4180 CSV reader used as the table source, e.g:
+ * <pre>{@code
+ *     Table.render(CsvTableSource.from(new File("data.csv"))).markdown().toFile("data.md").run();
+ * }</pre>
+ * Quoted fields may contain delimiters, escaped (doubled) quotes and line breaks. Records may be separated with
+ * {@code CR LF}, {@code LF} or {@code CR}.
+ * <p>
+ * Data is read through a reusable char buffer and rows are provided as {@link CsvRow} views, valid until the next row
+ * is read. Each iteration reads the data again from the reader supplier, so the source can be rendered with
+ * {@link AlignmentMode#ALIGNED} without loading it to the heap.
+ * <p>
+ * Pages of large files may be rendered with {@link #slice(long, long)}, which seeks with {@link CsvIndex} if
+ * available.
+ *
+ * @since 0.3.0
+ */
+public class CsvTableSource implements ISliceableTableSource {
+
+    /**
+     * Default fields delimiter.
+     *
+     * @since 0.3.0
+     */
+    public static final char DEFAULT_DELIMITER = ',';
+
+    /**
+     * Default initial size of the char buffer. It grows when a single record is longer.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    private static final char QUOTE = '"';
+
+    private final Supplier<? extends Reader> readerSupplier;
+
+    /**
+     * Source file, if the source is created from file. Allows seeking with {@link #index}.
+     */
+    private File file = null;
+
+    private Charset charset = null;
+
+    /**
+     * Record offsets of {@link #file}, or <code>null</code> if not indexed.
+     */
+    private CsvIndex index = null;
+
+    /**
+     * First returned data row, counting from <code>0</code>, not including the header record.
+     */
+    private long firstRow = 0;
+
+    /**
+     * Maximal count of returned data rows.
+     */
+    private long rowsLimit = Long.MAX_VALUE;
+
+    private char delimiter = DEFAULT_DELIMITER;
+
+    private boolean hasHeaderRecord = true;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Headers read from the first record, or <code>null</code> if not read yet or disabled.
+     */
+    private List<String> headers = null;
+
+    /**
+     * Table columns count, or <code>-1</code> if first record is not read yet.
+     */
+    private int columnsCount = -1;
+
+    /**
+     * Creates the source reading the data from readers provided by given supplier. New reader is requested for each
+     * iteration and closed at the end of iteration.
+     *
+     * @param readerSupplier Provides new reader positioned at the beginning of CSV data.
+     * @since 0.3.0
+     */
+    public CsvTableSource(@NotNull final Supplier<? extends Reader> readerSupplier) {
+        this.readerSupplier = readerSupplier;
+    }
+
+    /**
+     * Creates the source reading given file with given charset.
+     *
+     * @param file    CSV file.
+     * @param charset Charset of the file.
+     * @return New {@link CsvTableSource} instance.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvTableSource from(@NotNull final File file, @NotNull final Charset charset) {
+        final CsvTableSource source = new CsvTableSource(() -> openReader(file, charset, 0));
+        source.file = file;
+        source.charset = charset;
+        return source;
+    }
+
+    /**
+     * Creates the source reading given file with default {@link Charset}.
+     *
+     * @param file CSV file.
+     * @return New {@link CsvTableSource} instance.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvTableSource from(@NotNull final File file) {
+        return from(file, Charset.defaultCharset());
+    }
+
+    /**
+     * Creates the source reading given text.
+     *
+     * @param text CSV data.
+     * @return New {@link CsvTableSource} instance.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static CsvTableSource from(@NotNull final String text) {
+        return new CsvTableSource(() -> new StringReader(text));
+    }
+
+    /**
+     * Sets the fields delimiter.
+     *
+     * @param delimiter Fields delimiter, {@link #DEFAULT_DELIMITER} by default.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public CsvTableSource withDelimiter(final char delimiter) {
+        if (delimiter == QUOTE || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("Invalid CSV delimiter: [" + delimiter + "].");
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Treats the first record as a data row. By default, the first record is used as the table headers.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public CsvTableSource withoutHeaders() {
+        this.hasHeaderRecord = false;
+        return this;
+    }
+
+    /**
+     * Sets the initial size of the char buffer.
+     *
+     * @param bufferSize Initial buffer size in chars.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public CsvTableSource withBufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize + ".");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Uses given index to seek to the first row of {@link #slice(long, long)} without scanning the preceding records.
+     *
+     * @param index Index of this source file, built with the same delimiter.
+     * @return This reference.
+     * @throws IllegalStateException When the source is not created from a file.
+     * @throws IllegalArgumentException When the index is not up-to-date.
+     * @see CsvIndex#load(File)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public CsvTableSource withIndex(@NotNull final CsvIndex index) {
+        if (file == null) {
+            throw new IllegalStateException("Only the CSV source created from file can be indexed.");
+        }
+        if (!index.isValidFor(file)) {
+            throw new IllegalArgumentException("CSV index is not up-to-date: [" + file.getPath() + "].");
+        }
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * Loads up-to-date index stored beside the source file or builds and stores it.
+     *
+     * @return This reference.
+     * @throws IllegalStateException When the source is not created from a file.
+     * @see CsvIndex#load(File)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public CsvTableSource withIndex() {
+        if (file == null) {
+            throw new IllegalStateException("Only the CSV source created from file can be indexed.");
+        }
+        return withIndex(CsvIndex.load(file));
+    }
+
+    /**
+     * Provides count of data rows, not including the header record. Requires the index.
+     *
+     * @return Count of data rows of this source or slice.
+     * @throws IllegalStateException When the source is not indexed.
+     * @since 0.3.0
+     */
+    public long getRowsCount() {
+        if (index == null) {
+            throw new IllegalStateException("CSV rows count is known only for indexed source.");
+        }
+        final long available = Math.max(0, index.getRecordsCount() - (hasHeaderRecord ? 1 : 0) - firstRow);
+        return Math.min(available, rowsLimit);
+    }
+
+    /**
+     * Creates the source providing only given range of data rows. Headers are still read from the first record.
+     * <p>
+     * When the source is indexed, each iteration seeks directly to the nearest indexed record, so the slices may be
+     * rendered independently, e.g. as separate pages or in separate threads.
+     *
+     * @param fromRow   First data row, counting from <code>0</code> and not including the header record.
+     * @param rowsCount Maximal count of data rows.
+     * @return New source sharing the configuration and index of this source.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public CsvTableSource slice(final long fromRow, final long rowsCount) {
+        if (fromRow < 0 || rowsCount < 0) {
+            throw new IllegalArgumentException("Invalid CSV slice: from row: " + fromRow + ", rows count: " + rowsCount + ".");
+        }
+        final CsvTableSource slice = new CsvTableSource(readerSupplier);
+        slice.file = file;
+        slice.charset = charset;
+        slice.index = index;
+        slice.delimiter = delimiter;
+        slice.hasHeaderRecord = hasHeaderRecord;
+        slice.bufferSize = bufferSize;
+        slice.headers = headers;
+        slice.columnsCount = columnsCount;
+        slice.firstRow = firstRow + fromRow;
+        slice.rowsLimit = Math.min(rowsCount, Math.max(0, rowsLimit - fromRow));
+        return slice;
+    }
+
+    /**
+     * Provides columns count determined by the first record. Reads the first record if necessary.
+     *
+     * @return Table columns count.
+     */
+    @Override
+    public int getColumnsCount() {
+        readFirstRecord();
+        return columnsCount;
+    }
+
+    /**
+     * Provides the headers read from the first record.
+     *
+     * @return Headers or <code>null</code> if disabled with {@link #withoutHeaders()}.
+     */
+    @Override
+    public Iterable<String> getHeaders() {
+        if (!hasHeaderRecord) {
+            return null;
+        }
+        readFirstRecord();
+        return headers;
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return hasHeaderRecord;
+    }
+
+    /**
+     * Reads the data from new reader. The reader is closed when all rows are read.
+     *
+     * @return Iterator of {@link CsvRow} views.
+     */
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        final int columns = getColumnsCount();
+        final long firstRecord = firstRow + (hasHeaderRecord ? 1 : 0);
+        final CsvParser parser;
+        long skipped;
+        if (index != null && firstRecord >= index.getRecordsCount()) {
+            return Collections.emptyIterator();
+        }
+        if (index != null) {
+            parser = new CsvParser(openReader(file, charset, index.getIndexedOffset(firstRecord)), delimiter, QUOTE, bufferSize);
+            skipped = firstRecord - index.getIndexedRecord(firstRecord);
+        } else {
+            parser = newParser();
+            skipped = firstRecord;
+        }
+        try {
+            while (skipped > 0 && parser.next()) {
+                --skipped;
+            }
+        } catch (final RuntimeException e) {
+            try {
+                parser.close();
+            } catch (final RuntimeException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        return new RowsIterator(parser, columns, rowsLimit);
+    }
+
+    private CsvParser newParser() {
+        return new CsvParser(readerSupplier.get(), delimiter, QUOTE, bufferSize);
+    }
+
+    private static Reader openReader(final File file, final Charset charset, final long offset) {
+        final FileInputStream inputStream;
+        try {
+            inputStream = new FileInputStream(file);
+        } catch (final FileNotFoundException e) {
+            throw new RuntimeException("Failed to read CSV file: File not found: [" + file.getPath() + "].", e);
+        }
+        try {
+            inputStream.getChannel().position(offset);
+        } catch (final IOException e) {
+            try {
+                inputStream.close();
+            } catch (final IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw new RuntimeException("Failed to seek CSV file: [" + file.getPath() + "].", e);
+        }
+        return new InputStreamReader(inputStream, charset);
+    }
+
+    private void readFirstRecord() {
+        if (columnsCount >= 0) {
+            return;
+        }
+        try (final CsvParser parser = newParser()) {
+            if (!parser.next()) {
+                columnsCount = 0;
+                headers = hasHeaderRecord ? new ArrayList<>() : null;
+                return;
+            }
+            columnsCount = parser.getFieldsCount();
+            if (hasHeaderRecord) {
+                headers = new ArrayList<>(columnsCount);
+                for (int i = 0; i < columnsCount; ++i) {
+                    headers.add(parser.getString(i));
+                }
+            }
+        }
+    }
+
+    private static class RowsIterator implements Iterator<Iterable<String>>, AutoCloseable {
+
+        private final CsvParser parser;
+
+        private final CsvRow row;
+
+        private final int columnsCount;
+
+        private long remaining;
+
+        /**
+         * Whether next record is already parsed and not yet returned.
+         */
+        private boolean ready = false;
+
+        private boolean finished = false;
+
+        RowsIterator(final CsvParser parser, final int columnsCount, final long rowsLimit) {
+            this.parser = parser;
+            this.columnsCount = columnsCount;
+            this.remaining = rowsLimit;
+            this.row = new CsvRow(parser, columnsCount);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready && !finished) {
+                if (remaining > 0 && parser.next()) {
+                    if (parser.getFieldsCount() > columnsCount) {
+                        parser.close();
+                        throw new RuntimeException("CSV record " + parser.getRecordsCount() + " has " + parser.getFieldsCount() + " fields, expected at most " + columnsCount + ".");
+                    }
+                    ready = true;
+                } else {
+                    finished = true;
+                    parser.close();
+                }
+            }
+            return ready;
+        }
+
+        @Override
+        public Iterable<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            --remaining;
+            return row;
+        }
+
+        /**
+         * Closes the reader when the rows are not read to the end.
+         */
+        @Override
+        public void close() {
+            if (!finished) {
+                finished = true;
+                ready = false;
+                parser.close();
+            }
+        }
+    }
+}
@@ -19,6 +19,8 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * Csv specification: <a href="https://www.rfc-editor.org/rfc/rfc4180">https://www.rfc-editor.org/rfc/rfc4180</a>
  */
@@ -67,7 +69,45 @@ public class CsvTableWriter implements ITableWriter {
 
     @Override
     public void writeCell(String what) {
-        runtime.appendIfNotFirstColumn(runtime.getCellDelimiter());
-        runtime.appendPadded(what);
+        final int[] widths = runtime.getContext().getColumnWidthResolver().getWidths();
+        final int column = runtime.getColumnIdx();
+        writeCell(what, column, runtime.getCellDelimiter(), (widths == null) ? -1 : widths[column], runtime.getVerticalAlign(column));
+    }
+
+    /**
+     * Writes the cell preceded by the delimiter, unless it is the first cell.
+     *
+     * @param what      Escaped cell text.
+     * @param column    Column index.
+     * @param delimiter Cell delimiter.
+     * @param width     Column width or negative value if the cells are not padded.
+     * @param align     Column align.
+     * @since 0.3.0
+     */
+    private void writeCell(final String what, final int column, final String delimiter, final int width, final VerticalAlign align) {
+        if (column != 0) {
+            runtime.append(delimiter);
+        }
+        if (width < 0) {
+            runtime.append(what);
+        } else {
+            runtime.appendPadded(what, width, align, ' ');
+        }
+    }
+
+    /**
+     * Writes the row cells, reading the delimiter, column widths and aligns once per row.
+     */
+    @Override
+    public void writeRow(@NotNull final RenderRuntime runtime, @NotNull final IEscaper escaper, @NotNull final String[] cells, final int count) {
+        final boolean escaping = IEscaper.isEscaping(escaper);
+        final String delimiter = runtime.getCellDelimiter();
+        final int[] widths = runtime.getContext().getColumnWidthResolver().getWidths();
+        final VerticalAlign[] aligns = runtime.getColumnAligns();
+        runtime.resetColumn();
+        for (int i = 0; i < count; ++i) {
+            writeCell(escaping ? escaper.escape(cells[i]) : cells[i], i, delimiter, (widths == null) ? -1 : widths[i], (i < aligns.length) ? aligns[i] : runtime.getVerticalAlign(i));
+            runtime.nextColumn();
+        }
     }
 }
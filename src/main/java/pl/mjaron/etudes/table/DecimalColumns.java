@@ -0,0 +1,162 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Measures the cells of {@link VerticalAlign#Decimal} columns, so their decimal points may be aligned.
+ * <p>
+ * Each escaped cell is split at its last escaped <code>'.'</code> into the integer part and the fraction part,
+ * including the point. Cells without the point have empty fraction part.
+ *
+ * @since 0.3.0
+ */
+class DecimalColumns {
+
+    /**
+     * Indices of decimal columns, in ascending order.
+     */
+    private final int[] columns;
+
+    private final IEscaper escaper;
+
+    /**
+     * Escaped decimal point, e.g. <code>"&amp;#46;"</code> in Markdown.
+     */
+    private final String point;
+
+    private final int[] integerWidths;
+
+    private final int[] fractionWidths;
+
+    private boolean measured = false;
+
+    private DecimalColumns(final int[] columns, final IEscaper escaper) {
+        this.columns = columns;
+        this.escaper = escaper;
+        this.point = escaper.escape(".");
+        this.integerWidths = new int[columns.length];
+        this.fractionWidths = new int[columns.length];
+    }
+
+    /**
+     * Finds the decimal columns of given runtime.
+     *
+     * @param runtime Render runtime.
+     * @return Decimal columns or <code>null</code> if the table has no decimal columns.
+     */
+    @Nullable
+    static DecimalColumns of(@NotNull final RenderRuntime runtime) {
+        final int[] columns = new int[runtime.getColumnsCount()];
+        int count = 0;
+        for (int i = 0; i < columns.length; ++i) {
+            if (runtime.getVerticalAlign(i) == VerticalAlign.Decimal) {
+                columns[count++] = i;
+            }
+        }
+        return (count == 0) ? null : new DecimalColumns(Arrays.copyOf(columns, count), runtime.getEscaper());
+    }
+
+    /**
+     * Provides the length of the escaped cell integer part.
+     *
+     * @param cell Escaped cell text.
+     * @return Position of the last escaped <code>'.'</code>, or the cell length if not found.
+     */
+    int pointOf(@NotNull final String cell) {
+        final int at = cell.lastIndexOf(point);
+        return (at < 0) ? cell.length() : at;
+    }
+
+    /**
+     * Measures the decimal cells of given row.
+     *
+     * @param row Not escaped table row.
+     */
+    void accept(@NotNull final Iterable<String> row) {
+        int column = 0;
+        int k = 0;
+        for (final String cell : row) {
+            if (column == columns[k]) {
+                measure(k, cell);
+                if (++k == columns.length) {
+                    return;
+                }
+            }
+            ++column;
+        }
+    }
+
+    /**
+     * Measures the decimal cell of given column.
+     *
+     * @param column Column index.
+     * @param cell   Not escaped cell text.
+     */
+    void accept(final int column, @NotNull final String cell) {
+        final int k = Arrays.binarySearch(columns, column);
+        if (k >= 0) {
+            measure(k, cell);
+        }
+    }
+
+    private void measure(final int k, final String cell) {
+        final String escaped = escaper.escape(cell);
+        final int at = pointOf(escaped);
+        integerWidths[k] = Math.max(integerWidths[k], at);
+        fractionWidths[k] = Math.max(fractionWidths[k], escaped.length() - at);
+    }
+
+    /**
+     * Extends the column widths, so the aligned cells fit in, and marks that all rows are measured.
+     *
+     * @param widths Column widths.
+     */
+    void applyWidths(@NotNull final int[] widths) {
+        for (int k = 0; k < columns.length; ++k) {
+            widths[columns[k]] = Math.max(widths[columns[k]], integerWidths[k] + fractionWidths[k]);
+        }
+        measured = true;
+    }
+
+    /**
+     * Tells whether all rows are measured, so the decimal points may be aligned.
+     *
+     * @return <code>true</code> when all rows are measured.
+     */
+    boolean isMeasured() {
+        return measured;
+    }
+
+    /**
+     * Provides the maximal integer part length of given decimal column.
+     *
+     * @param column Column index.
+     * @return Integer part length or <code>-1</code> if given column is not a decimal column.
+     */
+    int getIntegerWidth(final int column) {
+        final int k = Arrays.binarySearch(columns, column);
+        return (k < 0) ? -1 : integerWidths[k];
+    }
+}
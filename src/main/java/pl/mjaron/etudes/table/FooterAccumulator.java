@@ -0,0 +1,138 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.Str;
+
+import java.util.Arrays;
+
+/**
+ * Computes the {@link TableFooter} aggregates of single rendering. Keeps the accumulators of aggregated columns only.
+ *
+ * @since 0.3.0
+ */
+class FooterAccumulator {
+
+    /**
+     * Indices of aggregated columns, in ascending order.
+     */
+    private final int[] columns;
+
+    private final AggregateAccumulator[] accumulators;
+
+    /**
+     * Footer cells of not aggregated columns.
+     */
+    private final String[] labels;
+
+    /**
+     * Set when all rows are accumulated.
+     */
+    private boolean complete = false;
+
+    FooterAccumulator(@NotNull final TableFooter footer, final int columnsCount) {
+        this.labels = new String[columnsCount];
+        int aggregated = 0;
+        for (int i = 0; i < columnsCount; ++i) {
+            if (footer.getAggregate(i) != null) {
+                ++aggregated;
+            }
+            labels[i] = footer.getLabel(i);
+        }
+        this.columns = new int[aggregated];
+        this.accumulators = new AggregateAccumulator[aggregated];
+        for (int i = 0, k = 0; i < columnsCount; ++i) {
+            final Aggregate aggregate = footer.getAggregate(i);
+            if (aggregate != null) {
+                columns[k] = i;
+                accumulators[k] = new AggregateAccumulator(aggregate, 1);
+                ++k;
+            }
+        }
+    }
+
+    /**
+     * Accumulates the row cells. Raw values of {@link LazyRow} are used without converting them to {@link String}.
+     *
+     * @param row Table body row.
+     */
+    void accept(@NotNull final Iterable<String> row) {
+        if (columns.length == 0) {
+            return;
+        }
+        if (row instanceof LazyRow) {
+            final LazyRow lazyRow = (LazyRow) row;
+            for (int k = 0; k < columns.length; ++k) {
+                accumulators[k].accept(0, lazyRow.getValue(columns[k]));
+            }
+            return;
+        }
+        int column = 0;
+        int k = 0;
+        for (final String cell : row) {
+            if (column == columns[k]) {
+                accumulators[k].accept(0, cell);
+                if (++k == columns.length) {
+                    return;
+                }
+            }
+            ++column;
+        }
+    }
+
+    /**
+     * Marks that all rows are accumulated, so the next pass over the rows doesn't need to accumulate them again.
+     */
+    void complete() {
+        complete = true;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Provides the footer cell text.
+     *
+     * @param column Column index.
+     * @return Footer cell text, not escaped.
+     */
+    @NotNull
+    String getCell(final int column) {
+        final int k = Arrays.binarySearch(columns, column);
+        if (k < 0) {
+            return (labels[column] == null) ? "" : labels[column];
+        }
+        return Str.orEmpty(accumulators[k].getValue(0));
+    }
+
+    /**
+     * Extends the column widths, so the escaped footer cells fit in.
+     *
+     * @param widths  Column widths.
+     * @param escaper Escaper of footer cells.
+     */
+    void applyWidths(@NotNull final int[] widths, @NotNull final IEscaper escaper) {
+        for (int i = 0; i < widths.length && i < labels.length; ++i) {
+            widths[i] = Integer.max(widths[i], escaper.escape(getCell(i)).length());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Groups the rows of other {@link ITableSource} by one or more key columns and computes the {@link Aggregate} functions
+ * of each group.
+ * <p>
+ * The underlying source is consumed once, on the first iteration, and the groups are kept for next iterations. Groups
+ * are stored in an open-addressing hash table and aggregates in primitive arrays indexed by the group, so the memory is
+ * proportional to the count of groups, not rows. Groups are provided in the order of their first appearance.
+ * <p>
+ * Provided columns are the key columns followed by the aggregates. Rows are provided as {@link LazyRow} with raw key
+ * values and {@link Long} or {@link Double} aggregate results.
+ *
+ * @since 0.3.0
+ */
+public class GroupingTableSource implements ITableSource {
+
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final ITableSource source;
+
+    private final List<String> keyColumns = new ArrayList<>();
+
+    /**
+     * Source column name and aggregate function of each computed aggregate.
+     */
+    private final List<Pair<String, Aggregate>> aggregates = new ArrayList<>();
+
+    private final List<String> aggregateHeaders = new ArrayList<>();
+
+    private List<Object[]> groupKeys = null;
+
+    private AggregateAccumulator[] accumulators = null;
+
+    public GroupingTableSource(@NotNull final ITableSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Adds the key columns. Rows with equal values of all key columns belong to the same group.
+     *
+     * @param columns Source column names.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public GroupingTableSource groupBy(@NotNull final String... columns) {
+        keyColumns.addAll(Arrays.asList(columns));
+        groupKeys = null;
+        return this;
+    }
+
+    /**
+     * Adds the aggregate column with header like <code>sum(column)</code>.
+     *
+     * @param column    Source column name.
+     * @param aggregate Aggregate function.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public GroupingTableSource aggregate(@NotNull final String column, @NotNull final Aggregate aggregate) {
+        return aggregate(column, aggregate, aggregate.name().toLowerCase(Locale.ROOT) + "(" + column + ")");
+    }
+
+    /**
+     * Adds the aggregate column.
+     *
+     * @param column    Source column name.
+     * @param aggregate Aggregate function.
+     * @param header    Header of the aggregate column.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _, _ -> this")
+    public GroupingTableSource aggregate(@NotNull final String column, @NotNull final Aggregate aggregate, @NotNull final String header) {
+        aggregates.add(new Pair<>(column, aggregate));
+        aggregateHeaders.add(header);
+        groupKeys = null;
+        return this;
+    }
+
+    /**
+     * Provides the count of groups. Consumes the underlying source if not consumed yet.
+     *
+     * @return Count of groups.
+     * @since 0.3.0
+     */
+    public int getGroupsCount() {
+        group();
+        return groupKeys.size();
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return keyColumns.size() + aggregates.size();
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        final List<String> headers = new ArrayList<>(getColumnsCount());
+        headers.addAll(keyColumns);
+        headers.addAll(aggregateHeaders);
+        return headers;
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        group();
+        final List<Object[]> keys = groupKeys;
+        final AggregateAccumulator[] results = accumulators;
+        return new Iterator<Iterable<String>>() {
+            int group = 0;
+
+            @Override
+            public boolean hasNext() {
+                return group < keys.size();
+            }
+
+            @Override
+            public Iterable<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int current = group++;
+                final Object[] key = keys.get(current);
+                return new LazyRow(getColumnsCount(), column -> (column < key.length) ? key[column] : results[column - key.length].getValue(current));
+            }
+        };
+    }
+
+    /**
+     * Consumes the underlying source and computes the groups, if not computed yet.
+     */
+    private void group() {
+        if (groupKeys != null) {
+            return;
+        }
+        final List<String> headers = new ArrayList<>();
+        if (source.hasHeaders()) {
+            for (final String header : source.getHeaders()) {
+                headers.add(header);
+            }
+        }
+        final int[] keyIndices = ColumnNames.resolve(headers, keyColumns, "grouping");
+        final List<String> aggregateColumns = new ArrayList<>(aggregates.size());
+        for (final Pair<String, Aggregate> entry : aggregates) {
+            aggregateColumns.add(entry.getKey());
+        }
+        final int[] aggregateIndices = ColumnNames.resolve(headers, aggregateColumns, "grouping");
+
+        final List<Object[]> keys = new ArrayList<>();
+        final AggregateAccumulator[] results = new AggregateAccumulator[aggregates.size()];
+        for (int k = 0; k < results.length; ++k) {
+            results[k] = new AggregateAccumulator(aggregates.get(k).getValue(), INITIAL_TABLE_SIZE / 2);
+        }
+
+        // Slot holds the group index + 1, or 0 if empty. Table size is a power of two, kept at most half full.
+        int[] slots = new int[INITIAL_TABLE_SIZE];
+        int[] hashes = new int[INITIAL_TABLE_SIZE / 2];
+        final Object[] probe = new Object[keyIndices.length];
+        final String[] cells = new String[source.getColumnsCount()];
+
+        final Iterator<Iterable<String>> rows = source.iterator();
+        try {
+            for (long rowIndex = 0; rows.hasNext(); ++rowIndex) {
+                final Iterable<String> row = rows.next();
+                final LazyRow lazyRow = (row instanceof LazyRow) ? (LazyRow) row : null;
+                if (lazyRow == null) {
+                    int i = 0;
+                    for (final String cell : row) {
+                        if (i == cells.length) {
+                            throw new RuntimeException("Source row " + rowIndex + " has more than " + cells.length + " cells.");
+                        }
+                        cells[i++] = cell;
+                    }
+                    Arrays.fill(cells, i, cells.length, "");
+                }
+                int hash = 1;
+                for (int i = 0; i < keyIndices.length; ++i) {
+                    probe[i] = (lazyRow != null) ? lazyRow.getValue(keyIndices[i]) : cells[keyIndices[i]];
+                    hash = 31 * hash + Objects.hashCode(probe[i]);
+                }
+                hash ^= hash >>> 16;
+
+                int mask = slots.length - 1;
+                int slot = hash & mask;
+                int group;
+                while (true) {
+                    group = slots[slot] - 1;
+                    if (group < 0 || (hashes[group] == hash && Arrays.equals(keys.get(group), probe))) {
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+
+                if (group < 0) {
+                    group = keys.size();
+                    keys.add(probe.clone());
+                    if (group == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                    }
+                    hashes[group] = hash;
+                    slots[slot] = group + 1;
+                    for (final AggregateAccumulator result : results) {
+                        result.ensureCapacity(group + 1);
+                    }
+                    if (keys.size() * 2 > slots.length) {
+                        slots = rehash(slots.length * 2, hashes, keys.size());
+                    }
+                }
+
+                for (int k = 0; k < results.length; ++k) {
+                    results[k].accept(group, (lazyRow != null) ? lazyRow.getValue(aggregateIndices[k]) : cells[aggregateIndices[k]]);
+                }
+            }
+        } finally {
+            ITableSource.close(rows);
+        }
+        this.accumulators = results;
+        this.groupKeys = keys;
+    }
+
+    private static int[] rehash(final int size, final int[] hashes, final int groupsCount) {
+        final int[] slots = new int[size];
+        final int mask = size - 1;
+        for (int group = 0; group < groupsCount; ++group) {
+            int slot = hashes[group] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = group + 1;
+        }
+        return slots;
+    }
+}
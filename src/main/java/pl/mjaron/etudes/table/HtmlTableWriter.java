@@ -19,6 +19,8 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * Writes the table as HTML code.
  *
@@ -113,7 +115,8 @@ public class HtmlTableWriter implements ITableWriter {
                 runtime.append(" style=\"text-align: left;\"");
                 return;
             }
-            case Right: {
+            case Right:
+            case Decimal: {
                 runtime.append(" style=\"text-align: right;\"");
                 return;
             }
@@ -129,21 +132,43 @@ public class HtmlTableWriter implements ITableWriter {
 
     @Override
     public void writeCell(String what) {
-        runtime.append(indentationUnit);
-        runtime.append(indentationUnit);
         if (runtime.isHeaderState()) {
-            runtime.append("<th");
-            writeColumnStyle();
-            runtime.append(">");
-            runtime.append(what);
-            runtime.append("</th>");
+            writeCell(what, "<th", "</th>");
         } else {
-            runtime.append("<td");
-            writeColumnStyle();
-            runtime.append(">");
-            runtime.append(what);
-            runtime.append("</td>");
+            writeCell(what, "<td", "</td>");
+        }
+    }
+
+    /**
+     * Writes the cell with given tags.
+     *
+     * @param what     Escaped cell text.
+     * @param beginTag Not closed begin tag, e.g. <code>&lt;td</code>.
+     * @param endTag   End tag.
+     * @since 0.3.0
+     */
+    private void writeCell(final String what, final String beginTag, final String endTag) {
+        runtime.append(indentationUnit);
+        runtime.append(indentationUnit);
+        runtime.append(beginTag);
+        writeColumnStyle();
+        runtime.append('>');
+        runtime.append(what);
+        runtime.appendLine(endTag);
+    }
+
+    /**
+     * Writes the row cells, choosing the cell tags once per row.
+     */
+    @Override
+    public void writeRow(@NotNull final RenderRuntime runtime, @NotNull final IEscaper escaper, @NotNull final String[] cells, final int count) {
+        final boolean escaping = IEscaper.isEscaping(escaper);
+        final String beginTag = runtime.isHeaderState() ? "<th" : "<td";
+        final String endTag = runtime.isHeaderState() ? "</th>" : "</td>";
+        runtime.resetColumn();
+        for (int i = 0; i < count; ++i) {
+            writeCell(escaping ? escaper.escape(cells[i]) : cells[i], beginTag, endTag);
+            runtime.nextColumn();
         }
-        runtime.appendLine();
     }
 }
@@ -38,6 +38,17 @@ public interface IEscaper {
      */
     String escape(String what);
 
+    /**
+     * Tells whether given escaper changes the text, so writers may skip calling it for each cell.
+     *
+     * @param escaper Any escaper.
+     * @return <code>false</code> for {@link DummyEscaper}.
+     * @since 0.3.0
+     */
+    static boolean isEscaping(final IEscaper escaper) {
+        return !(escaper instanceof DummyEscaper);
+    }
+
     static IEscaper dummyOr(final IEscaper what) {
         if (what == null) {
             return DummyEscaper.getInstance();
@@ -0,0 +1,43 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link ITableSource} which can provide only selected columns, without computing the other cells.
+ * <p>
+ * Used by {@link ManipulatingTableSourceBuilder} to push the {@link ColumnSelector} selection down to the source.
+ *
+ * @since 0.3.0
+ */
+public interface IProjectableTableSource extends ITableSource {
+
+    /**
+     * Creates the source providing only given columns, in given order.
+     *
+     * @param columns Indices of this source columns. The same column may be used more than once.
+     * @return Source where nth column is the <code>columns[n]</code> column of this source.
+     * @throws IndexOutOfBoundsException When any column index is out of range.
+     * @since 0.3.0
+     */
+    @NotNull
+    ITableSource project(@NotNull int[] columns);
+}
@@ -20,6 +20,7 @@
 package pl.mjaron.etudes.table;
 
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -40,4 +41,20 @@ public interface IPropertyProvider<T> {
      */
     @Contract(pure = true)
     @Nullable T get(int column, int row);
+
+    /**
+     * Creates the snapshot of this provider, called when the rendering starts. Snapshots of built-in providers store
+     * the values in arrays, so each cell lookup doesn't walk the maps or trees.
+     * <p>
+     * By default, this reference is returned, because values of unknown providers cannot be enumerated.
+     *
+     * @param columnsCount Count of rendered columns.
+     * @return Provider returning the same values as this one, until this one is changed.
+     * @see pl.mjaron.etudes.table.property.FrozenPropertyProvider
+     * @since 0.3.0
+     */
+    @NotNull
+    default IPropertyProvider<T> freeze(final int columnsCount) {
+        return this;
+    }
 }
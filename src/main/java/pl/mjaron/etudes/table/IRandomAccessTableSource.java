@@ -0,0 +1,63 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link ITableSource} providing any cell in constant time, without iterating the rows, e.g. backed by
+ * {@link java.util.RandomAccess} list.
+ *
+ * @since 0.3.0
+ */
+public interface IRandomAccessTableSource extends ITableSource {
+
+    /**
+     * Tells whether this instance provides the random access. Sources supporting it only for some underlying
+     * containers return <code>false</code> for others.
+     *
+     * @return <code>true</code> when {@link #getRowsCount()} and {@link #getValue(int, int)} may be used.
+     * @since 0.3.0
+     */
+    default boolean hasRandomAccess() {
+        return true;
+    }
+
+    /**
+     * Provides count of rows, not including the headers. Requires {@link #hasRandomAccess()}.
+     *
+     * @return Count of rows.
+     * @throws IllegalStateException When this instance doesn't provide the random access.
+     * @since 0.3.0
+     */
+    int getRowsCount();
+
+    /**
+     * Provides the raw cell value. Requires {@link #hasRandomAccess()}.
+     *
+     * @param row    Row index, counting from <code>0</code>. Headers are not counted.
+     * @param column Column index, counting from <code>0</code>.
+     * @return Raw cell value, may be <code>null</code>.
+     * @throws IllegalStateException When this instance doesn't provide the random access.
+     * @since 0.3.0
+     */
+    @Nullable
+    Object getValue(int row, int column);
+}
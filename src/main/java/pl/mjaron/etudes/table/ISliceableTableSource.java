@@ -0,0 +1,44 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link ITableSource} which can provide a range of its rows without iterating the preceding rows, e.g. backed by
+ * {@link java.util.RandomAccess} list or indexed file.
+ * <p>
+ * Used by {@link ManipulatingTableSourceBuilder} to push {@link RenderContext#page(long, long)} down to the source.
+ *
+ * @since 0.3.0
+ */
+public interface ISliceableTableSource extends ITableSource {
+
+    /**
+     * Creates the source providing only given range of rows.
+     *
+     * @param fromRow   First row, counting from <code>0</code>. Headers are not counted.
+     * @param rowsCount Maximal count of rows.
+     * @return Source providing at most <code>rowsCount</code> rows, starting from <code>fromRow</code>.
+     * @since 0.3.0
+     */
+    @NotNull
+    ITableSource slice(long fromRow, long rowsCount);
+}
@@ -46,6 +46,36 @@ public interface ITableSource extends Iterable<Iterable<String>> {
         return getHeaders() != null;
     }
 
+    /**
+     * Tells whether each iteration of the source is expensive, e.g. the rows are sorted with temporary files. Column
+     * widths of such source are computed in spill mode, so the source is iterated only once.
+     *
+     * @return <code>true</code> when the source should be iterated only once.
+     * @since 0.3.0
+     */
+    default boolean prefersSinglePass() {
+        return false;
+    }
+
+    /**
+     * Closes the rows iterator which holds the resources, e.g. open files. Used when the iterator may be dropped before
+     * reading all rows.
+     *
+     * @param iterator Rows iterator. Closed if it is {@link AutoCloseable}.
+     * @since 0.3.0
+     */
+    static void close(final Iterator<?> iterator) {
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new RuntimeException("Failed to close rows iterator.", e);
+            }
+        }
+    }
+
     default void readTo(final RenderContext options) {
         options.setSource(this);
         RenderOperation.execute(options);
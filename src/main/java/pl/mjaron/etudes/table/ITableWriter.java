@@ -20,6 +20,7 @@
 package pl.mjaron.etudes.table;
 
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -54,5 +55,47 @@ public interface ITableWriter {
 
     void endRow();
 
+    /**
+     * Begins the footer row, written after the table body when {@link RenderRuntime#hasFooter()}. By default, the
+     * footer is written like the body rows.
+     *
+     * @since 0.3.0
+     */
+    default void beginFooter() {
+        beginRow();
+    }
+
+    /**
+     * Ends the footer row.
+     *
+     * @see #beginFooter()
+     * @since 0.3.0
+     */
+    default void endFooter() {
+        endRow();
+    }
+
     void writeCell(final String what);
+
+    /**
+     * Writes all cells of the row, between {@link #beginRow()} and {@link #endRow()}, or their header and footer
+     * counterparts. The cells are escaped by the writer, so it may escape and pad all the cells in single loop.
+     * <p>
+     * By default, each cell is written with {@link #writeCell(String)}. Writers override it to move the row invariants
+     * out of the cells loop, sharing the cell writing code with {@link #writeCell(String)}.
+     *
+     * @param runtime Render runtime. Its current column is updated for each written cell.
+     * @param escaper Escaper of the row cells.
+     * @param cells   Not escaped cells. The array is reused by next rows.
+     * @param count   Count of cells stored in the array.
+     * @since 0.3.0
+     */
+    default void writeRow(@NotNull final RenderRuntime runtime, @NotNull final IEscaper escaper, @NotNull final String[] cells, final int count) {
+        final boolean escaping = IEscaper.isEscaping(escaper);
+        runtime.resetColumn();
+        for (int i = 0; i < count; ++i) {
+            writeCell(escaping ? escaper.escape(cells[i]) : cells[i]);
+            runtime.nextColumn();
+        }
+    }
 }
@@ -0,0 +1,396 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Joins the rows of two {@link ITableSource}s with equal key columns.
+ * <p>
+ * The right source is read once, on the first iteration, into a hash table of its rows, so it should be the smaller
+ * one. The left source is streamed on each iteration and joined rows are created while iterated, so the join costs
+ * <code>O(n + m)</code> and only the right rows are kept in memory. Rows are provided in the left source order, each
+ * left row followed by its matches in the right source order.
+ * <p>
+ * {@link Type#INNER} join of two {@link IRandomAccessTableSource}s hashes the left source instead, when it has less
+ * rows. Then the right source is streamed and the rows are provided in the right source order. Columns are always
+ * provided in the same order.
+ * <p>
+ * Key cells are compared by their text. Provided columns are all left columns followed by all right columns. Right
+ * headers which collide with left headers are prefixed with {@link #DEFAULT_RIGHT_PREFIX}, so all columns may be
+ * selected and aliased with {@link ColumnSelector}.
+ *
+ * @since 0.3.0
+ */
+public class JoinTableSource implements ITableSource {
+
+    /**
+     * Join type.
+     *
+     * @since 0.3.0
+     */
+    public enum Type {
+
+        /**
+         * Provides only left rows which have matching right rows.
+         */
+        INNER,
+
+        /**
+         * Provides all left rows. Right cells of left rows without matching right rows are empty.
+         */
+        LEFT
+    }
+
+    public static final String DEFAULT_RIGHT_PREFIX = "right.";
+
+    private final ITableSource left;
+
+    private final ITableSource right;
+
+    private final List<String> leftKeys = new ArrayList<>();
+
+    private final List<String> rightKeys = new ArrayList<>();
+
+    private Type type = Type.INNER;
+
+    private String rightPrefix = DEFAULT_RIGHT_PREFIX;
+
+    /**
+     * Whether the left rows are hashed and the right rows are streamed.
+     */
+    private boolean hashedLeft = false;
+
+    /**
+     * Raw cell values of hashed rows.
+     */
+    private List<Object[]> hashedRows = null;
+
+    /**
+     * Key cells of hashed rows.
+     */
+    private List<String[]> hashedRowKeys = null;
+
+    private int[] hashedHashes = null;
+
+    /**
+     * Index + 1 of the first hashed row of each hash table slot, or <code>0</code> if empty. Table size is a power of
+     * two.
+     */
+    private int[] heads = null;
+
+    /**
+     * Index + 1 of the next hashed row in the same slot, or <code>0</code> if last.
+     */
+    private int[] nexts = null;
+
+    public JoinTableSource(@NotNull final ITableSource left, @NotNull final ITableSource right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Adds the key columns pair. Rows are joined when all their key cells are equal.
+     *
+     * @param leftColumn  Left source column name.
+     * @param rightColumn Right source column name.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public JoinTableSource on(@NotNull final String leftColumn, @NotNull final String rightColumn) {
+        leftKeys.add(leftColumn);
+        rightKeys.add(rightColumn);
+        hashedRows = null;
+        return this;
+    }
+
+    /**
+     * Sets the join type.
+     *
+     * @param type Join type. By default, {@link Type#INNER}.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public JoinTableSource withType(@NotNull final Type type) {
+        this.type = type;
+        hashedRows = null;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Type#LEFT} join type.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public JoinTableSource leftJoin() {
+        return withType(Type.LEFT);
+    }
+
+    /**
+     * Sets the prefix of right headers colliding with left headers.
+     *
+     * @param rightPrefix Header prefix. By default, {@link #DEFAULT_RIGHT_PREFIX}.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public JoinTableSource withRightPrefix(@NotNull final String rightPrefix) {
+        this.rightPrefix = rightPrefix;
+        return this;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return left.getColumnsCount() + right.getColumnsCount();
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        final List<String> leftHeaders = headersOf(left);
+        final List<String> headers = new ArrayList<>(leftHeaders);
+        for (final String header : headersOf(right)) {
+            headers.add(leftHeaders.contains(header) ? rightPrefix + header : header);
+        }
+        return headers;
+    }
+
+    private static List<String> headersOf(final ITableSource source) {
+        final List<String> headers = new ArrayList<>();
+        if (source.hasHeaders()) {
+            for (final String header : source.getHeaders()) {
+                headers.add(header);
+            }
+        } else {
+            for (int i = 0; i < source.getColumnsCount(); ++i) {
+                headers.add("");
+            }
+        }
+        return headers;
+    }
+
+    private static Object valueOf(final LazyRow row, final int column) {
+        return (column < row.size()) ? row.getValue(column) : null;
+    }
+
+    private static int hashOf(final String[] keys) {
+        final int hash = Arrays.hashCode(keys);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Provides count of rows of the source with random access.
+     *
+     * @return Count of rows or <code>-1</code> if not known without iterating the source.
+     */
+    private static int rowsCountOf(final ITableSource source) {
+        if (source instanceof IRandomAccessTableSource && ((IRandomAccessTableSource) source).hasRandomAccess()) {
+            return ((IRandomAccessTableSource) source).getRowsCount();
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the hashed source into the hash table, if not read yet.
+     */
+    private void build() {
+        if (hashedRows != null) {
+            return;
+        }
+        if (leftKeys.isEmpty()) {
+            throw new IllegalStateException("Join key columns are not specified.");
+        }
+        final int leftRowsCount = rowsCountOf(left);
+        final int rightRowsCount = rowsCountOf(right);
+        hashedLeft = type == Type.INNER && leftRowsCount >= 0 && rightRowsCount >= 0 && leftRowsCount < rightRowsCount;
+        final ITableSource hashed = hashedLeft ? left : right;
+        final int[] keyColumns = ColumnNames.resolve(headersOf(hashed), hashedLeft ? leftKeys : rightKeys, "join");
+        final List<Object[]> rows = new ArrayList<>();
+        final List<String[]> rowKeys = new ArrayList<>();
+        int[] hashes = new int[16];
+        final Iterator<Iterable<String>> sourceRows = hashed.iterator();
+        try {
+            while (sourceRows.hasNext()) {
+                final LazyRow lazyRow = LazyRow.from(sourceRows.next());
+                final Object[] values = new Object[hashed.getColumnsCount()];
+                for (int i = 0; i < values.length && i < lazyRow.size(); ++i) {
+                    values[i] = lazyRow.getValue(i);
+                }
+                final String[] keys = new String[keyColumns.length];
+                for (int i = 0; i < keys.length; ++i) {
+                    keys[i] = lazyRow.get(keyColumns[i]);
+                }
+                if (rows.size() == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                }
+                hashes[rows.size()] = hashOf(keys);
+                rows.add(values);
+                rowKeys.add(keys);
+            }
+        } finally {
+            ITableSource.close(sourceRows);
+        }
+
+        int size = 16;
+        while (size < rows.size() * 2) {
+            size *= 2;
+        }
+        final int[] tableHeads = new int[size];
+        final int[] tableNexts = new int[rows.size()];
+        // Inserted in reverse order, so each chain keeps the hashed source order.
+        for (int row = rows.size() - 1; row >= 0; --row) {
+            final int slot = hashes[row] & (size - 1);
+            tableNexts[row] = tableHeads[slot];
+            tableHeads[slot] = row + 1;
+        }
+        this.hashedRowKeys = rowKeys;
+        this.hashedHashes = hashes;
+        this.heads = tableHeads;
+        this.nexts = tableNexts;
+        this.hashedRows = rows;
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        build();
+        final ITableSource streamed = hashedLeft ? right : left;
+        return new JoinIterator(ColumnNames.resolve(headersOf(streamed), hashedLeft ? rightKeys : leftKeys, "join"), streamed.iterator());
+    }
+
+    /**
+     * Streams the rows not hashed, by default the left ones, and joins each of them with the matching hashed rows.
+     */
+    private class JoinIterator implements Iterator<Iterable<String>>, AutoCloseable {
+
+        private final int[] keyColumns;
+
+        private final Iterator<Iterable<String>> streamedRows;
+
+        private final int leftCount = left.getColumnsCount();
+
+        private final int columnsCount = getColumnsCount();
+
+        private LazyRow streamedRow = null;
+
+        private String[] keys = null;
+
+        private int hash = 0;
+
+        /**
+         * Index + 1 of the next candidate hashed row of current streamed row, or <code>0</code> if no more.
+         */
+        private int candidate = 0;
+
+        private Iterable<String> nextRow = null;
+
+        JoinIterator(final int[] keyColumns, final Iterator<Iterable<String>> streamedRows) {
+            this.keyColumns = keyColumns;
+            this.streamedRows = streamedRows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRow == null) {
+                while (candidate != 0) {
+                    final int row = candidate - 1;
+                    candidate = nexts[row];
+                    if (hashedHashes[row] == hash && Arrays.equals(hashedRowKeys.get(row), keys)) {
+                        nextRow = joined(streamedRow, hashedRows.get(row));
+                        return true;
+                    }
+                }
+                if (!streamedRows.hasNext()) {
+                    return false;
+                }
+                streamedRow = LazyRow.from(streamedRows.next());
+                keys = new String[keyColumns.length];
+                for (int i = 0; i < keys.length; ++i) {
+                    keys[i] = streamedRow.get(keyColumns[i]);
+                }
+                hash = hashOf(keys);
+                candidate = heads[hash & (heads.length - 1)];
+                if (type == Type.LEFT && !hasMatch()) {
+                    candidate = 0;
+                    nextRow = joined(streamedRow, null);
+                }
+            }
+            return true;
+        }
+
+        private boolean hasMatch() {
+            for (int row = candidate; row != 0; row = nexts[row - 1]) {
+                if (hashedHashes[row - 1] == hash && Arrays.equals(hashedRowKeys.get(row - 1), keys)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Creates the joined row, with left columns followed by right columns.
+         *
+         * @param streamedRow  Streamed row.
+         * @param hashedValues Values of matching hashed row, or <code>null</code> if there is no match.
+         */
+        private Iterable<String> joined(final LazyRow streamedRow, final Object[] hashedValues) {
+            if (hashedLeft) {
+                return new LazyRow(columnsCount, column -> (column < leftCount) ? hashedValues[column] : valueOf(streamedRow, column - leftCount));
+            }
+            return new LazyRow(columnsCount, column -> {
+                if (column < leftCount) {
+                    return valueOf(streamedRow, column);
+                }
+                return (hashedValues == null) ? null : hashedValues[column - leftCount];
+            });
+        }
+
+        @Override
+        public Iterable<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Iterable<String> row = nextRow;
+            nextRow = null;
+            return row;
+        }
+
+        /**
+         * Closes the streamed rows iterator.
+         */
+        @Override
+        public void close() {
+            ITableSource.close(streamedRows);
+        }
+    }
+}
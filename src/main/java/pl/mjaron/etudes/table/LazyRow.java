@@ -0,0 +1,147 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.mjaron.etudes.IRandomAccess;
+import pl.mjaron.etudes.Str;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Table row which computes each cell on first access and caches it.
+ * <p>
+ * Cells never accessed by the downstream stages, e.g. not selected columns, are never computed, so their expensive
+ * {@link Object#toString()} is not called. Raw cell values are available with {@link #getValue(int)}.
+ *
+ * @since 0.3.0
+ */
+public class LazyRow implements Iterable<String>, IRandomAccess<String> {
+
+    private static final Object NOT_COMPUTED = new Object();
+
+    private final IntFunction<Object> valueSupplier;
+
+    private final Object[] values;
+
+    private final String[] strings;
+
+    /**
+     * Creates the row.
+     *
+     * @param size          Count of cells.
+     * @param valueSupplier Computes the raw value of the cell with given index. Called at most once per cell.
+     * @since 0.3.0
+     */
+    public LazyRow(final int size, @NotNull final IntFunction<Object> valueSupplier) {
+        this.valueSupplier = valueSupplier;
+        this.values = new Object[size];
+        this.strings = new String[size];
+        Arrays.fill(values, NOT_COMPUTED);
+    }
+
+    /**
+     * Converts the source row to {@link LazyRow}. Rows of other types may be views valid only until the next row is
+     * read, so their cells are copied.
+     *
+     * @param row Source row.
+     * @return Given row if it is a {@link LazyRow}, otherwise the row with copied cells.
+     * @since 0.3.0
+     */
+    @NotNull
+    static LazyRow from(@NotNull final Iterable<String> row) {
+        if (row instanceof LazyRow) {
+            return (LazyRow) row;
+        }
+        final List<String> list = new ArrayList<>();
+        for (final String cell : row) {
+            list.add(cell);
+        }
+        final String[] cells = list.toArray(new String[0]);
+        return new LazyRow(cells.length, column -> cells[column]);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Provides the raw cell value, computing it if necessary.
+     *
+     * @param position Cell index counting from <code>0</code>.
+     * @return Raw cell value, may be <code>null</code>.
+     * @since 0.3.0
+     */
+    @Nullable
+    public Object getValue(final int position) {
+        Object value = values[position];
+        if (value == NOT_COMPUTED) {
+            value = valueSupplier.apply(position);
+            values[position] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Provides the cell {@link String}, converting the raw value if necessary.
+     *
+     * @param position Cell index counting from <code>0</code>.
+     * @return Cell {@link String}, empty if the value is <code>null</code>.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public String get(final int position) {
+        String string = strings[position];
+        if (string == null) {
+            string = Str.orEmpty(getValue(position));
+            strings[position] = string;
+        }
+        return string;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < values.length;
+            }
+
+            @Override
+            public String next() {
+                if (position >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return get(position++);
+            }
+        };
+    }
+}
@@ -59,13 +59,42 @@ public class ManipulatingTableSource implements ITableSource {
 
     @Override
     public Iterator<Iterable<String>> iterator() {
+        if (isIdentity(columnOrder, underlyingSource.getColumnsCount())) {
+            return underlyingSource.iterator();
+        }
         return new ManipulatingTableSourceIterator(underlyingSource, columnOrder);
     }
 
+    /**
+     * Tells whether given column order selects all source columns in the original order. Then the source rows are
+     * used directly, only the column names are changed.
+     *
+     * @param columnOrder        Selected source columns.
+     * @param sourceColumnsCount Source columns count.
+     * @return <code>true</code> if the column order doesn't change the rows.
+     * @since 0.3.0
+     */
+    static boolean isIdentity(final ArrayList<Integer> columnOrder, final int sourceColumnsCount) {
+        if (columnOrder.size() != sourceColumnsCount) {
+            return false;
+        }
+        for (int i = 0; i < sourceColumnsCount; ++i) {
+            if (columnOrder.get(i) != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean hasHeaders() {
         return underlyingSource.hasHeaders();
     }
+
+    @Override
+    public boolean prefersSinglePass() {
+        return underlyingSource.prefersSinglePass();
+    }
 }
 
 class ManipulatingTableSourceRow implements Iterable<String> {
@@ -101,7 +130,7 @@ class ManipulatingTableSourceRow implements Iterable<String> {
     }
 }
 
-class ManipulatingTableSourceIterator implements Iterator<Iterable<String>> {
+class ManipulatingTableSourceIterator implements Iterator<Iterable<String>>, AutoCloseable {
 
     private final ArrayList<Integer> columnOrder;
     private final Iterator<Iterable<String>> underlyingIterator;
@@ -130,6 +159,14 @@ class ManipulatingTableSourceIterator implements Iterator<Iterable<String>> {
     public Iterable<String> next() {
         return new ManipulatingTableSourceRow(columnOrder, underlyingIterator.next());
     }
+
+    /**
+     * Closes the underlying rows iterator.
+     */
+    @Override
+    public void close() {
+        ITableSource.close(underlyingIterator);
+    }
 }
 
 interface IColumnNameGenerator {
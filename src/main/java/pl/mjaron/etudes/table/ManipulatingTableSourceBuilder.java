@@ -42,6 +42,60 @@ public class ManipulatingTableSourceBuilder {
     private IRandomIterator<String> headers = null;
     private boolean allColumns = true;
 
+    /**
+     * Rows filtering, ordering and limiting, applied before the columns selection.
+     *
+     * @since 0.3.0
+     */
+    private final TableQuery query = new TableQuery();
+
+    /**
+     * Provides the query applied to the underlying source rows.
+     *
+     * @return Query instance, empty by default.
+     * @since 0.3.0
+     */
+    public TableQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * First rendered row of the page, or <code>-1</code> when the page is not set.
+     *
+     * @since 0.3.0
+     */
+    private long pageFromRow = -1;
+
+    private long pageSize = 0;
+
+    /**
+     * Renders only given page of rows, after the query is applied.
+     *
+     * @param pageIndex Page index, counting from <code>0</code>.
+     * @param pageSize  Count of rows per page.
+     * @since 0.3.0
+     */
+    public void setPage(final long pageIndex, final long pageSize) {
+        if (pageIndex < 0 || pageSize < 1) {
+            throw new IllegalArgumentException("Invalid page: index: " + pageIndex + ", size: " + pageSize + ".");
+        }
+        if (pageIndex > Long.MAX_VALUE / pageSize) {
+            throw new IllegalArgumentException("Page index out of range: index: " + pageIndex + ", size: " + pageSize + ".");
+        }
+        this.pageFromRow = pageIndex * pageSize;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Renders all rows.
+     *
+     * @since 0.3.0
+     */
+    public void clearPage() {
+        this.pageFromRow = -1;
+        this.pageSize = 0;
+    }
+
     public ITableSource getUnderlyingSource() {
         return this.underlyingSource;
     }
@@ -71,35 +125,93 @@ public class ManipulatingTableSourceBuilder {
     public void selectColumns() {
         // For each requested column.
         for (final Pair<String, String> entry : columnSelector.getEntries()) {
-            headers.setFloorPosition();
-
-            // Find related column in table.
-            final IRandomIterator<String> entryIt = Container.find(headers, entry.getKey());
-            if (entryIt == null) {
-                throw new IllegalArgumentException("Cannot resolve column name for requested column: [" + entry + "]: Given column name not found. All column identifiers: " + Str.join(underlyingSource.getHeaders(), ", "));
+            final ComputedColumn computed = columnSelector.getComputedColumn(entry);
+            if (computed != null) {
+                finalColumns.add(computedEntry(entry, computed));
+                continue;
             }
             ColumnEntry columnEntry = new ColumnEntry();
-            columnEntry.sourceColumnIndex = entryIt.getPosition();
-            columnEntry.sourceColumnName = entryIt.getCurrent();
+            columnEntry.sourceColumnIndex = resolveColumn(entry.getKey(), entry);
+            columnEntry.sourceColumnName = entry.getKey();
             columnEntry.columnNameAlias = entry.getValue();
             finalColumns.add(columnEntry);
         }
     }
 
+    /**
+     * Finds the underlying source column with given name.
+     *
+     * @param name      Column name.
+     * @param requested Requested column, used in the error message.
+     * @return Column index.
+     * @since 0.3.0
+     */
+    private int resolveColumn(final String name, final Object requested) {
+        headers.setFloorPosition();
+
+        // Find related column in table.
+        final IRandomIterator<String> entryIt = Container.find(headers, name);
+        if (entryIt == null) {
+            throw new IllegalArgumentException("Cannot resolve column name for requested column: [" + requested + "]: Given column name not found. All column identifiers: " + Str.join(underlyingSource.getHeaders(), ", "));
+        }
+        return entryIt.getPosition();
+    }
+
+    private static ColumnEntry computedEntry(final Pair<String, String> entry, final ComputedColumn computed) {
+        ColumnEntry columnEntry = new ColumnEntry();
+        columnEntry.sourceColumnName = entry.getKey();
+        columnEntry.columnNameAlias = entry.getValue();
+        columnEntry.computed = computed;
+        return columnEntry;
+    }
+
     /**
      * Selects all columns even if some of them are not described by {@link ColumnSelector}.
      * <p>
-     * Uses the original source columns order.
+     * Uses the original source columns order. Computed column named like the source column replaces it in place, other
+     * computed columns are appended.
      */
     public void selectAllColumns() {
+        final List<Pair<String, String>> computedEntries = new ArrayList<>();
+        for (final Pair<String, String> entry : columnSelector.getEntries()) {
+            if (columnSelector.getComputedColumn(entry) != null) {
+                computedEntries.add(entry);
+            }
+        }
         headers.setFloorPosition();
         while (headers.hasNext()) {
+            final String header = headers.next();
+            final Pair<String, String> computedEntry = removeEntry(computedEntries, header);
+            if (computedEntry != null) {
+                finalColumns.add(computedEntry(computedEntry, columnSelector.getComputedColumn(computedEntry)));
+                continue;
+            }
             ColumnEntry columnEntry = new ColumnEntry();
-            columnEntry.sourceColumnName = headers.next();
+            columnEntry.sourceColumnName = header;
             columnEntry.sourceColumnIndex = headers.getPosition();
             columnEntry.columnNameAlias = columnSelector.getColumnAlias(columnEntry.sourceColumnName);
             finalColumns.add(columnEntry);
         }
+        for (final Pair<String, String> entry : computedEntries) {
+            finalColumns.add(computedEntry(entry, columnSelector.getComputedColumn(entry)));
+        }
+    }
+
+    /**
+     * Removes the first entry of given column name.
+     *
+     * @param entries Column selector entries.
+     * @param name    Column name.
+     * @return Removed entry or <code>null</code> if not found.
+     * @since 0.3.0
+     */
+    private static Pair<String, String> removeEntry(final List<Pair<String, String>> entries, final String name) {
+        for (int i = 0; i < entries.size(); ++i) {
+            if (entries.get(i).getKey().equals(name)) {
+                return entries.remove(i);
+            }
+        }
+        return null;
     }
 
     /**
@@ -140,9 +252,28 @@ public class ManipulatingTableSourceBuilder {
     }
 
     public ITableSource build() {
+        return build(true);
+    }
+
+    /**
+     * Builds the source of all rows, ignoring the page. Used to compute the whole table column widths.
+     *
+     * @return Source with the query and columns selection applied.
+     * @since 0.3.0
+     */
+    public ITableSource buildWithoutPage() {
+        return build(false);
+    }
+
+    private ITableSource build(final boolean paged) {
+        finalColumns.clear();
+        ITableSource source = query.isEmpty() ? underlyingSource : new QueryTableSource(underlyingSource, query);
+        if (paged && pageFromRow >= 0) {
+            source = (source instanceof ISliceableTableSource) ? ((ISliceableTableSource) source).slice(pageFromRow, pageSize) : new SlicedTableSource(source, pageFromRow, pageSize);
+        }
         if (finalColumns.isEmpty()) {
             if (columnSelector == null) {
-                return underlyingSource;
+                return source;
             }
         }
 
@@ -153,13 +284,101 @@ public class ManipulatingTableSourceBuilder {
         }
         determineMissingColumnNameAliases();
 
+        for (ColumnEntry columnEntry : finalColumns) {
+            if (columnEntry.computed != null) {
+                return buildComputed(source);
+            }
+        }
+
         ArrayList<Integer> columnOrder = new ArrayList<>(finalColumns.size());
         ArrayList<String> columnNames = new ArrayList<>(finalColumns.size());
         for (ColumnEntry columnEntry : finalColumns) {
             columnOrder.add(columnEntry.sourceColumnIndex);
             columnNames.add(columnEntry.columnNameAlias);
         }
-        return new ManipulatingTableSource(underlyingSource, columnOrder, columnNames);
+
+        if (source instanceof IProjectableTableSource && !ManipulatingTableSource.isIdentity(columnOrder, source.getColumnsCount())) {
+            return new ManipulatingTableSource(project((IProjectableTableSource) source, columnOrder), identity(columnOrder.size()), columnNames);
+        }
+        return new ManipulatingTableSource(source, columnOrder, columnNames);
+    }
+
+    /**
+     * Builds the source with computed columns. Only the selected source columns and the computed columns inputs are
+     * read from the source, pushing them down when the source is projectable.
+     *
+     * @param source Source of the query results.
+     * @return Source of selected columns.
+     * @since 0.3.0
+     */
+    private ITableSource buildComputed(final ITableSource source) {
+        final ArrayList<Integer> readColumns = new ArrayList<>();
+        final List<int[]> inputs = new ArrayList<>();
+        for (ColumnEntry columnEntry : finalColumns) {
+            if (columnEntry.computed == null) {
+                if (!readColumns.contains(columnEntry.sourceColumnIndex)) {
+                    readColumns.add(columnEntry.sourceColumnIndex);
+                }
+                continue;
+            }
+            final int[] columnInputs = new int[columnEntry.computed.inputs.size()];
+            for (int i = 0; i < columnInputs.length; ++i) {
+                columnInputs[i] = resolveColumn(columnEntry.computed.inputs.get(i), columnEntry.sourceColumnName + " <- " + columnEntry.computed.inputs.get(i));
+                if (!readColumns.contains(columnInputs[i])) {
+                    readColumns.add(columnInputs[i]);
+                }
+            }
+            inputs.add(columnInputs);
+        }
+
+        final boolean projected = source instanceof IProjectableTableSource && !ManipulatingTableSource.isIdentity(readColumns, source.getColumnsCount());
+        final ITableSource base = projected ? project((IProjectableTableSource) source, readColumns) : source;
+
+        final List<String> computedNames = new ArrayList<>();
+        final List<ComputedColumn> computedColumns = new ArrayList<>();
+        final int[][] computedInputs = new int[inputs.size()][];
+        ArrayList<Integer> columnOrder = new ArrayList<>(finalColumns.size());
+        ArrayList<String> columnNames = new ArrayList<>(finalColumns.size());
+        for (ColumnEntry columnEntry : finalColumns) {
+            if (columnEntry.computed == null) {
+                columnOrder.add(projected ? readColumns.indexOf(columnEntry.sourceColumnIndex) : columnEntry.sourceColumnIndex);
+            } else {
+                final int[] columnInputs = inputs.get(computedColumns.size());
+                for (int i = 0; projected && i < columnInputs.length; ++i) {
+                    columnInputs[i] = readColumns.indexOf(columnInputs[i]);
+                }
+                computedInputs[computedColumns.size()] = columnInputs;
+                columnOrder.add(base.getColumnsCount() + computedColumns.size());
+                computedNames.add(columnEntry.sourceColumnName);
+                computedColumns.add(columnEntry.computed);
+            }
+            columnNames.add(columnEntry.columnNameAlias);
+        }
+        return new ManipulatingTableSource(new ComputingTableSource(base, computedNames, computedColumns, computedInputs), columnOrder, columnNames);
+    }
+
+    /**
+     * Pushes the selected columns down to the source, so the not selected cells are not computed.
+     *
+     * @param source      Source supporting the projection.
+     * @param columnOrder Selected source columns.
+     * @return Projected source.
+     * @since 0.3.0
+     */
+    private static ITableSource project(final IProjectableTableSource source, final List<Integer> columnOrder) {
+        final int[] columns = new int[columnOrder.size()];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = columnOrder.get(i);
+        }
+        return source.project(columns);
+    }
+
+    private static ArrayList<Integer> identity(final int size) {
+        final ArrayList<Integer> columnOrder = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            columnOrder.add(i);
+        }
+        return columnOrder;
     }
 
     /**
@@ -172,5 +391,12 @@ public class ManipulatingTableSourceBuilder {
         String sourceColumnName = null;
 
         String columnNameAlias = null;
+
+        /**
+         * Set when the column is computed, then {@link #sourceColumnIndex} is not used.
+         *
+         * @since 0.3.0
+         */
+        ComputedColumn computed = null;
     }
 }
@@ -0,0 +1,511 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.mjaron.etudes.IRandomAccess;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the Markdown pipe table, e.g. written by {@link MarkdownTableWriter}, from a text document:
+ * <pre>{@code
+ *     MarkdownTableSource table = MarkdownTableSource.parse(document);
+ *     RenderContext context = Table.render(table).markdown();
+ *     table.applyVerticalAligns(context);
+ *     String updated = document.substring(0, table.getBegin()) + context.runToString() + document.substring(table.getEnd());
+ * }</pre>
+ * The table consists of the header line, the divider line with optional alignment markers and the rows, until a blank
+ * line or a line without {@code '|'}. The parser keeps only the cell bounds in the document, cell values are trimmed
+ * and un-escaped only when requested. Numeric character references like {@code &#124;}, used by
+ * {@link MarkdownEscaper}, and backslash-escaped pipes are un-escaped.
+ * <p>
+ * Rows with fewer cells than the header are padded with empty cells, exceeding cells are ignored.
+ *
+ * @since 0.3.0
+ */
+public class MarkdownTableSource implements IRandomAccessTableSource {
+
+    private final CharSequence text;
+
+    private final int begin;
+
+    private final int end;
+
+    private final int columnsCount;
+
+    private final VerticalAlign[] aligns;
+
+    /**
+     * Begin and end offsets of each cell, header cells first. Missing cells have both bounds set to <code>-1</code>.
+     */
+    private final int[] bounds;
+
+    private final int rowsCount;
+
+    private MarkdownTableSource(final CharSequence text, final int begin, final int end, final VerticalAlign[] aligns, final int[] bounds, final int rowsCount) {
+        this.text = text;
+        this.begin = begin;
+        this.end = end;
+        this.columnsCount = aligns.length;
+        this.aligns = aligns;
+        this.bounds = bounds;
+        this.rowsCount = rowsCount;
+    }
+
+    /**
+     * Parses the first table of given text.
+     *
+     * @param text Markdown document. It must not be modified while the source is used.
+     * @return Parsed table.
+     * @throws IllegalArgumentException When no table is found.
+     * @since 0.3.0
+     */
+    @NotNull
+    public static MarkdownTableSource parse(@NotNull final CharSequence text) {
+        final MarkdownTableSource table = find(text, 0);
+        if (table == null) {
+            throw new IllegalArgumentException("Markdown table not found.");
+        }
+        return table;
+    }
+
+    /**
+     * Finds and parses the first table beginning at or after given offset.
+     *
+     * @param text Markdown document. It must not be modified while the source is used.
+     * @param from Offset of the line where the search begins.
+     * @return Parsed table or <code>null</code> if not found.
+     * @since 0.3.0
+     */
+    @Nullable
+    public static MarkdownTableSource find(@NotNull final CharSequence text, final int from) {
+        int headerLine = from;
+        while (headerLine < text.length()) {
+            final int headerLineEnd = lineEnd(text, headerLine);
+            final int dividerLine = nextLine(text, headerLineEnd);
+            if (dividerLine < text.length()) {
+                final int dividerLineEnd = lineEnd(text, dividerLine);
+                final VerticalAlign[] aligns = parseDivider(text, dividerLine, dividerLineEnd);
+                if (aligns != null && countCells(text, headerLine, headerLineEnd) == aligns.length) {
+                    return parseTable(text, headerLine, headerLineEnd, dividerLineEnd, aligns);
+                }
+            }
+            headerLine = nextLine(text, headerLineEnd);
+        }
+        return null;
+    }
+
+    /**
+     * Provides the offset of the table first character in the document.
+     *
+     * @return Offset of the header line.
+     * @since 0.3.0
+     */
+    public int getBegin() {
+        return begin;
+    }
+
+    /**
+     * Provides the offset following the table in the document, including the last line break.
+     *
+     * @return Offset after the last table line.
+     * @since 0.3.0
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Provides count of data rows, not including the header.
+     *
+     * @return Count of data rows.
+     * @since 0.3.0
+     */
+    @Override
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    @Override
+    public String getValue(final int row, final int column) {
+        return getRow(row).get(column);
+    }
+
+    /**
+     * Provides the column alignment recovered from the divider line.
+     *
+     * @param column Column index.
+     * @return Column alignment or <code>null</code> if the divider has no alignment markers.
+     * @since 0.3.0
+     */
+    @Nullable
+    public VerticalAlign getVerticalAlign(final int column) {
+        return aligns[column];
+    }
+
+    /**
+     * Sets the recovered column alignments to given context, so the table is rendered with the same alignment.
+     *
+     * @param context Render context.
+     * @since 0.3.0
+     */
+    public void applyVerticalAligns(@NotNull final RenderContext context) {
+        for (int i = 0; i < columnsCount; ++i) {
+            context.withAlign(i, aligns[i]);
+        }
+    }
+
+    /**
+     * Provides the lightweight view of given data row.
+     *
+     * @param row Data row index, counting from <code>0</code>.
+     * @return Row view.
+     * @since 0.3.0
+     */
+    @NotNull
+    public Row getRow(final int row) {
+        if (row < 0 || row >= rowsCount) {
+            throw new IndexOutOfBoundsException("Row index: " + row + ", rows count: " + rowsCount + ".");
+        }
+        return new Row(row + 1);
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return columnsCount;
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        return new Row(0);
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return true;
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        return new Iterator<Iterable<String>>() {
+            int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < rowsCount;
+            }
+
+            @Override
+            public Iterable<String> next() {
+                if (row >= rowsCount) {
+                    throw new NoSuchElementException();
+                }
+                return new Row(++row);
+            }
+        };
+    }
+
+    /**
+     * View of the table line. Cell values are created on request.
+     *
+     * @since 0.3.0
+     */
+    public class Row implements Iterable<String>, IRandomAccess<String> {
+
+        private final int line;
+
+        private Row(final int line) {
+            this.line = line;
+        }
+
+        @Override
+        public int size() {
+            return columnsCount;
+        }
+
+        /**
+         * Creates trimmed and un-escaped cell value.
+         *
+         * @param position Cell index counting from <code>0</code>.
+         * @return Cell value.
+         * @since 0.3.0
+         */
+        @NotNull
+        @Override
+        public String get(final int position) {
+            if (position < 0 || position >= columnsCount) {
+                throw new IndexOutOfBoundsException("Cell index: " + position + ", columns count: " + columnsCount + ".");
+            }
+            final int cell = (line * columnsCount + position) * 2;
+            if (bounds[cell] < 0) {
+                return "";
+            }
+            return unescape(text, bounds[cell], bounds[cell + 1]);
+        }
+
+        /**
+         * Provides the offset of the raw cell content in the document.
+         *
+         * @param position Cell index counting from <code>0</code>.
+         * @return Offset of the first trimmed cell character or <code>-1</code> if the cell is missing.
+         * @since 0.3.0
+         */
+        public int getBegin(final int position) {
+            return bounds[(line * columnsCount + position) * 2];
+        }
+
+        /**
+         * Provides the offset following the raw cell content in the document.
+         *
+         * @param position Cell index counting from <code>0</code>.
+         * @return Offset after the last trimmed cell character or <code>-1</code> if the cell is missing.
+         * @since 0.3.0
+         */
+        public int getEnd(final int position) {
+            return bounds[(line * columnsCount + position) * 2 + 1];
+        }
+
+        @NotNull
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                int position = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return position < columnsCount;
+                }
+
+                @Override
+                public String next() {
+                    if (position >= columnsCount) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(position++);
+                }
+            };
+        }
+    }
+
+    private static MarkdownTableSource parseTable(final CharSequence text, final int headerLine, final int headerLineEnd, final int dividerLineEnd, final VerticalAlign[] aligns) {
+        final int columns = aligns.length;
+        int[] bounds = new int[columns * 2 * 16];
+        splitCells(text, headerLine, headerLineEnd, bounds, 0, columns);
+        int rows = 0;
+        int tableEnd = nextLine(text, dividerLineEnd);
+        int line = tableEnd;
+        while (line < text.length()) {
+            final int lineEnd = lineEnd(text, line);
+            if (isBlank(text, line, lineEnd) || !contains(text, line, lineEnd, '|')) {
+                break;
+            }
+            ++rows;
+            if ((rows + 1) * columns * 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            splitCells(text, line, lineEnd, bounds, rows * columns * 2, columns);
+            line = nextLine(text, lineEnd);
+            tableEnd = line;
+        }
+        return new MarkdownTableSource(text, headerLine, tableEnd, aligns, bounds, rows);
+    }
+
+    /**
+     * Stores trimmed bounds of given count of cells of the line.
+     */
+    private static void splitCells(final CharSequence text, final int lineBegin, final int lineEnd, final int[] bounds, final int offset, final int columns) {
+        int p = skipSpaces(text, lineBegin, lineEnd);
+        if (p < lineEnd && text.charAt(p) == '|') {
+            ++p;
+        }
+        final int contentEnd = trimmedEnd(text, lineBegin, lineEnd);
+        int column = 0;
+        while (column < columns && p < contentEnd) {
+            int cellEnd = p;
+            while (cellEnd < contentEnd && !isDelimiter(text, cellEnd)) {
+                ++cellEnd;
+            }
+            final int trimmedBegin = skipSpaces(text, p, cellEnd);
+            bounds[offset + column * 2] = trimmedBegin;
+            bounds[offset + column * 2 + 1] = trimmedEnd(text, trimmedBegin, cellEnd);
+            ++column;
+            p = cellEnd + 1;
+        }
+        for (; column < columns; ++column) {
+            bounds[offset + column * 2] = -1;
+            bounds[offset + column * 2 + 1] = -1;
+        }
+    }
+
+    private static int countCells(final CharSequence text, final int lineBegin, final int lineEnd) {
+        if (!contains(text, lineBegin, lineEnd, '|')) {
+            return 0;
+        }
+        int p = skipSpaces(text, lineBegin, lineEnd);
+        if (p < lineEnd && text.charAt(p) == '|') {
+            ++p;
+        }
+        final int contentEnd = trimmedEnd(text, lineBegin, lineEnd);
+        int count = 0;
+        while (p < contentEnd) {
+            while (p < contentEnd && !isDelimiter(text, p)) {
+                ++p;
+            }
+            ++count;
+            ++p;
+        }
+        return count;
+    }
+
+    /**
+     * Parses the divider line like {@code |:---|---:|:---:|---|}.
+     *
+     * @return Column alignments or <code>null</code> if given line is not a divider.
+     */
+    private static VerticalAlign[] parseDivider(final CharSequence text, final int lineBegin, final int lineEnd) {
+        final int count = countCells(text, lineBegin, lineEnd);
+        if (count == 0) {
+            return null;
+        }
+        final int[] bounds = new int[count * 2];
+        splitCells(text, lineBegin, lineEnd, bounds, 0, count);
+        final VerticalAlign[] aligns = new VerticalAlign[count];
+        for (int i = 0; i < count; ++i) {
+            int b = bounds[i * 2];
+            int e = bounds[i * 2 + 1];
+            final boolean left = b < e && text.charAt(b) == ':';
+            if (left) {
+                ++b;
+            }
+            final boolean right = b < e && text.charAt(e - 1) == ':';
+            if (right) {
+                --e;
+            }
+            if (b == e) {
+                return null;
+            }
+            for (int p = b; p < e; ++p) {
+                if (text.charAt(p) != '-') {
+                    return null;
+                }
+            }
+            aligns[i] = left ? (right ? VerticalAlign.Center : VerticalAlign.Left) : (right ? VerticalAlign.Right : null);
+        }
+        return aligns;
+    }
+
+    /**
+     * Un-escapes numeric character references and backslash-escaped pipes.
+     */
+    private static String unescape(final CharSequence text, final int begin, final int end) {
+        int p = begin;
+        while (p < end && text.charAt(p) != '&' && text.charAt(p) != '\\') {
+            ++p;
+        }
+        if (p == end) {
+            return text.subSequence(begin, end).toString();
+        }
+        final StringBuilder out = new StringBuilder(end - begin);
+        out.append(text, begin, p);
+        while (p < end) {
+            final char ch = text.charAt(p);
+            if (ch == '\\' && p + 1 < end && text.charAt(p + 1) == '|') {
+                out.append('|');
+                p += 2;
+            } else if (ch == '&' && p + 2 < end && text.charAt(p + 1) == '#') {
+                final boolean hex = text.charAt(p + 2) == 'x' || text.charAt(p + 2) == 'X';
+                int q = hex ? p + 3 : p + 2;
+                final int digitsBegin = q;
+                int codePoint = 0;
+                while (q < end && q - digitsBegin < 7) {
+                    final int digit = Character.digit(text.charAt(q), hex ? 16 : 10);
+                    if (digit < 0) {
+                        break;
+                    }
+                    codePoint = codePoint * (hex ? 16 : 10) + digit;
+                    ++q;
+                }
+                if (q > digitsBegin && q < end && text.charAt(q) == ';' && Character.isValidCodePoint(codePoint)) {
+                    out.appendCodePoint(codePoint);
+                    p = q + 1;
+                } else {
+                    out.append(ch);
+                    ++p;
+                }
+            } else {
+                out.append(ch);
+                ++p;
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isDelimiter(final CharSequence text, final int p) {
+        return text.charAt(p) == '|' && (p == 0 || text.charAt(p - 1) != '\\');
+    }
+
+    private static int lineEnd(final CharSequence text, int p) {
+        while (p < text.length() && text.charAt(p) != '\n' && text.charAt(p) != '\r') {
+            ++p;
+        }
+        return p;
+    }
+
+    private static int nextLine(final CharSequence text, final int lineEnd) {
+        if (lineEnd >= text.length()) {
+            return text.length();
+        }
+        if (text.charAt(lineEnd) == '\r' && lineEnd + 1 < text.length() && text.charAt(lineEnd + 1) == '\n') {
+            return lineEnd + 2;
+        }
+        return lineEnd + 1;
+    }
+
+    private static int skipSpaces(final CharSequence text, int p, final int end) {
+        while (p < end && (text.charAt(p) == ' ' || text.charAt(p) == '\t')) {
+            ++p;
+        }
+        return p;
+    }
+
+    private static int trimmedEnd(final CharSequence text, final int begin, int end) {
+        while (end > begin && (text.charAt(end - 1) == ' ' || text.charAt(end - 1) == '\t')) {
+            --end;
+        }
+        return end;
+    }
+
+    private static boolean isBlank(final CharSequence text, final int begin, final int end) {
+        return skipSpaces(text, begin, end) == end;
+    }
+
+    private static boolean contains(final CharSequence text, final int begin, final int end, final char what) {
+        for (int p = begin; p < end; ++p) {
+            if (text.charAt(p) == what) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -19,6 +19,7 @@
 
 package pl.mjaron.etudes.table;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.Pair;
 import pl.mjaron.etudes.Str;
 
@@ -58,7 +59,7 @@ public class MarkdownTableWriter implements ITableWriter {
         if (verticalAlign == VerticalAlign.Left) {
             return new Pair<>(":", "-");
         }
-        if (verticalAlign == VerticalAlign.Right) {
+        if (verticalAlign == VerticalAlign.Right || verticalAlign == VerticalAlign.Decimal) {
             return new Pair<>("-", ":");
         }
         if (verticalAlign == VerticalAlign.Center) {
@@ -103,8 +104,41 @@ public class MarkdownTableWriter implements ITableWriter {
 
     @Override
     public void writeCell(final String what) {
+        final int[] widths = runtime.getContext().getColumnWidthResolver().getWidths();
+        final int column = runtime.getColumnIdx();
+        writeCell(what, (widths == null) ? -1 : widths[column], runtime.getVerticalAlign(column));
+    }
+
+    /**
+     * Writes the cell of current column.
+     *
+     * @param what  Escaped cell text.
+     * @param width Column width or negative value if the cells are not padded.
+     * @param align Column align.
+     * @since 0.3.0
+     */
+    private void writeCell(final String what, final int width, final VerticalAlign align) {
         runtime.append("| ");
-        runtime.appendPadded(what, ' ');
+        if (width < 0) {
+            runtime.append(what);
+        } else {
+            runtime.appendPadded(what, width, align, ' ');
+        }
         runtime.append(' ');
     }
+
+    /**
+     * Writes the row cells, reading the column widths and aligns once per row.
+     */
+    @Override
+    public void writeRow(@NotNull final RenderRuntime runtime, @NotNull final IEscaper escaper, @NotNull final String[] cells, final int count) {
+        final boolean escaping = IEscaper.isEscaping(escaper);
+        final int[] widths = runtime.getContext().getColumnWidthResolver().getWidths();
+        final VerticalAlign[] aligns = runtime.getColumnAligns();
+        runtime.resetColumn();
+        for (int i = 0; i < count; ++i) {
+            writeCell(escaping ? escaper.escape(cells[i]) : cells[i], (widths == null) ? -1 : widths[i], (i < aligns.length) ? aligns[i] : runtime.getVerticalAlign(i));
+            runtime.nextColumn();
+        }
+    }
 }
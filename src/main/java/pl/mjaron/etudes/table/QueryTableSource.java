@@ -0,0 +1,572 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.IO;
+import pl.mjaron.etudes.IRandomAccess;
+import pl.mjaron.etudes.Pair;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Applies {@link TableQuery} to the source rows. Rows are pulled lazily from the source:
+ * <ul>
+ *     <li>Without ordering, rows are filtered and limited while iterated.</li>
+ *     <li>Ordering with the limit keeps only <code>offset + limit</code> best rows in a bounded heap (top-K), when
+ *     they fit in {@link TableQuery#getMaxInMemoryRows()}.</li>
+ *     <li>Other ordering sorts up to {@link TableQuery#getMaxInMemoryRows()} rows in memory. Larger tables are sorted
+ *     with external merge sort: sorted runs are written to temporary files and merged.</li>
+ * </ul>
+ * Rows ordered in memory are cached, so next iterations don't filter and sort the source again. Iterators are
+ * {@link AutoCloseable}, see {@link ITableSource#close(Iterator)}. Rows are provided as {@link LazyRow}, so the cells
+ * not used by the query nor by the consumer are not computed.
+ *
+ * @since 0.3.0
+ */
+public class QueryTableSource implements IProjectableTableSource, ISliceableTableSource {
+
+    private final ITableSource source;
+
+    private final TableQuery query;
+
+    /**
+     * Source columns used by the predicates, resolved from the query column names.
+     */
+    private final int[] predicateColumns;
+
+    private final int[] sortColumns;
+
+    /**
+     * Source columns provided by this source.
+     */
+    private final int[] outputColumns;
+
+    /**
+     * Rows ordered in memory, before applying the offset and limit, or <code>null</code> if not ordered yet.
+     */
+    private List<LazyRow> orderedRows = null;
+
+    public QueryTableSource(@NotNull final ITableSource source, @NotNull final TableQuery query) {
+        this(source, query, null);
+    }
+
+    private QueryTableSource(final ITableSource source, final TableQuery query, final int[] outputColumns) {
+        this.source = source;
+        this.query = query;
+        final List<String> headers = new ArrayList<>();
+        if (source.hasHeaders()) {
+            for (final String header : source.getHeaders()) {
+                headers.add(header);
+            }
+        }
+        this.predicateColumns = resolve(headers, query.getColumnPredicates());
+        this.sortColumns = resolve(headers, query.getSortKeys());
+        if (outputColumns == null) {
+            this.outputColumns = new int[source.getColumnsCount()];
+            for (int i = 0; i < this.outputColumns.length; ++i) {
+                this.outputColumns[i] = i;
+            }
+        } else {
+            this.outputColumns = outputColumns;
+        }
+    }
+
+    private static int[] resolve(final List<String> headers, final List<? extends Pair<String, ?>> entries) {
+        final List<String> names = new ArrayList<>(entries.size());
+        for (final Pair<String, ?> entry : entries) {
+            names.add(entry.getKey());
+        }
+        return ColumnNames.resolve(headers, names, "query");
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return outputColumns.length;
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        if (!source.hasHeaders()) {
+            return null;
+        }
+        final IRandomAccess<String> headers = IRandomAccess.from(toList(source.getHeaders()));
+        final List<String> projected = new ArrayList<>(outputColumns.length);
+        for (final int column : outputColumns) {
+            projected.add(headers.get(column));
+        }
+        return projected;
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return source.hasHeaders();
+    }
+
+    /**
+     * Tells whether the rows may be sorted with temporary files, which is repeated for each iteration.
+     *
+     * @return <code>true</code> when the query orders the rows which may not fit in memory.
+     */
+    @Override
+    public boolean prefersSinglePass() {
+        return !query.getSortKeys().isEmpty() && !isTopKInMemory();
+    }
+
+    private boolean isTopKInMemory() {
+        return query.getLimit() >= 0 && query.getOffset() + query.getLimit() <= query.getMaxInMemoryRows();
+    }
+
+    /**
+     * Creates the source providing only given columns of query results. Only projected cells are written to the
+     * temporary files during external sort.
+     *
+     * @param columns Indices of this source columns.
+     * @return Projected query source.
+     */
+    @NotNull
+    @Override
+    public QueryTableSource project(@NotNull final int[] columns) {
+        final int[] projected = new int[columns.length];
+        for (int i = 0; i < columns.length; ++i) {
+            projected[i] = outputColumns[columns[i]];
+        }
+        return new QueryTableSource(source, query, projected);
+    }
+
+    /**
+     * Narrows the query results by updating the query offset and limit, so ordering keeps only the rows up to the end
+     * of the slice in memory.
+     *
+     * @param fromRow   First row of the query results, counting from <code>0</code>.
+     * @param rowsCount Maximal count of rows.
+     * @return Query source providing given range of results.
+     */
+    @NotNull
+    @Override
+    public QueryTableSource slice(final long fromRow, final long rowsCount) {
+        final long limit = (query.getLimit() < 0) ? rowsCount : Math.min(rowsCount, Math.max(0, query.getLimit() - fromRow));
+        return new QueryTableSource(source, query.copy().offset(query.getOffset() + fromRow).limit(limit), outputColumns);
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        return new ResultsIterator(ordered());
+    }
+
+    /**
+     * Provides the rows in the query order, before applying the offset and limit.
+     */
+    private Iterator<LazyRow> ordered() {
+        if (orderedRows != null) {
+            return orderedRows.iterator();
+        }
+        final FilteringIterator filtered = new FilteringIterator(source.iterator());
+        if (query.getSortKeys().isEmpty()) {
+            return filtered;
+        }
+        if (isTopKInMemory()) {
+            orderedRows = topK(filtered, (int) (query.getOffset() + query.getLimit()));
+            return orderedRows.iterator();
+        }
+        return sort(filtered);
+    }
+
+    private static List<String> toList(final Iterable<String> iterable) {
+        final List<String> list = new ArrayList<>();
+        for (final String entry : iterable) {
+            list.add(entry);
+        }
+        return list;
+    }
+
+    private boolean accepts(final LazyRow row) {
+        for (int i = 0; i < predicateColumns.length; ++i) {
+            if (!query.getColumnPredicates().get(i).getValue().test(row.getValue(predicateColumns[i]))) {
+                return false;
+            }
+        }
+        for (final Predicate<LazyRow> predicate : query.getRowPredicates()) {
+            if (!predicate.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compareKeys(final Object[] a, final Object[] b) {
+        for (int i = 0; i < sortColumns.length; ++i) {
+            final int result = query.getSortKeys().get(i).getValue().compare(a[i], b[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private Object[] keysOf(final LazyRow row) {
+        final Object[] keys = new Object[sortColumns.length];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = row.getValue(sortColumns[i]);
+        }
+        return keys;
+    }
+
+    /**
+     * Row with extracted sort keys and the source position, used to keep equal rows in the source order.
+     */
+    private static class SortEntry {
+        final Object[] keys;
+        final long sequence;
+        final LazyRow row;
+
+        SortEntry(final Object[] keys, final long sequence, final LazyRow row) {
+            this.keys = keys;
+            this.sequence = sequence;
+            this.row = row;
+        }
+    }
+
+    private int compareEntries(final SortEntry a, final SortEntry b) {
+        final int result = compareKeys(a.keys, b.keys);
+        return (result != 0) ? result : Long.compare(a.sequence, b.sequence);
+    }
+
+    private List<LazyRow> topK(final Iterator<LazyRow> rows, final int k) {
+        final PriorityQueue<SortEntry> heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), (a, b) -> compareEntries(b, a));
+        try {
+            long sequence = 0;
+            while (k > 0 && rows.hasNext()) {
+                final LazyRow row = rows.next();
+                final SortEntry entry = new SortEntry(keysOf(row), sequence++, row);
+                if (heap.size() < k) {
+                    heap.add(entry);
+                } else if (compareEntries(entry, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+        } finally {
+            ITableSource.close(rows);
+        }
+        final SortEntry[] sorted = heap.toArray(new SortEntry[0]);
+        Arrays.sort(sorted, this::compareEntries);
+        return toRows(Arrays.asList(sorted));
+    }
+
+    private static List<LazyRow> toRows(final List<SortEntry> entries) {
+        final List<LazyRow> rows = new ArrayList<>(entries.size());
+        for (final SortEntry entry : entries) {
+            rows.add(entry.row);
+        }
+        return rows;
+    }
+
+    /**
+     * Sorts the rows in memory and caches them, or sorts them with temporary files if they don't fit in memory.
+     */
+    private Iterator<LazyRow> sort(final Iterator<LazyRow> rows) {
+        final List<SortEntry> buffer = new ArrayList<>();
+        final List<File> runs = new ArrayList<>();
+        long sequence = 0;
+        try {
+            while (rows.hasNext()) {
+                final LazyRow row = rows.next();
+                buffer.add(new SortEntry(keysOf(row), sequence++, row));
+                if (buffer.size() >= query.getMaxInMemoryRows()) {
+                    runs.add(writeRun(buffer));
+                    buffer.clear();
+                }
+            }
+            if (runs.isEmpty()) {
+                buffer.sort(this::compareEntries);
+                orderedRows = toRows(buffer);
+                return orderedRows.iterator();
+            }
+            if (!buffer.isEmpty()) {
+                runs.add(writeRun(buffer));
+            }
+        } catch (final RuntimeException e) {
+            deleteRuns(runs);
+            throw e;
+        } finally {
+            ITableSource.close(rows);
+        }
+        return new MergingIterator(runs);
+    }
+
+    /**
+     * Writes sorted rows: serialized sort keys and raw values of projected cells of each row, so the merged rows provide
+     * the same {@link LazyRow#getValue(int)} as rows sorted in memory. Values which are not {@link Serializable} are
+     * written as their cell text.
+     */
+    private File writeRun(final List<SortEntry> entries) {
+        entries.sort(this::compareEntries);
+        final File file;
+        try {
+            file = Files.createTempFile("etudes-sort-", ".bin").toFile();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to create sort run file.", e);
+        }
+        try (final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO.LARGE_BUFFER_SIZE))) {
+            out.writeInt(entries.size());
+            int written = 0;
+            for (final SortEntry entry : entries) {
+                out.writeObject(entry.keys);
+                final Object[] values = new Object[outputColumns.length];
+                for (int i = 0; i < values.length; ++i) {
+                    final Object value = entry.row.getValue(outputColumns[i]);
+                    values[i] = (value == null || value instanceof Serializable) ? value : entry.row.get(outputColumns[i]);
+                }
+                out.writeObject(values);
+                if (++written % 1024 == 0) {
+                    out.reset();
+                }
+            }
+        } catch (final IOException e) {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+            throw new RuntimeException("Failed to write sort run: Sort keys must be serializable: [" + file.getPath() + "].", e);
+        }
+        return file;
+    }
+
+    private static void deleteRuns(final List<File> runs) {
+        for (final File run : runs) {
+            if (!run.delete()) {
+                run.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Skips the offset and returns at most limit rows. The ordered rows are closed as soon as the limit is reached.
+     */
+    private class ResultsIterator implements Iterator<Iterable<String>>, AutoCloseable {
+
+        private final Iterator<LazyRow> ordered;
+
+        private long skipped = 0;
+
+        private long returned = 0;
+
+        private boolean closed = false;
+
+        ResultsIterator(final Iterator<LazyRow> ordered) {
+            this.ordered = ordered;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (query.getLimit() >= 0 && returned >= query.getLimit()) {
+                close();
+                return false;
+            }
+            while (skipped < query.getOffset() && ordered.hasNext()) {
+                ordered.next();
+                ++skipped;
+            }
+            return ordered.hasNext();
+        }
+
+        @Override
+        public Iterable<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ++returned;
+            final LazyRow row = ordered.next();
+            return new LazyRow(outputColumns.length, column -> row.getValue(outputColumns[column]));
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                ITableSource.close(ordered);
+            }
+        }
+    }
+
+    private class FilteringIterator implements Iterator<LazyRow>, AutoCloseable {
+
+        private final Iterator<Iterable<String>> rows;
+
+        private LazyRow next = null;
+
+        FilteringIterator(final Iterator<Iterable<String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && rows.hasNext()) {
+                final LazyRow row = LazyRow.from(rows.next());
+                if (accepts(row)) {
+                    next = row;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public LazyRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final LazyRow row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            ITableSource.close(rows);
+        }
+    }
+
+    /**
+     * Merges the sorted runs. Equal rows are taken from the earlier run first, so the source order is kept.
+     */
+    private class MergingIterator implements Iterator<LazyRow>, AutoCloseable {
+
+        private final List<File> files;
+
+        private final PriorityQueue<Run> heads;
+
+        /**
+         * Position of the source column in the stored values, or <code>-1</code> if the column is not stored.
+         */
+        private final int[] positions = new int[source.getColumnsCount()];
+
+        private boolean closed = false;
+
+        MergingIterator(final List<File> files) {
+            this.files = files;
+            Arrays.fill(positions, -1);
+            for (int i = 0; i < outputColumns.length; ++i) {
+                positions[outputColumns[i]] = i;
+            }
+            this.heads = new PriorityQueue<>(files.size(), (a, b) -> {
+                final int result = compareKeys(a.keys, b.keys);
+                return (result != 0) ? result : Integer.compare(a.index, b.index);
+            });
+            try {
+                for (int i = 0; i < files.size(); ++i) {
+                    final Run run = new Run(files.get(i), i);
+                    if (run.advance()) {
+                        heads.add(run);
+                    }
+                }
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heads.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public LazyRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Run run = heads.poll();
+            final Object[] values = run.values;
+            if (run.advance()) {
+                heads.add(run);
+            }
+            return new LazyRow(positions.length, column -> (positions[column] < 0) ? null : values[positions[column]]);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (final Run run : heads) {
+                run.close();
+            }
+            deleteRuns(files);
+        }
+    }
+
+    /**
+     * Sequential reader of single sorted run.
+     */
+    private class Run {
+
+        final int index;
+
+        final ObjectInputStream in;
+
+        int remaining;
+
+        Object[] keys;
+
+        Object[] values;
+
+        Run(final File file, final int index) {
+            this.index = index;
+            try {
+                this.in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file), IO.LARGE_BUFFER_SIZE));
+                this.remaining = in.readInt();
+            } catch (final IOException e) {
+                throw new RuntimeException("Failed to read sort run: [" + file.getPath() + "].", e);
+            }
+        }
+
+        boolean advance() {
+            if (remaining == 0) {
+                close();
+                return false;
+            }
+            --remaining;
+            try {
+                keys = (Object[]) in.readObject();
+                values = (Object[]) in.readObject();
+            } catch (final IOException | ClassNotFoundException e) {
+                close();
+                throw new RuntimeException("Failed to read sort run.", e);
+            }
+            return true;
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
+import pl.mjaron.etudes.IO;
 import pl.mjaron.etudes.IPureAppendable;
 import pl.mjaron.etudes.Str;
 import pl.mjaron.etudes.table.property.ColumnOnlyPropertyProvider;
@@ -31,6 +32,8 @@ import java.io.File;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
+import java.util.Comparator;
+import java.util.function.Predicate;
 
 /**
  * Common table rendering options.
@@ -103,6 +106,21 @@ public class RenderContext {
      */
     private String lineBreak = System.lineSeparator();
 
+    /**
+     * Size of the buffer used to spill escaped rows to the temporary file during the width computing stage. When not
+     * positive, the spill mode is disabled.
+     *
+     * @since 0.3.0
+     */
+    private int spillBufferSize = 0;
+
+    /**
+     * Footer row definition or <code>null</code> when the footer is not rendered.
+     *
+     * @since 0.3.0
+     */
+    private TableFooter footer = null;
+
     /**
      * Default constructor. By convention, use {@link #make()} to create the object.
      *
@@ -681,6 +699,145 @@ public class RenderContext {
         return this.withLineBreak(Str.CR);
     }
 
+    /**
+     * Provides size of the buffer used in spill mode.
+     *
+     * @return Spill buffer size or non-positive value if the spill mode is disabled.
+     * @see #withSpill(int)
+     * @since 0.3.0
+     */
+    @Contract(pure = true)
+    public int getSpillBufferSize() {
+        return spillBufferSize;
+    }
+
+    /**
+     * Enables the spill mode with {@link pl.mjaron.etudes.IO#LARGE_BUFFER_SIZE} buffer.
+     *
+     * @return This reference.
+     * @see #withSpill(int)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public RenderContext withSpill() {
+        return withSpill(IO.LARGE_BUFFER_SIZE);
+    }
+
+    /**
+     * Enables the spill mode: when column widths are computed ({@link AlignmentMode#ALIGNED} or
+     * {@link AlignmentMode#EQUAL}), the source rows are iterated only once. Escaped rows are written to the temporary
+     * {@link SpillFile} during width computing and replayed when the table is written.
+     * <p>
+     * Allows rendering aligned tables from sources which can be iterated only once, without loading them to the heap.
+     * The rendered output is the same as without the spill mode.
+     *
+     * @param bufferSize Size of the buffer used to write and read the temporary file. At least
+     *                   {@link SpillFile#MIN_BUFFER_SIZE}.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext withSpill(final int bufferSize) {
+        if (bufferSize < SpillFile.MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Spill buffer size must be at least " + SpillFile.MIN_BUFFER_SIZE + ": " + bufferSize + ".");
+        }
+        this.spillBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Disables the spill mode. Sources are iterated twice when column widths are computed.
+     *
+     * @return This reference.
+     * @see #withSpill(int)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public RenderContext withoutSpill() {
+        this.spillBufferSize = 0;
+        return this;
+    }
+
+    /**
+     * Provides the footer row definition.
+     *
+     * @return Footer definition or <code>null</code> when the footer is not rendered.
+     * @since 0.3.0
+     */
+    @Contract(pure = true)
+    public TableFooter getFooter() {
+        return footer;
+    }
+
+    /**
+     * Sets the footer row, rendered after the table body. Footer aggregates are computed in the same pass over the
+     * rows which computes the column widths or, when widths are not computed, which writes the rows.
+     *
+     * @param footer Footer definition.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext withFooter(@NotNull final TableFooter footer) {
+        this.footer = footer;
+        return this;
+    }
+
+    /**
+     * Adds the aggregate of given column to the footer row.
+     *
+     * @param column    Column index of the rendered table, counting from <code>0</code>.
+     * @param aggregate Aggregate function.
+     * @return This reference.
+     * @see #withFooter(TableFooter)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public RenderContext withAggregate(@Range(from = 0, to = Integer.MAX_VALUE) final int column, @NotNull final Aggregate aggregate) {
+        if (footer == null) {
+            footer = new TableFooter();
+        }
+        footer.withAggregate(column, aggregate);
+        return this;
+    }
+
+    /**
+     * Adds the constant label of given column to the footer row.
+     *
+     * @param column Column index of the rendered table, counting from <code>0</code>.
+     * @param label  Footer cell text.
+     * @return This reference.
+     * @see #withFooter(TableFooter)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public RenderContext withFooterLabel(@Range(from = 0, to = Integer.MAX_VALUE) final int column, @NotNull final String label) {
+        if (footer == null) {
+            footer = new TableFooter();
+        }
+        footer.withLabel(column, label);
+        return this;
+    }
+
+    /**
+     * Disables the footer row.
+     *
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("-> this")
+    public RenderContext withoutFooter() {
+        this.footer = null;
+        return this;
+    }
+
     /**
      * Sets the whole table {@link VerticalAlign}. Overrides particular cells vertical align values, previously set with
      * {@link #withAlign(int, VerticalAlign)}.
@@ -741,6 +898,133 @@ public class RenderContext {
         return this;
     }
 
+    /**
+     * Renders only the rows accepted by given predicate. Rows are filtered lazily, while iterated.
+     *
+     * @param predicate Predicate receiving the row with raw cell values.
+     * @return This reference.
+     * @see TableQuery#where(Predicate)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext where(@NotNull final Predicate<LazyRow> predicate) {
+        getTableSourceBuilder().getQuery().where(predicate);
+        return this;
+    }
+
+    /**
+     * Renders only the rows where the raw value of given source column is accepted by given predicate.
+     *
+     * @param column    Source column name.
+     * @param predicate Predicate receiving the raw cell value.
+     * @param <T>       Expected cell value type.
+     * @return This reference.
+     * @see TableQuery#where(String, Predicate)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public <T> RenderContext where(@NotNull final String column, @NotNull final Predicate<T> predicate) {
+        getTableSourceBuilder().getQuery().where(column, predicate);
+        return this;
+    }
+
+    /**
+     * Orders the rows by the raw values of given source column. Next calls define the secondary keys.
+     *
+     * @param column     Source column name.
+     * @param comparator Comparator of the raw cell values.
+     * @param <T>        Expected cell value type.
+     * @return This reference.
+     * @see TableQuery#orderBy(String, Comparator)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public <T> RenderContext orderBy(@NotNull final String column, @NotNull final Comparator<T> comparator) {
+        getTableSourceBuilder().getQuery().orderBy(column, comparator);
+        return this;
+    }
+
+    /**
+     * Orders the rows by natural order of the raw values of given source column.
+     *
+     * @param column Source column name.
+     * @return This reference.
+     * @see TableQuery#orderBy(String)
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext orderBy(@NotNull final String column) {
+        getTableSourceBuilder().getQuery().orderBy(column);
+        return this;
+    }
+
+    /**
+     * Skips given count of rows, after filtering and ordering.
+     *
+     * @param offset Count of skipped rows.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext offset(final long offset) {
+        getTableSourceBuilder().getQuery().offset(offset);
+        return this;
+    }
+
+    /**
+     * Limits count of rendered rows. With {@link #orderBy(String, Comparator)}, only the best rows are kept in memory.
+     *
+     * @param limit Maximal count of rows.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public RenderContext limit(final long limit) {
+        getTableSourceBuilder().getQuery().limit(limit);
+        return this;
+    }
+
+    /**
+     * Renders only given page of rows, after filtering and ordering. Sources implementing
+     * {@link ISliceableTableSource}, like beans stored in a list or array and indexed {@link CsvTableSource}, provide
+     * the page without iterating the preceding rows.
+     * <p>
+     * Aligned column widths are computed for the rendered page. To keep the same widths on all pages, compute them once
+     * with {@link #computeColumnWidths()} and use {@link #withArbitraryColumnWidths(int[])}.
+     *
+     * @param pageIndex Page index, counting from <code>0</code>.
+     * @param pageSize  Count of rows per page.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public RenderContext page(final long pageIndex, final long pageSize) {
+        getTableSourceBuilder().setPage(pageIndex, pageSize);
+        return this;
+    }
+
+    /**
+     * Computes the maximal widths of escaped cells of the whole table, ignoring {@link #page(long, long)}. Intended to
+     * be computed once and reused for rendering each page.
+     *
+     * @return Column widths of the whole table.
+     * @since 0.3.0
+     */
+    @NotNull
+    public int[] computeColumnWidths() {
+        try (RenderRuntime runtime = new RenderRuntime(this, getTableSourceBuilder().buildWithoutPage(), IPureAppendable.from(new StringBuilder()))) {
+            runtime.getEscaper().beginTable(runtime);
+            return TableColumnsWidthDetector.compute(runtime.getSource(), runtime.getEscaper());
+        }
+    }
+
     /**
      * Use predefined Markdown configuration, shortcut of:
      * <pre>{@code
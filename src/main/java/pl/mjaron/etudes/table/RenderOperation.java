@@ -24,38 +24,77 @@ import pl.mjaron.etudes.Exc;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 
 public abstract class RenderOperation {
 
     public static void execute(final RenderContext context) {
         try (RenderRuntime runtime = new RenderRuntime(context)) {
+            runtime.getEscaper().beginTable(runtime);
             context.getColumnWidthResolver().resolve(runtime);
             final ITableSource source = runtime.getSource();
             final ITableWriter writer = runtime.getWriter();
+            final IEscaper rowEscaper = runtime.getRowEscaper();
+            final FooterAccumulator footer = runtime.getFooterAccumulator();
+            final boolean accumulateFooter = footer != null && !footer.isComplete();
+            // Cells of currently written row, reused by all rows.
+            String[] cells = new String[Math.max(1, runtime.getColumnsCount())];
+            int count;
 
-            runtime.getEscaper().beginTable(runtime);
             writer.beginTable(runtime);
 
             if (runtime.getSource().hasHeaders()) {
                 runtime.setHeaderState(true);
                 writer.beginHeader();
-                runtime.resetColumn();
+                count = 0;
                 for (final String header : source.getHeaders()) {
-                    writer.writeCell(runtime.getEscaper().escape(header));
-                    runtime.nextColumn();
+                    if (count == cells.length) {
+                        cells = Arrays.copyOf(cells, count * 2);
+                    }
+                    cells[count++] = header;
                 }
+                writer.writeRow(runtime, runtime.getEscaper(), cells, count);
                 writer.endHeader();
                 runtime.setHeaderState(false);
             }
 
-            for (final Iterable<String> row : source) {
-                writer.beginRow();
-                runtime.resetColumn();
-                for (final String cell : row) {
-                    writer.writeCell(runtime.getEscaper().escape(cell));
-                    runtime.nextColumn();
+            final Iterator<Iterable<String>> rows = source.iterator();
+            try {
+                while (rows.hasNext()) {
+                    final Iterable<String> row = rows.next();
+                    if (accumulateFooter) {
+                        footer.accept(row);
+                    }
+                    writer.beginRow();
+                    count = 0;
+                    for (final String cell : row) {
+                        if (count == cells.length) {
+                            cells = Arrays.copyOf(cells, count * 2);
+                        }
+                        cells[count++] = cell;
+                    }
+                    writer.writeRow(runtime, rowEscaper, cells, count);
+                    writer.endRow();
+                }
+            } finally {
+                ITableSource.close(rows);
+            }
+
+            if (footer != null) {
+                footer.complete();
+                runtime.setFooterState(true);
+                writer.beginFooter();
+                count = runtime.getColumnsCount();
+                if (count > cells.length) {
+                    cells = new String[count];
+                }
+                for (int i = 0; i < count; ++i) {
+                    cells[i] = footer.getCell(i);
                 }
-                writer.endRow();
+                writer.writeRow(runtime, runtime.getEscaper(), cells, count);
+                writer.endFooter();
+                runtime.setFooterState(false);
             }
             writer.endTable();
         } catch (final Exception e) {
@@ -20,6 +20,7 @@
 package pl.mjaron.etudes.table;
 
 import org.jetbrains.annotations.Range;
+import pl.mjaron.etudes.IO;
 import pl.mjaron.etudes.IPureAppendable;
 import pl.mjaron.etudes.Str;
 
@@ -27,15 +28,58 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Consumer;
 
 public class RenderRuntime implements AutoCloseable {
 
     private final RenderContext context;
 
-    private final ITableSource tableSource;
+    private ITableSource tableSource;
 
     private final IEscaper escaper;
 
+    /**
+     * Escaper used for the table body cells. Same as {@link #escaper} unless the rows were already escaped when spilled.
+     *
+     * @since 0.3.0
+     */
+    private IEscaper rowEscaper;
+
+    /**
+     * Temporary file with escaped rows when spill mode is used.
+     *
+     * @since 0.3.0
+     */
+    private SpillFile spillFile = null;
+
+    /**
+     * Footer aggregates of this rendering or <code>null</code> when the footer is not rendered.
+     *
+     * @since 0.3.0
+     */
+    private final FooterAccumulator footerAccumulator;
+
+    /**
+     * Snapshot of {@link RenderContext#getVerticalAlignPropertyProvider()}, taken when the rendering starts.
+     *
+     * @since 0.3.0
+     */
+    private final IPropertyProvider<VerticalAlign> verticalAligns;
+
+    /**
+     * Header row aligns of the table columns, read from {@link #verticalAligns} once.
+     *
+     * @since 0.3.0
+     */
+    private final VerticalAlign[] columnAligns;
+
+    /**
+     * Measured {@link VerticalAlign#Decimal} columns or <code>null</code> if there are no such columns.
+     *
+     * @since 0.3.0
+     */
+    private final DecimalColumns decimalColumns;
+
     OutputStream internalOutputStream = null;
 
     private final IPureAppendable out;
@@ -58,13 +102,39 @@ public class RenderRuntime implements AutoCloseable {
      */
     private boolean headerState = false;
 
+    /**
+     * Updated internally by {@link RenderOperation}. Defines whether currently the footer is rendered or not.
+     *
+     * @since 0.3.0
+     */
+    private boolean footerState = false;
+
     public RenderRuntime(RenderContext context) {
+        this(context, context.getTableSourceBuilder().build(), null);
+    }
+
+    /**
+     * Creates the runtime for given source.
+     *
+     * @param context Render context.
+     * @param source  Rendered source.
+     * @param out     Output overriding the context output, or <code>null</code> to use the context output.
+     * @since 0.3.0
+     */
+    RenderRuntime(final RenderContext context, final ITableSource source, final IPureAppendable out) {
         this.context = context;
-        this.tableSource = context.getTableSourceBuilder().build();
+        this.tableSource = source;
         this.escaper = IEscaper.dummyOr(context.getEscaper());
+        this.rowEscaper = this.escaper;
+        this.verticalAligns = context.getVerticalAlignPropertyProvider().freeze(source.getColumnsCount());
+        this.columnAligns = new VerticalAlign[source.getColumnsCount()];
+        for (int i = 0; i < columnAligns.length; ++i) {
+            columnAligns[i] = verticalAligns.get(i, -1);
+        }
+        this.footerAccumulator = (context.getFooter() == null || context.getFooter().isEmpty()) ? null : new FooterAccumulator(context.getFooter(), source.getColumnsCount());
 
-        IPureAppendable tmpOut = null;
-        if (context.getOutFile() != null) {
+        IPureAppendable tmpOut = out;
+        if (tmpOut == null && context.getOutFile() != null) {
             try {
                 internalOutputStream = new FileOutputStream(context.getOutFile());
             } catch (FileNotFoundException e) {
@@ -79,6 +149,8 @@ public class RenderRuntime implements AutoCloseable {
 
         this.out = (tmpOut != null) ? tmpOut : ((context.getOut() != null) ? context.getOut() : IPureAppendable.from(System.out));
 
+        this.decimalColumns = DecimalColumns.of(this);
+
         this.cellDelimiter = (context.getCellDelimiter() != null) ? context.getCellDelimiter() : ((getWriter().getDefaultDelimiter() != null) ? getWriter().getDefaultDelimiter() : null);
     }
 
@@ -98,6 +170,87 @@ public class RenderRuntime implements AutoCloseable {
         return escaper;
     }
 
+    /**
+     * Provides the {@link IEscaper} which must be applied to the table body cells.
+     * <p>
+     * When the rows were spilled, they are already escaped and {@link DummyEscaper} is returned.
+     *
+     * @return Escaper of the table body cells.
+     * @since 0.3.0
+     */
+    public IEscaper getRowEscaper() {
+        return rowEscaper;
+    }
+
+    /**
+     * Computes the column widths iterating the source only once. Escaped rows are written to the {@link SpillFile} and
+     * the source is replaced with {@link SpillTableSource} replaying them. Called by {@link ColumnWidthResolver} when
+     * spill mode is enabled or the source {@link ITableSource#prefersSinglePass()}. The buffer is
+     * {@link IO#LARGE_BUFFER_SIZE} when spill mode is disabled.
+     *
+     * @return Maximal widths of escaped cells of each column.
+     * @see RenderContext#withSpill(int)
+     * @since 0.3.0
+     */
+    public int[] spill() {
+        spillFile = new SpillFile((context.getSpillBufferSize() > 0) ? context.getSpillBufferSize() : IO.LARGE_BUFFER_SIZE);
+        final int[] widths = TableColumnsWidthDetector.compute(tableSource, escaper, spillFile, getRowObserver());
+        tableSource = new SpillTableSource(tableSource, spillFile);
+        rowEscaper = DummyEscaper.getInstance();
+        return widths;
+    }
+
+    /**
+     * Provides the footer aggregates accumulator.
+     *
+     * @return Footer accumulator or <code>null</code> when the footer is not rendered.
+     * @since 0.3.0
+     */
+    FooterAccumulator getFooterAccumulator() {
+        return footerAccumulator;
+    }
+
+    /**
+     * Provides the measured decimal columns.
+     *
+     * @return Decimal columns or <code>null</code> if there are no {@link VerticalAlign#Decimal} columns.
+     * @since 0.3.0
+     */
+    DecimalColumns getDecimalColumns() {
+        return decimalColumns;
+    }
+
+    /**
+     * Provides the observer of rows visited during the column widths computing, which accumulates the footer
+     * aggregates and measures the decimal columns.
+     *
+     * @return Rows observer or <code>null</code> if not needed.
+     * @since 0.3.0
+     */
+    Consumer<Iterable<String>> getRowObserver() {
+        if (footerAccumulator == null) {
+            return (decimalColumns == null) ? null : decimalColumns::accept;
+        }
+        if (decimalColumns == null) {
+            return footerAccumulator::accept;
+        }
+        return row -> {
+            footerAccumulator.accept(row);
+            decimalColumns.accept(row);
+        };
+    }
+
+    /**
+     * Tells whether the table footer is rendered.
+     *
+     * @return <code>true</code> when the footer row is written after the table body.
+     * @see RenderContext#withFooter(TableFooter)
+     * @since 0.3.0
+     */
+    public boolean hasFooter() {
+        return footerAccumulator != null;
+    }
+
     public ITableWriter getWriter() {
         return getContext().getWriter();
     }
@@ -177,6 +330,27 @@ public class RenderRuntime implements AutoCloseable {
         this.headerState = headerState;
     }
 
+    /**
+     * Tells whether currently rendered row is the table footer.
+     *
+     * @return <code>true</code> when table rendering is in footer state.
+     * @since 0.3.0
+     */
+    public boolean isFooterState() {
+        return footerState;
+    }
+
+    /**
+     * Updates the table rendering footer state. Called by {@link RenderOperation}.
+     *
+     * @param footerState New value of rendering footer state.
+     * @see RenderOperation
+     * @since 0.3.0
+     */
+    public void setFooterState(boolean footerState) {
+        this.footerState = footerState;
+    }
+
     /**
      * Provides {@link VerticalAlign} related to currently processed column.
      *
@@ -195,7 +369,17 @@ public class RenderRuntime implements AutoCloseable {
      * @since 0.3.0
      */
     public VerticalAlign getVerticalAlign(@Range(from = 0, to = Integer.MAX_VALUE) final int column) {
-        return getContext().getVerticalAlignPropertyProvider().get(column, -1);
+        return (column < columnAligns.length) ? columnAligns[column] : verticalAligns.get(column, -1);
+    }
+
+    /**
+     * Provides the aligns of all source columns, read once when the rendering starts.
+     *
+     * @return Align of each column, <code>null</code> if not specified. Must not be modified.
+     * @since 0.3.0
+     */
+    VerticalAlign[] getColumnAligns() {
+        return columnAligns;
     }
 
     /**
@@ -284,23 +468,58 @@ public class RenderRuntime implements AutoCloseable {
      * @since 0.2.0
      */
     public void appendPadded(String what, final char fillChar) {
-        final VerticalAlign currentAlign = getContext().getVerticalAlignPropertyProvider().get(columnIdx, -1);
-        if (getContext().getColumnWidthResolver().hasWidths()) {
-            if (currentAlign == null || currentAlign == VerticalAlign.Left) {
-                //noinspection ConstantConditions
-                Str.padRight(what, getContext().getColumnWidthResolver().getWidth(columnIdx), fillChar, getOut());
-            } else if (currentAlign == VerticalAlign.Right) {
-                Str.padLeft(what, getContext().getColumnWidthResolver().getWidth(columnIdx), fillChar, getOut());
-            } else if (currentAlign == VerticalAlign.Center) {
-                Str.padCenter(what, getContext().getColumnWidthResolver().getWidth(columnIdx), fillChar, getOut());
-            } else {
-                throw new RuntimeException("Unsupported vertical align value: " + currentAlign);
-            }
+        final int[] widths = context.getColumnWidthResolver().getWidths();
+        if (widths != null) {
+            appendPadded(what, widths[columnIdx], getVerticalAlign(columnIdx), fillChar);
         } else {
             this.append(what);
         }
     }
 
+    /**
+     * Pads given String of current column to given width and appends it to rendered table output. Used by the writers
+     * which read the column widths and aligns once per row.
+     *
+     * @param what     String to append.
+     * @param width    Width of current column.
+     * @param align    Align of current column, <code>null</code> is the same as {@link VerticalAlign#Left}.
+     * @param fillChar Character to fill the String during padding.
+     * @see #getColumnAligns()
+     * @since 0.3.0
+     */
+    public void appendPadded(final String what, final int width, final VerticalAlign align, final char fillChar) {
+        if (align == null || align == VerticalAlign.Left) {
+            Str.padRight(what, width, fillChar, getOut());
+        } else if (align == VerticalAlign.Right) {
+            Str.padLeft(what, width, fillChar, getOut());
+        } else if (align == VerticalAlign.Center) {
+            Str.padCenter(what, width, fillChar, getOut());
+        } else if (align == VerticalAlign.Decimal) {
+            appendDecimalPadded(what, width, fillChar);
+        } else {
+            throw new RuntimeException("Unsupported vertical align value: " + align);
+        }
+    }
+
+    /**
+     * Pads the cell of {@link VerticalAlign#Decimal} column, so its decimal point is at the same position as in other
+     * rows. Headers, and all cells when the column was not measured, are aligned to the right.
+     *
+     * @param what     Cell text.
+     * @param width    Column width.
+     * @param fillChar Character used to fill padding gap.
+     * @since 0.3.0
+     */
+    private void appendDecimalPadded(final String what, final int width, final char fillChar) {
+        if (headerState || decimalColumns == null || !decimalColumns.isMeasured()) {
+            Str.padLeft(what, width, fillChar, getOut());
+            return;
+        }
+        final int left = Math.max(0, decimalColumns.getIntegerWidth(columnIdx) - decimalColumns.pointOf(what));
+        Str.pad(getOut(), left, fillChar);
+        Str.padRight(what, width - left, fillChar, getOut());
+    }
+
     /**
      * Pads given String by filling with space character and next appends to rendered table output.
      *
@@ -313,6 +532,9 @@ public class RenderRuntime implements AutoCloseable {
 
     @Override
     public void close() {
+        if (spillFile != null) {
+            spillFile.close();
+        }
         if (internalOutputStream != null) {
             try {
                 internalOutputStream.close();
@@ -19,6 +19,9 @@
 
 package pl.mjaron.etudes.table;
 
+import pl.mjaron.etudes.Dbl;
+import pl.mjaron.etudes.Int;
+
 import java.util.Iterator;
 
 public abstract class SeriesIteratorFactory {
@@ -37,7 +40,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Int.toString(src[idx++]);
             }
         };
     }
@@ -53,7 +56,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Int.toString(src[idx++]);
             }
         };
     }
@@ -69,7 +72,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Int.toString(src[idx++]);
             }
         };
     }
@@ -85,7 +88,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Int.toString(src[idx++]);
             }
         };
     }
@@ -101,7 +104,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Dbl.toString(src[idx++]);
             }
         };
     }
@@ -117,7 +120,7 @@ public abstract class SeriesIteratorFactory {
 
             @Override
             public String next() {
-                return "" + src[idx++];
+                return Dbl.toString(src[idx++]);
             }
         };
     }
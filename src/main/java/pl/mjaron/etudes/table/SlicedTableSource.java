@@ -0,0 +1,117 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Provides a range of rows of any {@link ITableSource}, skipping the preceding rows while iterated. Used for sources
+ * which are not {@link ISliceableTableSource}.
+ *
+ * @since 0.3.0
+ */
+public class SlicedTableSource implements ITableSource {
+
+    private final ITableSource source;
+
+    private final long fromRow;
+
+    private final long rowsCount;
+
+    public SlicedTableSource(@NotNull final ITableSource source, final long fromRow, final long rowsCount) {
+        this.source = source;
+        this.fromRow = fromRow;
+        this.rowsCount = rowsCount;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return source.getColumnsCount();
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        return source.getHeaders();
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return source.hasHeaders();
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        final Iterator<Iterable<String>> rows = source.iterator();
+        for (long skipped = 0; skipped < fromRow && rows.hasNext(); ++skipped) {
+            rows.next();
+        }
+        return new SliceIterator(rows);
+    }
+
+    @Override
+    public boolean prefersSinglePass() {
+        return source.prefersSinglePass();
+    }
+
+    /**
+     * Returns at most {@link #rowsCount} rows. Source rows are closed as soon as the slice end is reached.
+     */
+    private class SliceIterator implements Iterator<Iterable<String>>, AutoCloseable {
+
+        private final Iterator<Iterable<String>> rows;
+
+        private long returned = 0;
+
+        private boolean closed = false;
+
+        SliceIterator(final Iterator<Iterable<String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (returned >= rowsCount) {
+                close();
+                return false;
+            }
+            return rows.hasNext();
+        }
+
+        @Override
+        public Iterable<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ++returned;
+            return rows.next();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                ITableSource.close(rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Temporary file storing table rows, used to replay one-shot sources.
+ * <p>
+ * Rows are written sequentially with {@link #writeRow(String[], int)} and then read back, in the same order, with
+ * {@link #iterator()}, or in any order with {@link #readRow(long)}. Each row is stored as the cells count followed by the cells. Each cell is stored as the chars
+ * count followed by the chars, where each UTF-16 char is encoded with 1 to 3 bytes like in modified UTF-8, so any
+ * {@link String} is restored exactly. Counts are stored as unsigned LEB128 variable length integers.
+ * <p>
+ * Heap usage is bounded by the buffer size, regardless of count of rows. The file is removed on {@link #close()}.
+ *
+ * @see RenderContext#withSpill(int)
+ * @since 0.3.0
+ */
+public class SpillFile implements AutoCloseable, Iterable<Iterable<String>> {
+
+    /**
+     * Minimal buffer size, big enough to hold any variable length integer or encoded char.
+     *
+     * @since 0.3.0
+     */
+    public static final int MIN_BUFFER_SIZE = 16;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final byte[] bytes;
+
+    private long rowsCount = 0;
+
+    private boolean writing = true;
+
+    /**
+     * Creates new temporary file, opened for writing.
+     *
+     * @param bufferSize Size of the buffer used for writing and reading.
+     * @throws RuntimeException When the temporary file cannot be created.
+     * @since 0.3.0
+     */
+    public SpillFile(final int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + ": " + bufferSize + ".");
+        }
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes);
+        try {
+            this.path = Files.createTempFile("etudes-spill-", ".bin");
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to create spill file.", e);
+        }
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (final IOException e) {
+            deleteQuietly();
+            throw new RuntimeException("Failed to open spill file: [" + path + "].", e);
+        }
+    }
+
+    /**
+     * Provides count of written rows.
+     *
+     * @return Count of written rows.
+     * @since 0.3.0
+     */
+    public long getRowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * Provides the position of the next written row, used to read it with {@link #readRow(long)}.
+     *
+     * @return Count of bytes written so far.
+     * @since 0.3.0
+     */
+    public long getPosition() {
+        try {
+            return channel.position() + buffer.position();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read position of spill file: [" + path + "].", e);
+        }
+    }
+
+    /**
+     * Appends the row.
+     *
+     * @param cells Row cells.
+     * @param count Count of used cells, counting from the beginning of <code>cells</code> array.
+     * @throws IllegalStateException When the file is already being read.
+     * @since 0.3.0
+     */
+    public void writeRow(@NotNull final String[] cells, final int count) {
+        if (!writing) {
+            throw new IllegalStateException("Cannot write the row: Spill file is already being read.");
+        }
+        try {
+            writeVarInt(count);
+            for (int i = 0; i < count; ++i) {
+                writeString(cells[i]);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to write to spill file: [" + path + "].", e);
+        }
+        ++rowsCount;
+    }
+
+    /**
+     * Finishes writing and provides the iterator over written rows. Can be called only once.
+     *
+     * @return Iterator over written rows.
+     * @throws IllegalStateException When called more than once.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        if (!writing) {
+            throw new IllegalStateException("Spill file can be read only once.");
+        }
+        finishWriting();
+        try {
+            channel.position(0);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read spill file: [" + path + "].", e);
+        }
+        buffer.limit(0);
+        return new Iterator<Iterable<String>>() {
+            long remaining = rowsCount;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Iterable<String> next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                --remaining;
+                try {
+                    final String[] row = new String[readVarInt()];
+                    for (int i = 0; i < row.length; ++i) {
+                        row[i] = readString();
+                    }
+                    return Arrays.asList(row);
+                } catch (final IOException e) {
+                    throw new RuntimeException("Failed to read spill file: [" + path + "].", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads the row written at given position. Finishes writing, so {@link #iterator()} can't be used next. Rows may be
+     * read many times, in any order.
+     *
+     * @param position Position of the row, provided by {@link #getPosition()} before the row was written.
+     * @return Row cells.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String[] readRow(final long position) {
+        if (writing) {
+            finishWriting();
+        }
+        try {
+            channel.position(position);
+            buffer.limit(0);
+            final String[] row = new String[readVarInt()];
+            for (int i = 0; i < row.length; ++i) {
+                row[i] = readString();
+            }
+            return row;
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to read spill file: [" + path + "].", e);
+        }
+    }
+
+    private void finishWriting() {
+        writing = false;
+        try {
+            flushBuffer();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to write to spill file: [" + path + "].", e);
+        }
+    }
+
+    /**
+     * Closes and removes the file.
+     *
+     * @since 0.3.0
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to close spill file: [" + path + "].", e);
+        } finally {
+            deleteQuietly();
+        }
+    }
+
+    private void deleteQuietly() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void ensureWritable(final int count) throws IOException {
+        if (buffer.remaining() < count) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        ensureWritable(5);
+        int position = buffer.position();
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        buffer.position(position);
+    }
+
+    private void writeString(final String what) throws IOException {
+        final int length = what.length();
+        writeVarInt(length);
+        int position = buffer.position();
+        for (int i = 0; i < length; ++i) {
+            if (bytes.length - position < 3) {
+                buffer.position(position);
+                flushBuffer();
+                position = 0;
+            }
+            final char ch = what.charAt(i);
+            if (ch != 0 && ch < 0x80) {
+                bytes[position++] = (byte) ch;
+            } else if (ch < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (ch >> 6));
+                bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+            } else {
+                bytes[position++] = (byte) (0xE0 | (ch >> 12));
+                bytes[position++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        buffer.position(position);
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            while (buffer.position() == 0) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of spill file.");
+                }
+            }
+            buffer.flip();
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private String readString() throws IOException {
+        final char[] chars = new char[readVarInt()];
+        for (int i = 0; i < chars.length; ++i) {
+            final int b = readByte();
+            if ((b & 0x80) == 0) {
+                chars[i] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (readByte() & 0x3F));
+            } else {
+                final int b1 = readByte();
+                chars[i] = (char) (((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (readByte() & 0x3F));
+            }
+        }
+        return new String(chars);
+    }
+}
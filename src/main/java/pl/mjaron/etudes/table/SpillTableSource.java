@@ -0,0 +1,67 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+
+/**
+ * Replays the rows recorded in {@link SpillFile}. Headers and columns count are taken from the recorded source.
+ *
+ * @see RenderContext#withSpill(int)
+ * @since 0.3.0
+ */
+public class SpillTableSource implements ITableSource {
+
+    private final ITableSource recordedSource;
+
+    private final SpillFile spillFile;
+
+    public SpillTableSource(@NotNull final ITableSource recordedSource, @NotNull final SpillFile spillFile) {
+        this.recordedSource = recordedSource;
+        this.spillFile = spillFile;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return recordedSource.getColumnsCount();
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        return recordedSource.getHeaders();
+    }
+
+    @Override
+    public boolean hasHeaders() {
+        return recordedSource.hasHeaders();
+    }
+
+    /**
+     * Provides the recorded rows. Can be called only once.
+     *
+     * @return Iterator over recorded rows.
+     */
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        return spillFile.iterator();
+    }
+}
@@ -20,6 +20,10 @@
 package pl.mjaron.etudes.table;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 /**
  * Determines the widths of table columns.
@@ -51,12 +55,88 @@ public abstract class TableColumnsWidthDetector {
      * @return Array of max widths of corresponding columns
      */
     public static int[] compute(@NotNull final ITableSource source, @NotNull final IEscaper escaper) {
+        return compute(source, escaper, (Consumer<Iterable<String>>) null);
+    }
+
+    /**
+     * Detects the maximum values of each column's cell width and passes each row to given observer in the same pass,
+     * e.g. to accumulate the footer aggregates.
+     *
+     * @param source   Input table
+     * @param escaper  {@link IEscaper} instance or {@link DummyEscaper} if it is not necessary
+     * @param observer Receives each not escaped row, or <code>null</code>
+     * @return Array of max widths of corresponding columns
+     * @since 0.3.0
+     */
+    static int[] compute(@NotNull final ITableSource source, @NotNull final IEscaper escaper, @Nullable final Consumer<Iterable<String>> observer) {
+        final int[] widths = new int[source.getColumnsCount()];
+        if (source.hasHeaders()) {
+            applyRow(widths, source.getHeaders(), escaper);
+        }
+        final Iterator<Iterable<String>> rows = source.iterator();
+        try {
+            while (rows.hasNext()) {
+                final Iterable<String> row = rows.next();
+                if (observer != null) {
+                    observer.accept(row);
+                }
+                applyRow(widths, row, escaper);
+            }
+        } finally {
+            ITableSource.close(rows);
+        }
+        return widths;
+    }
+
+    /**
+     * Detects the maximum values of each column's cell width and writes escaped rows to given spill file, so the source
+     * rows are iterated and escaped only once.
+     *
+     * @param source  Input table
+     * @param escaper {@link IEscaper} instance or {@link DummyEscaper} if it is not necessary
+     * @param spill   File where escaped rows are written
+     * @return Array of max widths of corresponding columns
+     * @since 0.3.0
+     */
+    public static int[] compute(@NotNull final ITableSource source, @NotNull final IEscaper escaper, @NotNull final SpillFile spill) {
+        return compute(source, escaper, spill, null);
+    }
+
+    /**
+     * Detects the maximum values of each column's cell width, writes escaped rows to given spill file and passes each
+     * row to given observer in the same pass.
+     *
+     * @param source   Input table
+     * @param escaper  {@link IEscaper} instance or {@link DummyEscaper} if it is not necessary
+     * @param spill    File where escaped rows are written
+     * @param observer Receives each not escaped row, or <code>null</code>
+     * @return Array of max widths of corresponding columns
+     * @since 0.3.0
+     */
+    static int[] compute(@NotNull final ITableSource source, @NotNull final IEscaper escaper, @NotNull final SpillFile spill, @Nullable final Consumer<Iterable<String>> observer) {
         final int[] widths = new int[source.getColumnsCount()];
         if (source.hasHeaders()) {
             applyRow(widths, source.getHeaders(), escaper);
         }
-        for (final Iterable<String> row : source) {
-            applyRow(widths, row, escaper);
+        final String[] cells = new String[widths.length];
+        final Iterator<Iterable<String>> rows = source.iterator();
+        try {
+            while (rows.hasNext()) {
+                final Iterable<String> row = rows.next();
+                if (observer != null) {
+                    observer.accept(row);
+                }
+                int i = 0;
+                for (final String entry : row) {
+                    final String escaped = escaper.escape(entry);
+                    widths[i] = Integer.max(widths[i], escaped.length());
+                    cells[i] = escaped;
+                    ++i;
+                }
+                spill.writeRow(cells, i);
+            }
+        } finally {
+            ITableSource.close(rows);
         }
         return widths;
     }
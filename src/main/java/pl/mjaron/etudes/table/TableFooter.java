@@ -0,0 +1,110 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.HashMap;
+
+/**
+ * Defines the table footer row: {@link Aggregate} functions computed over the rendered columns and constant labels.
+ * Columns without an aggregate nor a label have empty footer cells.
+ * <p>
+ * The aggregates are computed while the rows are visited anyway: during the column widths computing when it is used
+ * (e.g. {@link AlignmentMode#ALIGNED}), otherwise while the rows are written.
+ *
+ * @see RenderContext#withFooter(TableFooter)
+ * @since 0.3.0
+ */
+public class TableFooter {
+
+    private final HashMap<Integer, Aggregate> aggregates = new HashMap<>();
+
+    private final HashMap<Integer, String> labels = new HashMap<>();
+
+    /**
+     * Sets the aggregate computed for given column. Overrides the column label.
+     *
+     * @param column    Column index of the rendered table, counting from <code>0</code>.
+     * @param aggregate Aggregate function.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public TableFooter withAggregate(@Range(from = 0, to = Integer.MAX_VALUE) final int column, @NotNull final Aggregate aggregate) {
+        labels.remove(column);
+        aggregates.put(column, aggregate);
+        return this;
+    }
+
+    /**
+     * Sets the constant footer cell of given column. Overrides the column aggregate.
+     *
+     * @param column Column index of the rendered table, counting from <code>0</code>.
+     * @param label  Footer cell text.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public TableFooter withLabel(@Range(from = 0, to = Integer.MAX_VALUE) final int column, @NotNull final String label) {
+        aggregates.remove(column);
+        labels.put(column, label);
+        return this;
+    }
+
+    /**
+     * Provides the aggregate of given column.
+     *
+     * @param column Column index.
+     * @return Column aggregate or <code>null</code> if not set.
+     * @since 0.3.0
+     */
+    @Nullable
+    public Aggregate getAggregate(final int column) {
+        return aggregates.get(column);
+    }
+
+    /**
+     * Provides the label of given column.
+     *
+     * @param column Column index.
+     * @return Column label or <code>null</code> if not set.
+     * @since 0.3.0
+     */
+    @Nullable
+    public String getLabel(final int column) {
+        return labels.get(column);
+    }
+
+    /**
+     * Tells whether the footer has no cells defined.
+     *
+     * @return <code>true</code> when no aggregate nor label is set.
+     * @since 0.3.0
+     */
+    public boolean isEmpty() {
+        return aggregates.isEmpty() && labels.isEmpty();
+    }
+}
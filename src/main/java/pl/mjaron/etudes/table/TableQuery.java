@@ -0,0 +1,238 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.Pair;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Description of rows filtering, ordering and limiting, applied by {@link QueryTableSource}. Columns are identified
+ * by the source header names.
+ *
+ * @see RenderContext#where(String, Predicate)
+ * @see RenderContext#orderBy(String, Comparator)
+ * @see RenderContext#limit(long)
+ * @since 0.3.0
+ */
+public class TableQuery {
+
+    /**
+     * Default maximal count of rows sorted in memory. When exceeded, sorted runs are written to temporary files and
+     * merged.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_MAX_IN_MEMORY_ROWS = 100_000;
+
+    private final List<Predicate<LazyRow>> rowPredicates = new ArrayList<>();
+
+    private final List<Pair<String, Predicate<Object>>> columnPredicates = new ArrayList<>();
+
+    private final List<Pair<String, Comparator<Object>>> sortKeys = new ArrayList<>();
+
+    private long offset = 0;
+
+    private long limit = -1;
+
+    private int maxInMemoryRows = DEFAULT_MAX_IN_MEMORY_ROWS;
+
+    /**
+     * Keeps only the rows accepted by given predicate.
+     *
+     * @param predicate Predicate receiving the row with raw cell values.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TableQuery where(@NotNull final Predicate<LazyRow> predicate) {
+        rowPredicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * Keeps only the rows where the raw value of given column is accepted by given predicate.
+     *
+     * @param column    Column name.
+     * @param predicate Predicate receiving the raw cell value.
+     * @param <T>       Expected cell value type.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public <T> TableQuery where(@NotNull final String column, @NotNull final Predicate<T> predicate) {
+        @SuppressWarnings("unchecked") final Predicate<Object> objectPredicate = (Predicate<Object>) predicate;
+        columnPredicates.add(new Pair<>(column, objectPredicate));
+        return this;
+    }
+
+    /**
+     * Orders the rows by raw values of given column. Next calls define the secondary keys. Equal rows keep the source
+     * order.
+     *
+     * @param column     Column name.
+     * @param comparator Comparator of the raw cell values.
+     * @param <T>        Expected cell value type.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public <T> TableQuery orderBy(@NotNull final String column, @NotNull final Comparator<T> comparator) {
+        @SuppressWarnings("unchecked") final Comparator<Object> objectComparator = (Comparator<Object>) comparator;
+        sortKeys.add(new Pair<>(column, objectComparator));
+        return this;
+    }
+
+    /**
+     * Orders the rows by natural order of raw values of given column, <code>null</code> values first.
+     *
+     * @param column Column name. Its values must be {@link Comparable}.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TableQuery orderBy(@NotNull final String column) {
+        return orderBy(column, naturalOrder());
+    }
+
+    /**
+     * Skips given count of rows, after filtering and ordering.
+     *
+     * @param offset Count of skipped rows.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TableQuery offset(final long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + offset + ".");
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Limits count of rows. Ordering with the limit keeps only <code>offset + limit</code> rows in memory.
+     *
+     * @param limit Maximal count of rows.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TableQuery limit(final long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit + ".");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Sets maximal count of rows sorted in memory when ordering without the limit. Sort keys of larger tables must be
+     * {@link java.io.Serializable}, because they are written to temporary files.
+     *
+     * @param maxInMemoryRows Maximal count of rows sorted in memory.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TableQuery withMaxInMemoryRows(final int maxInMemoryRows) {
+        if (maxInMemoryRows < 1) {
+            throw new IllegalArgumentException("Max in-memory rows must be positive: " + maxInMemoryRows + ".");
+        }
+        this.maxInMemoryRows = maxInMemoryRows;
+        return this;
+    }
+
+    /**
+     * Creates the copy of this query. Next changes of the copy don't affect this query.
+     *
+     * @return New query with the same operations.
+     * @since 0.3.0
+     */
+    @NotNull
+    public TableQuery copy() {
+        final TableQuery copy = new TableQuery();
+        copy.rowPredicates.addAll(rowPredicates);
+        copy.columnPredicates.addAll(columnPredicates);
+        copy.sortKeys.addAll(sortKeys);
+        copy.offset = offset;
+        copy.limit = limit;
+        copy.maxInMemoryRows = maxInMemoryRows;
+        return copy;
+    }
+
+    /**
+     * Tells whether any operation is defined.
+     *
+     * @return <code>true</code> if the query doesn't change the source rows.
+     * @since 0.3.0
+     */
+    public boolean isEmpty() {
+        return rowPredicates.isEmpty() && columnPredicates.isEmpty() && sortKeys.isEmpty() && offset == 0 && limit < 0;
+    }
+
+    public List<Predicate<LazyRow>> getRowPredicates() {
+        return rowPredicates;
+    }
+
+    public List<Pair<String, Predicate<Object>>> getColumnPredicates() {
+        return columnPredicates;
+    }
+
+    public List<Pair<String, Comparator<Object>>> getSortKeys() {
+        return sortKeys;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Provides the rows limit.
+     *
+     * @return Maximal count of rows or negative value when not limited.
+     * @since 0.3.0
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    public int getMaxInMemoryRows() {
+        return maxInMemoryRows;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> naturalOrder() {
+        return (Comparator<Object>) (Comparator) Comparator.nullsFirst(Comparator.naturalOrder());
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import pl.mjaron.etudes.IO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Transposed view of other {@link ITableSource}: each source column is provided as a row and each source row as a
+ * column. When the source has headers, the first column of each row is the source header. Transposed table has no
+ * headers.
+ * <p>
+ * Sources with {@link IRandomAccessTableSource#hasRandomAccess()} are not copied: each cell is read from the source on
+ * first access, in constant time. Other sources are read once, on the first iteration, into a column-major buffer of at
+ * most {@link #getMaxBufferedCells()} cells. When the source is bigger, the buffer blocks are spilled to a temporary
+ * file, deleted with {@link #close()}, and each provided row is read back from all the blocks. The source is read
+ * again when iterated after {@link #close()}.
+ *
+ * @since 0.3.0
+ */
+public class TransposedTableSource implements ITableSource, AutoCloseable {
+
+    public static final int DEFAULT_MAX_BUFFERED_CELLS = 1 << 16;
+
+    private final ITableSource source;
+
+    private int maxBufferedCells = DEFAULT_MAX_BUFFERED_CELLS;
+
+    /**
+     * Source headers or <code>null</code> if the source has no headers.
+     */
+    private final List<String> headers;
+
+    /**
+     * Count of source rows, or <code>-1</code> if not read yet.
+     */
+    private int rowsCount = -1;
+
+    /**
+     * Cells of sequential source when all of them fit in the buffer, indexed by source column and source row.
+     */
+    private String[][] buffered = null;
+
+    private SpillFile spillFile = null;
+
+    /**
+     * Positions of spilled rows holding the cells of each block and source column.
+     */
+    private long[] blockPositions = null;
+
+    public TransposedTableSource(@NotNull final ITableSource source) {
+        this.source = source;
+        if (source.hasHeaders()) {
+            this.headers = new ArrayList<>();
+            for (final String header : source.getHeaders()) {
+                headers.add(header);
+            }
+        } else {
+            this.headers = null;
+        }
+    }
+
+    /**
+     * Sets the maximal count of cells of sequential source kept in memory.
+     *
+     * @param maxBufferedCells Count of cells. At least the source columns count is used.
+     * @return This reference.
+     * @since 0.3.0
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public TransposedTableSource withMaxBufferedCells(final int maxBufferedCells) {
+        if (maxBufferedCells < 1) {
+            throw new IllegalArgumentException("Max buffered cells count must be positive: " + maxBufferedCells + ".");
+        }
+        this.maxBufferedCells = maxBufferedCells;
+        return this;
+    }
+
+    public int getMaxBufferedCells() {
+        return maxBufferedCells;
+    }
+
+    private boolean isRandomAccess() {
+        return source instanceof IRandomAccessTableSource && ((IRandomAccessTableSource) source).hasRandomAccess();
+    }
+
+    private int headerColumns() {
+        return (headers == null) ? 0 : 1;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        if (isRandomAccess()) {
+            return headerColumns() + ((IRandomAccessTableSource) source).getRowsCount();
+        }
+        read();
+        return headerColumns() + rowsCount;
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        return null;
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        final int columnsCount = getColumnsCount();
+        final int offset = headerColumns();
+        return new Iterator<Iterable<String>>() {
+            int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < source.getColumnsCount();
+            }
+
+            @Override
+            public Iterable<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int column = row++;
+                if (isRandomAccess()) {
+                    final IRandomAccessTableSource randomAccess = (IRandomAccessTableSource) source;
+                    return new LazyRow(columnsCount, cell -> (cell < offset) ? headers.get(column) : randomAccess.getValue(cell - offset, column));
+                }
+                final String[] cells = new String[columnsCount];
+                if (offset > 0) {
+                    cells[0] = headers.get(column);
+                }
+                readColumn(column, cells, offset);
+                return new LazyRow(columnsCount, cell -> cells[cell]);
+            }
+        };
+    }
+
+    /**
+     * Reads the sequential source into the buffer, spilling full blocks, if not read yet.
+     */
+    private void read() {
+        if (rowsCount >= 0) {
+            return;
+        }
+        final int columns = source.getColumnsCount();
+        if (columns == 0) {
+            buffered = new String[0][];
+            rowsCount = 0;
+            return;
+        }
+        final int blockRows = Math.max(1, maxBufferedCells / Math.max(1, columns));
+        String[][] block = new String[columns][Math.min(blockRows, 16)];
+        final List<Long> positions = new ArrayList<>();
+        int rows = 0;
+        int blockRow = 0;
+        final Iterator<Iterable<String>> sourceRows = source.iterator();
+        try {
+            while (sourceRows.hasNext()) {
+                final Iterable<String> row = sourceRows.next();
+                if (blockRow == blockRows) {
+                    spill(block, blockRow, positions);
+                    blockRow = 0;
+                }
+                if (blockRow == block[0].length) {
+                    final int length = Math.min(blockRows, block[0].length * 2);
+                    for (int c = 0; c < columns; ++c) {
+                        block[c] = Arrays.copyOf(block[c], length);
+                    }
+                }
+                int c = 0;
+                for (final String cell : row) {
+                    if (c == columns) {
+                        throw new RuntimeException("Source row " + rows + " has more than " + columns + " cells.");
+                    }
+                    block[c++][blockRow] = (cell == null) ? "" : cell;
+                }
+                while (c < columns) {
+                    block[c++][blockRow] = "";
+                }
+                ++blockRow;
+                ++rows;
+            }
+            if (spillFile != null) {
+                spill(block, blockRow, positions);
+                blockPositions = new long[positions.size()];
+                for (int i = 0; i < blockPositions.length; ++i) {
+                    blockPositions[i] = positions.get(i);
+                }
+            } else {
+                for (int c = 0; c < columns; ++c) {
+                    block[c] = Arrays.copyOf(block[c], blockRow);
+                }
+                buffered = block;
+            }
+        } catch (final RuntimeException e) {
+            close();
+            throw e;
+        } finally {
+            ITableSource.close(sourceRows);
+        }
+        rowsCount = rows;
+    }
+
+    /**
+     * Appends the block to the spill file, each column as one row, and records the position of each column.
+     */
+    private void spill(final String[][] block, final int blockRows, final List<Long> positions) {
+        if (spillFile == null) {
+            spillFile = new SpillFile(IO.LARGE_BUFFER_SIZE);
+        }
+        for (final String[] column : block) {
+            positions.add(spillFile.getPosition());
+            spillFile.writeRow(column, blockRows);
+        }
+    }
+
+    /**
+     * Copies the cells of given source column to given array.
+     */
+    private void readColumn(final int column, final String[] cells, final int offset) {
+        read();
+        if (buffered != null) {
+            System.arraycopy(buffered[column], 0, cells, offset, rowsCount);
+            return;
+        }
+        final int columns = source.getColumnsCount();
+        int cell = offset;
+        for (int entry = column; entry < blockPositions.length; entry += columns) {
+            final String[] part = spillFile.readRow(blockPositions[entry]);
+            System.arraycopy(part, 0, cells, cell, part.length);
+            cell += part.length;
+        }
+    }
+
+    /**
+     * Deletes the spill file, if created, and drops the read cells, so the next iteration reads the source again.
+     */
+    @Override
+    public void close() {
+        rowsCount = -1;
+        buffered = null;
+        blockPositions = null;
+        if (spillFile != null) {
+            final SpillFile file = spillFile;
+            spillFile = null;
+            file.close();
+        }
+    }
+}
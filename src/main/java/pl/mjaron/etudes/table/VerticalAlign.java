@@ -25,5 +25,13 @@ package pl.mjaron.etudes.table;
  * @since 0.2.1
  */
 public enum VerticalAlign {
-    Left, Right, Center
+    Left, Right, Center,
+
+    /**
+     * Aligns the decimal points of numbers in the column, when column widths are computed. Otherwise, and for the
+     * headers, works like {@link #Right}.
+     *
+     * @since 0.3.0
+     */
+    Decimal
 }
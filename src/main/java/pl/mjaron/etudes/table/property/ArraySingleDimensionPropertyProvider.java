@@ -42,6 +42,17 @@ public class ArraySingleDimensionPropertyProvider<T> {
         return indexValue;
     }
 
+    /**
+     * Provides the value used by all indices without own values.
+     *
+     * @return Root value.
+     * @since 0.3.0
+     */
+    @Nullable
+    public T getValue() {
+        return rootValue;
+    }
+
     public void setValue(@Nullable final T value) {
         this.rootValue = value;
         this.arrayList = null;
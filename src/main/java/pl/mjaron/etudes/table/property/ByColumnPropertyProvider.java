@@ -19,6 +19,7 @@
 
 package pl.mjaron.etudes.table.property;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.table.IPropertyProvider;
 
 public class ByColumnPropertyProvider<T> implements IPropertyProvider<T> {
@@ -41,5 +42,12 @@ public class ByColumnPropertyProvider<T> implements IPropertyProvider<T> {
     public void put(int column, int row, T value) {
         hierarchicalPropertyProvider.getRootNode().ensureChild(column).ensureChild(row).setValue(value);
     }
+
+    @NotNull
+    @Override
+    public IPropertyProvider<T> freeze(final int columnsCount) {
+        final FrozenPropertyProvider<T> frozen = hierarchicalPropertyProvider.freeze(columnsCount, true);
+        return (frozen != null) ? frozen : this;
+    }
 }
 
@@ -19,6 +19,7 @@
 
 package pl.mjaron.etudes.table.property;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.table.IPropertyProvider;
 
 public class ByRowPropertyProvider<T> implements IPropertyProvider<T> {
@@ -41,4 +42,10 @@ public class ByRowPropertyProvider<T> implements IPropertyProvider<T> {
     public void put(int row, int column, T value) {
         hierarchicalPropertyProvider.getRootNode().ensureChild(row).ensureChild(column).setValue(value);
     }
+
+    @NotNull
+    @Override
+    public FrozenPropertyProvider<T> freeze(final int columnsCount) {
+        return hierarchicalPropertyProvider.freeze(columnsCount, false);
+    }
 }
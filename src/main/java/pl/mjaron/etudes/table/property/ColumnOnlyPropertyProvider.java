@@ -19,8 +19,11 @@
 
 package pl.mjaron.etudes.table.property;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.table.IPropertyProvider;
 
+import java.util.TreeMap;
+
 public class ColumnOnlyPropertyProvider<T> implements IPropertyProvider<T> {
 
     private final ArraySingleDimensionPropertyProvider<T> provider = new ArraySingleDimensionPropertyProvider<>();
@@ -37,4 +40,15 @@ public class ColumnOnlyPropertyProvider<T> implements IPropertyProvider<T> {
     public void put(int column, T value) {
         provider.setValue(column, value);
     }
+
+    @NotNull
+    @Override
+    public FrozenPropertyProvider<T> freeze(final int columnsCount) {
+        final int size = (provider.getArrayList() == null) ? 0 : provider.getArrayList().size();
+        final Object[] columnValues = new Object[Math.max(columnsCount, size)];
+        for (int column = 0; column < size; ++column) {
+            columnValues[column] = provider.getArrayList().get(column);
+        }
+        return new FrozenPropertyProvider<>(provider.getValue(), columnValues, new TreeMap<>(), new TreeMap<>());
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.table.property;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.mjaron.etudes.table.IPropertyProvider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of other {@link IPropertyProvider}, created when the rendering starts, so per-cell lookups are
+ * array reads.
+ * <p>
+ * The value of the cell is resolved from, in order: sparse per-cell values, sparse per-row values, dense per-column
+ * values and the table value.
+ *
+ * @param <T> Property type.
+ * @see IPropertyProvider#freeze(int)
+ * @since 0.3.0
+ */
+public class FrozenPropertyProvider<T> implements IPropertyProvider<T> {
+
+    private final T tableValue;
+
+    /**
+     * Values of columns, resolved with the table value.
+     */
+    private final Object[] columnValues;
+
+    /**
+     * Sorted indices of rows with own values.
+     */
+    private final int[] rows;
+
+    private final Object[] rowValues;
+
+    /**
+     * Sorted keys of cells with own values, see {@link #cellKey(int, int)}.
+     */
+    private final long[] cells;
+
+    private final Object[] cellValues;
+
+    /**
+     * Creates the snapshot.
+     *
+     * @param tableValue   Value of cells without more specific values.
+     * @param columnValues Values of columns or <code>null</code> for columns using the table value. Taken, not copied.
+     * @param rowValues    Values of rows, overriding the column values.
+     * @param cellValues   Values of cells by {@link #cellKey(int, int)}, overriding the row and column values.
+     */
+    FrozenPropertyProvider(@Nullable final T tableValue, @NotNull final Object[] columnValues, @NotNull final TreeMap<Integer, T> rowValues, @NotNull final TreeMap<Long, T> cellValues) {
+        this.tableValue = tableValue;
+        this.columnValues = columnValues;
+        for (int i = 0; i < columnValues.length; ++i) {
+            if (columnValues[i] == null) {
+                columnValues[i] = tableValue;
+            }
+        }
+        this.rows = new int[rowValues.size()];
+        this.rowValues = new Object[rowValues.size()];
+        int i = 0;
+        for (final Map.Entry<Integer, T> entry : rowValues.entrySet()) {
+            this.rows[i] = entry.getKey();
+            this.rowValues[i++] = entry.getValue();
+        }
+        this.cells = new long[cellValues.size()];
+        this.cellValues = new Object[cellValues.size()];
+        i = 0;
+        for (final Map.Entry<Long, T> entry : cellValues.entrySet()) {
+            this.cells[i] = entry.getKey();
+            this.cellValues[i++] = entry.getValue();
+        }
+    }
+
+    /**
+     * Packs the cell position into single key, ordered by column and next by row.
+     *
+     * @param column Column index.
+     * @param row    Row index.
+     * @return Cell key.
+     */
+    static long cellKey(final int column, final int row) {
+        return ((long) column << 32) | (row & 0xFFFF_FFFFL);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(final int column, final int row) {
+        if (cells.length != 0) {
+            final int index = Arrays.binarySearch(cells, cellKey(column, row));
+            if (index >= 0) {
+                return (T) cellValues[index];
+            }
+        }
+        if (rows.length != 0) {
+            final int index = Arrays.binarySearch(rows, row);
+            if (index >= 0) {
+                return (T) rowValues[index];
+            }
+        }
+        if (column >= 0 && column < columnValues.length) {
+            return (T) columnValues[column];
+        }
+        return tableValue;
+    }
+
+    /**
+     * The snapshot doesn't change, so it is not copied.
+     *
+     * @param columnsCount Ignored.
+     * @return This reference.
+     */
+    @NotNull
+    @Override
+    public FrozenPropertyProvider<T> freeze(final int columnsCount) {
+        return this;
+    }
+}
@@ -19,6 +19,8 @@
 
 package pl.mjaron.etudes.table.property;
 
+import java.util.TreeMap;
+
 public class HierarchicalPropertyProvider<T> {
 
     private final PropertyNode<T> tableNode = new PropertyNode<>();
@@ -47,4 +49,38 @@ public class HierarchicalPropertyProvider<T> {
         }
         return tableNode.getValue();
     }
+
+    /**
+     * Creates the snapshot of the values.
+     *
+     * @param columnsCount Count of rendered columns.
+     * @param columnMajor  <code>true</code> when the first level nodes are columns, <code>false</code> when rows.
+     * @return Snapshot returning the same values as {@link #getValue(int, int)}, or <code>null</code> when there are
+     * values of negative columns, which cannot be stored in the dense array.
+     * @since 0.3.0
+     */
+    FrozenPropertyProvider<T> freeze(final int columnsCount, final boolean columnMajor) {
+        final TreeMap<Integer, T> firstLevel = new TreeMap<>();
+        final TreeMap<Long, T> cellValues = new TreeMap<>();
+        tableNode.forEachChild((first, a) -> {
+            if (first.getValue() != null) {
+                firstLevel.put(a, first.getValue());
+            }
+            first.forEachChild((second, b) -> {
+                if (second.getValue() != null) {
+                    cellValues.put(columnMajor ? FrozenPropertyProvider.cellKey(a, b) : FrozenPropertyProvider.cellKey(b, a), second.getValue());
+                }
+            });
+        });
+        if (!columnMajor) {
+            return new FrozenPropertyProvider<>(tableNode.getValue(), new Object[0], firstLevel, cellValues);
+        }
+        if (!firstLevel.isEmpty() && firstLevel.firstKey() < 0) {
+            return null;
+        }
+        final int maxColumn = firstLevel.isEmpty() ? -1 : firstLevel.lastKey();
+        final Object[] columnValues = new Object[Math.max(columnsCount, maxColumn + 1)];
+        firstLevel.forEach((column, value) -> columnValues[column] = value);
+        return new FrozenPropertyProvider<>(tableNode.getValue(), columnValues, new TreeMap<>(), cellValues);
+    }
 }
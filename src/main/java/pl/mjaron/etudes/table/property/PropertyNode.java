@@ -19,13 +19,14 @@
 
 package pl.mjaron.etudes.table.property;
 
-import java.util.Map;
-import java.util.TreeMap;
+import pl.mjaron.etudes.container.IntKeyMap;
+
+import java.util.function.ObjIntConsumer;
 
 public class PropertyNode<T> {
     private T value;
 
-    private Map<Integer, PropertyNode<T>> children = null;
+    private IntKeyMap<PropertyNode<T>> children = null;
 
     public T getValue() {
         return this.value;
@@ -43,7 +44,7 @@ public class PropertyNode<T> {
                 return childNode;
             }
         } else {
-            children = new TreeMap<>();
+            children = new IntKeyMap<>();
         }
 
         PropertyNode<T> newChildNode = new PropertyNode<>();
@@ -51,6 +52,19 @@ public class PropertyNode<T> {
         return newChildNode;
     }
 
+    /**
+     * Visits all children nodes in ascending order of their indices.
+     *
+     * @param visitor Receives the child node and its index.
+     * @since 0.3.0
+     */
+    public void forEachChild(final ObjIntConsumer<PropertyNode<T>> visitor) {
+        if (children == null) {
+            return;
+        }
+        children.forEach(visitor);
+    }
+
     public PropertyNode<T> getChild(int index) {
         if (children == null) {
             return null;
@@ -20,14 +20,12 @@
 package pl.mjaron.etudes.table.property;
 
 import org.jetbrains.annotations.Range;
-
-import java.util.Map;
-import java.util.TreeMap;
+import pl.mjaron.etudes.container.IntKeyMap;
 
 public class RandomSingleDimensionPropertyProvider<T> {
 
     private T tableValue = null;
-    Map<Integer, T> columnValues = null;
+    IntKeyMap<T> columnValues = null;
 
     public T get(@Range(from = 0, to = Integer.MAX_VALUE) int index) {
         if (columnValues == null) {
@@ -47,7 +45,7 @@ public class RandomSingleDimensionPropertyProvider<T> {
 
     public void setValue(@Range(from = 0, to = Integer.MAX_VALUE) int index, T value) {
         if (columnValues == null) {
-            columnValues = new TreeMap<>();
+            columnValues = new IntKeyMap<>();
         }
         columnValues.put(index, value);
     }
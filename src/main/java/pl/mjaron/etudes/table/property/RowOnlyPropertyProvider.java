@@ -19,8 +19,11 @@
 
 package pl.mjaron.etudes.table.property;
 
+import org.jetbrains.annotations.NotNull;
 import pl.mjaron.etudes.table.IPropertyProvider;
 
+import java.util.TreeMap;
+
 public class RowOnlyPropertyProvider<T> implements IPropertyProvider<T> {
 
     private final ArraySingleDimensionPropertyProvider<T> provider = new ArraySingleDimensionPropertyProvider<>();
@@ -37,4 +40,18 @@ public class RowOnlyPropertyProvider<T> implements IPropertyProvider<T> {
     public void put(int row, T value) {
         provider.setValue(row, value);
     }
+
+    @NotNull
+    @Override
+    public FrozenPropertyProvider<T> freeze(final int columnsCount) {
+        final TreeMap<Integer, T> rowValues = new TreeMap<>();
+        if (provider.getArrayList() != null) {
+            for (int row = 0; row < provider.getArrayList().size(); ++row) {
+                if (provider.getArrayList().get(row) != null) {
+                    rowValues.put(row, provider.getArrayList().get(row));
+                }
+            }
+        }
+        return new FrozenPropertyProvider<>(provider.getValue(), new Object[0], rowValues, new TreeMap<>());
+    }
 }
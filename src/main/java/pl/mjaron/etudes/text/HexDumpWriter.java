@@ -0,0 +1,277 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.text;
+
+import org.jetbrains.annotations.NotNull;
+import pl.mjaron.etudes.Ch;
+import pl.mjaron.etudes.IPureAppendable;
+import pl.mjaron.etudes.Str;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incrementally writes the classic hexdump: offset, HEX and ASCII columns, e.g:
+ * <pre>
+ * 00000000  48 65 6C 6C 6F 2C 20 57 6F 72 6C 64 21 0A 00 FF  |Hello, World!...|
+ * 00000010  30 31 32                                         |012|
+ * </pre>
+ * Bytes may be written in fragments of any size. Only single line of bytes and fixed-size buffer of characters are
+ * kept in memory, so streams of any size may be dumped with constant memory.
+ * <p>
+ * Call {@link #finish()} after last written byte to write the incomplete last line.
+ *
+ * @see pl.mjaron.etudes.IO#hexDump(java.io.InputStream, IPureAppendable, int, String)
+ * @since 0.3.0
+ */
+public class HexDumpWriter {
+
+    /**
+     * Default count of bytes dumped in single line.
+     *
+     * @since 0.3.0
+     */
+    public static final int DEFAULT_BYTES_PER_LINE = 16;
+
+    /**
+     * Minimal size of characters buffer. Many lines are collected before writing to the output.
+     */
+    private static final int MIN_CHUNK_SIZE = 8 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final IPureAppendable out;
+
+    private final int bytesPerLine;
+
+    private final String byteSeparator;
+
+    private final String lineBreak;
+
+    /**
+     * Bytes of currently collected line.
+     */
+    private final byte[] line;
+
+    /**
+     * Count of bytes collected in {@link #line}.
+     */
+    private int lineSize = 0;
+
+    /**
+     * Offset of first byte of currently collected line.
+     */
+    private long offset = 0;
+
+    /**
+     * Formatted lines waiting to be written to the output.
+     */
+    private final char[] chunk;
+
+    private int chunkSize = 0;
+
+    /**
+     * Maximum count of characters needed by single line.
+     */
+    private final int maxLineLength;
+
+    /**
+     * Count of characters of HEX column when the line is complete.
+     */
+    private final int hexColumnLength;
+
+    /**
+     * Creates the writer.
+     *
+     * @param out           Where to write the dump.
+     * @param bytesPerLine  Count of bytes dumped in single line. Must be positive.
+     * @param byteSeparator String used to separate bytes in HEX column.
+     * @param lineBreak     String used to separate lines.
+     * @throws IllegalArgumentException When <code>bytesPerLine</code> is not positive.
+     * @since 0.3.0
+     */
+    public HexDumpWriter(@NotNull final IPureAppendable out, final int bytesPerLine, @NotNull final String byteSeparator, @NotNull final String lineBreak) {
+        if (bytesPerLine <= 0) {
+            throw new IllegalArgumentException("Bytes per line must be positive, got: " + bytesPerLine + ".");
+        }
+        this.out = out;
+        this.bytesPerLine = bytesPerLine;
+        this.byteSeparator = byteSeparator;
+        this.lineBreak = lineBreak;
+        this.line = new byte[bytesPerLine];
+        this.hexColumnLength = Str.hexLength(bytesPerLine, 0, byteSeparator);
+        // Offset (up to 16 digits), 2 spaces, HEX column, 2 spaces, ASCII column with bars, line break.
+        this.maxLineLength = 16 + 2 + hexColumnLength + 2 + 1 + bytesPerLine + 1 + lineBreak.length();
+        this.chunk = new char[Math.max(MIN_CHUNK_SIZE, maxLineLength)];
+    }
+
+    /**
+     * Creates the writer with {@link Str#LF} line break.
+     *
+     * @param out           Where to write the dump.
+     * @param bytesPerLine  Count of bytes dumped in single line. Must be positive.
+     * @param byteSeparator String used to separate bytes in HEX column.
+     * @since 0.3.0
+     */
+    public HexDumpWriter(@NotNull final IPureAppendable out, final int bytesPerLine, @NotNull final String byteSeparator) {
+        this(out, bytesPerLine, byteSeparator, Str.LF);
+    }
+
+    /**
+     * Creates the writer with default bytes per line and separator.
+     *
+     * @param out Where to write the dump.
+     * @see #DEFAULT_BYTES_PER_LINE
+     * @see Str#STR_HEX_DEFAULT_BYTE_SEPARATOR
+     * @since 0.3.0
+     */
+    public HexDumpWriter(@NotNull final IPureAppendable out) {
+        this(out, DEFAULT_BYTES_PER_LINE, Str.STR_HEX_DEFAULT_BYTE_SEPARATOR);
+    }
+
+    /**
+     * Provides the offset of the next written byte, which is equal to count of already written bytes.
+     *
+     * @return Count of already written bytes.
+     * @since 0.3.0
+     */
+    public long getOffset() {
+        return offset + lineSize;
+    }
+
+    /**
+     * Dumps the fragment of byte array.
+     *
+     * @param arr   Source array.
+     * @param begin Index of first dumped byte.
+     * @param end   Index after last dumped byte.
+     * @since 0.3.0
+     */
+    public void write(final byte[] arr, final int begin, final int end) {
+        int i = begin;
+        while (i < end) {
+            final int count = Math.min(end - i, bytesPerLine - lineSize);
+            System.arraycopy(arr, i, line, lineSize, count);
+            lineSize += count;
+            i += count;
+            if (lineSize == bytesPerLine) {
+                writeLine();
+            }
+        }
+    }
+
+    /**
+     * Dumps the whole byte array.
+     *
+     * @param arr Source array.
+     * @since 0.3.0
+     */
+    public void write(final byte[] arr) {
+        write(arr, 0, arr.length);
+    }
+
+    /**
+     * Dumps remaining bytes of given buffer. The buffer position is moved to its limit.
+     *
+     * @param buffer Source buffer. Direct and memory-mapped buffers are supported.
+     * @since 0.3.0
+     */
+    public void write(final ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            final int count = Math.min(buffer.remaining(), bytesPerLine - lineSize);
+            buffer.get(line, lineSize, count);
+            lineSize += count;
+            if (lineSize == bytesPerLine) {
+                writeLine();
+            }
+        }
+    }
+
+    /**
+     * Writes already formatted lines to the output.
+     *
+     * @since 0.3.0
+     */
+    public void flush() {
+        if (chunkSize > 0) {
+            Str.impl.appendChunk(out, chunk, chunkSize);
+            chunkSize = 0;
+        }
+    }
+
+    /**
+     * Writes the incomplete last line, if any, and flushes all formatted lines to the output.
+     *
+     * @since 0.3.0
+     */
+    public void finish() {
+        if (lineSize > 0) {
+            writeLine();
+        }
+        flush();
+    }
+
+    /**
+     * Formats the collected line of bytes to the characters chunk.
+     */
+    private void writeLine() {
+        if (chunk.length - chunkSize < maxLineLength) {
+            flush();
+        }
+        int d = writeOffset(offset, chunk, chunkSize);
+        chunk[d++] = ' ';
+        chunk[d++] = ' ';
+        final int hexEnd = Str.impl.hexImpl(line, 0, lineSize, 0, 0, byteSeparator, chunk, d);
+        final int hexColumnEnd = d + hexColumnLength;
+        for (d = hexEnd; d < hexColumnEnd; ++d) {
+            chunk[d] = ' ';
+        }
+        chunk[d++] = ' ';
+        chunk[d++] = ' ';
+        chunk[d++] = '|';
+        for (int i = 0; i < lineSize; ++i) {
+            final char ch = (char) (line[i] & 0xFF);
+            chunk[d++] = Ch.isPrint(ch) ? ch : '.';
+        }
+        chunk[d++] = '|';
+        lineBreak.getChars(0, lineBreak.length(), chunk, d);
+        chunkSize = d + lineBreak.length();
+        offset += lineSize;
+        lineSize = 0;
+    }
+
+    /**
+     * Writes the offset as at least 8 HEX digits.
+     *
+     * @param value    Offset value.
+     * @param dst      Destination array.
+     * @param dstBegin Index of first written character.
+     * @return Index after last written character.
+     */
+    private static int writeOffset(final long value, final char[] dst, final int dstBegin) {
+        final int digits = Math.max(8, (64 - Long.numberOfLeadingZeros(value) + 3) / 4);
+        final int end = dstBegin + digits;
+        long v = value;
+        for (int d = end - 1; d >= dstBegin; --d) {
+            dst[d] = HEX_DIGITS[(int) (v & 0x0F)];
+            v >>>= 4;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes.text;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pl.mjaron.etudes.IPureAppendable;
+
+import java.nio.CharBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Formats timestamps with fixed-width pattern, caching the formatted fields, so formatting of the series of close
+ * timestamps, e.g. log entries, writes only the changed fields.
+ * <p>
+ * Supported pattern letters are the subset of {@link DateTimeFormatter} ones:
+ * <ul>
+ *     <li><code>yyyy</code>, <code>yy</code> - year, or its last two digits,</li>
+ *     <li><code>MM</code> - month of year,</li>
+ *     <li><code>dd</code> - day of month,</li>
+ *     <li><code>HH</code> - hour of day, <code>00..23</code>,</li>
+ *     <li><code>mm</code> - minute of hour,</li>
+ *     <li><code>ss</code> - second of minute,</li>
+ *     <li><code>S</code>, <code>SS</code>, <code>SSS</code> - fraction of second.</li>
+ * </ul>
+ * Other letters must be quoted, e.g. <code>yyyy-MM-dd'T'HH:mm:ss</code>. Two single quotes are written as the quote.
+ * <p>
+ * The date fields are formatted once per day, and the time fields once per second. The zone offset is reused until the
+ * next zone transition. Years outside <code>1..9999</code> are formatted with {@link DateTimeFormatter}.
+ * <p>
+ * Instances are not thread-safe, because of the cache.
+ *
+ * @since 0.3.0
+ */
+public class TimestampFormatter {
+
+    /**
+     * Default pattern, e.g. <code>2023-05-17 14:03:59.120</code>.
+     *
+     * @since 0.3.0
+     */
+    public static final String DEFAULT_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    /**
+     * ISO-8601 local date-time pattern, e.g. <code>2023-05-17T14:03:59.120</code>.
+     *
+     * @since 0.3.0
+     */
+    public static final String ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private static final int YEAR = 0;
+    private static final int YEAR_OF_CENTURY = 1;
+    private static final int MONTH = 2;
+    private static final int DAY = 3;
+    private static final int HOUR = 4;
+    private static final int MINUTE = 5;
+    private static final int SECOND = 6;
+    private static final int FRACTION = 7;
+
+    private final String pattern;
+
+    private final ZoneId zone;
+
+    private final ZoneRules rules;
+
+    /**
+     * Formatted timestamp with literals written once and the fields written when changed.
+     */
+    private final char[] template;
+
+    /**
+     * Kind of each field, e.g. {@link #YEAR}.
+     */
+    private final int[] fieldKinds;
+
+    /**
+     * Position of each field in the {@link #template}.
+     */
+    private final int[] fieldPositions;
+
+    /**
+     * Digits count of each field.
+     */
+    private final int[] fieldWidths;
+
+    /**
+     * Zone offset valid in range <code>[offsetFrom, offsetUntil)</code> of epoch milliseconds.
+     */
+    private long offsetMillis = 0;
+    private long offsetFrom = Long.MAX_VALUE;
+    private long offsetUntil = Long.MIN_VALUE;
+
+    /**
+     * Local epoch day of the date fields written in the {@link #template}.
+     */
+    private long cachedDay = Long.MIN_VALUE;
+
+    /**
+     * Local epoch second of the time fields written in the {@link #template}.
+     */
+    private long cachedSecond = Long.MIN_VALUE;
+
+    /**
+     * Formatter of years outside supported range, created on first use.
+     */
+    private DateTimeFormatter fallback = null;
+
+    /**
+     * Creates the formatter of {@link #DEFAULT_PATTERN} in the system default zone.
+     *
+     * @since 0.3.0
+     */
+    public TimestampFormatter() {
+        this(DEFAULT_PATTERN);
+    }
+
+    /**
+     * Creates the formatter of given pattern in the system default zone.
+     *
+     * @param pattern Timestamp pattern.
+     * @throws IllegalArgumentException When the pattern is not supported.
+     * @since 0.3.0
+     */
+    public TimestampFormatter(@NotNull final String pattern) {
+        this(pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates the formatter of given pattern.
+     *
+     * @param pattern Timestamp pattern.
+     * @param zone    Zone of the formatted local date and time.
+     * @throws IllegalArgumentException When the pattern is not supported.
+     * @since 0.3.0
+     */
+    public TimestampFormatter(@NotNull final String pattern, @NotNull final ZoneId zone) {
+        this.pattern = pattern;
+        this.zone = zone;
+        this.rules = zone.getRules();
+
+        final StringBuilder literals = new StringBuilder();
+        final List<int[]> fields = new ArrayList<>();
+        for (int i = 0; i < pattern.length(); ) {
+            final char ch = pattern.charAt(i);
+            if (ch == '\'') {
+                i = parseQuoted(pattern, i, literals);
+                continue;
+            }
+            if (!Character.isLetter(ch)) {
+                literals.append(ch);
+                ++i;
+                continue;
+            }
+            int end = i;
+            while (end < pattern.length() && pattern.charAt(end) == ch) {
+                ++end;
+            }
+            final int width = end - i;
+            final int kind = fieldKind(ch, width);
+            if (kind < 0) {
+                throw new IllegalArgumentException("Unsupported timestamp pattern field: [" + pattern.substring(i, end) + "] in pattern: [" + pattern + "].");
+            }
+            fields.add(new int[]{kind, literals.length(), width});
+            for (int k = 0; k < width; ++k) {
+                literals.append('0');
+            }
+            i = end;
+        }
+        this.template = literals.toString().toCharArray();
+        this.fieldKinds = new int[fields.size()];
+        this.fieldPositions = new int[fields.size()];
+        this.fieldWidths = new int[fields.size()];
+        for (int i = 0; i < fields.size(); ++i) {
+            fieldKinds[i] = fields.get(i)[0];
+            fieldPositions[i] = fields.get(i)[1];
+            fieldWidths[i] = fields.get(i)[2];
+        }
+    }
+
+    private static int parseQuoted(final String pattern, int i, final StringBuilder literals) {
+        ++i;
+        if (i < pattern.length() && pattern.charAt(i) == '\'') {
+            literals.append('\'');
+            return i + 1;
+        }
+        while (i < pattern.length()) {
+            final char ch = pattern.charAt(i++);
+            if (ch != '\'') {
+                literals.append(ch);
+            } else if (i < pattern.length() && pattern.charAt(i) == '\'') {
+                literals.append('\'');
+                ++i;
+            } else {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not closed quote in timestamp pattern: [" + pattern + "].");
+    }
+
+    private static int fieldKind(final char letter, final int width) {
+        switch (letter) {
+            case 'y':
+                return (width == 4) ? YEAR : ((width == 2) ? YEAR_OF_CENTURY : -1);
+            case 'M':
+                return (width == 2) ? MONTH : -1;
+            case 'd':
+                return (width == 2) ? DAY : -1;
+            case 'H':
+                return (width == 2) ? HOUR : -1;
+            case 'm':
+                return (width == 2) ? MINUTE : -1;
+            case 's':
+                return (width == 2) ? SECOND : -1;
+            case 'S':
+                return (width <= 3) ? FRACTION : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Provides the pattern given in the constructor.
+     *
+     * @return Timestamp pattern.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Provides the zone of the formatted local date and time.
+     *
+     * @return Zone given in the constructor.
+     * @since 0.3.0
+     */
+    @NotNull
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Provides the count of characters of formatted timestamp.
+     *
+     * @return Formatted timestamp length, the same for all timestamps in years <code>1..9999</code>.
+     * @since 0.3.0
+     */
+    public int getLength() {
+        return template.length;
+    }
+
+    /**
+     * Writes formatted timestamp.
+     *
+     * @param epochMillis Milliseconds since <code>1970-01-01T00:00:00Z</code>.
+     * @param buffer      Output buffer with at least {@link #getLength()} characters available from the offset.
+     * @param offset      Position of first written character.
+     * @return Position after the last written character.
+     * @throws IllegalArgumentException When the year is outside <code>1..9999</code>.
+     * @since 0.3.0
+     */
+    public int write(final long epochMillis, @NotNull final char[] buffer, final int offset) {
+        if (!update(epochMillis)) {
+            throw new IllegalArgumentException("Year of timestamp: [" + epochMillis + "] is outside range [1, 9999].");
+        }
+        System.arraycopy(template, 0, buffer, offset, template.length);
+        return offset + template.length;
+    }
+
+    /**
+     * Appends formatted timestamp.
+     *
+     * @param epochMillis Milliseconds since <code>1970-01-01T00:00:00Z</code>.
+     * @param out         Output.
+     * @since 0.3.0
+     */
+    public void append(final long epochMillis, @NotNull final IPureAppendable out) {
+        if (!update(epochMillis)) {
+            out.append(formatFallback(epochMillis));
+            return;
+        }
+        out.append(CharBuffer.wrap(template));
+    }
+
+    /**
+     * Formats given timestamp.
+     *
+     * @param epochMillis Milliseconds since <code>1970-01-01T00:00:00Z</code>.
+     * @return Formatted timestamp.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String format(final long epochMillis) {
+        if (!update(epochMillis)) {
+            return formatFallback(epochMillis);
+        }
+        return new String(template);
+    }
+
+    /**
+     * Formats given date.
+     *
+     * @param date Date to format.
+     * @return Formatted timestamp.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String format(@NotNull final Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Formats given instant, truncated to milliseconds.
+     *
+     * @param instant Instant to format.
+     * @return Formatted timestamp.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String format(@NotNull final Instant instant) {
+        return format(instant.toEpochMilli());
+    }
+
+    /**
+     * Formats the instant of given calendar in this formatter zone.
+     *
+     * @param calendar Calendar to format.
+     * @return Formatted timestamp.
+     * @since 0.3.0
+     */
+    @NotNull
+    public String format(@NotNull final Calendar calendar) {
+        return format(calendar.getTimeInMillis());
+    }
+
+    /**
+     * Formats the table cell value.
+     *
+     * @param value {@link Date}, {@link Instant}, {@link Calendar}, epoch milliseconds {@link Number} or
+     *              <code>null</code>.
+     * @return Formatted timestamp, empty String for <code>null</code> or {@link Object#toString()} result of other
+     * values.
+     * @see pl.mjaron.etudes.table.ColumnSelector#timestamp(String, TimestampFormatter)
+     * @since 0.3.0
+     */
+    @NotNull
+    public String formatValue(@Nullable final Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Date) {
+            return format((Date) value);
+        }
+        if (value instanceof Instant) {
+            return format((Instant) value);
+        }
+        if (value instanceof Calendar) {
+            return format((Calendar) value);
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return format(((Number) value).longValue());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Writes the changed fields of given timestamp to the {@link #template}.
+     *
+     * @return <code>false</code> when the year is out of supported range.
+     */
+    private boolean update(final long epochMillis) {
+        if (epochMillis < offsetFrom || epochMillis >= offsetUntil) {
+            updateOffset(epochMillis);
+        }
+        final long localMillis = epochMillis + offsetMillis;
+        final long second = Math.floorDiv(localMillis, 1000);
+        if (second != cachedSecond) {
+            final long day = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+            if (day != cachedDay) {
+                if (!writeDate(day)) {
+                    cachedDay = Long.MIN_VALUE;
+                    cachedSecond = Long.MIN_VALUE;
+                    return false;
+                }
+                cachedDay = day;
+            }
+            writeTime((int) Math.floorMod(second, SECONDS_PER_DAY));
+            cachedSecond = second;
+        }
+        writeFraction((int) Math.floorMod(localMillis, 1000));
+        return true;
+    }
+
+    private void updateOffset(final long epochMillis) {
+        final Instant instant = Instant.ofEpochMilli(epochMillis);
+        offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        if (rules.isFixedOffset()) {
+            offsetFrom = Long.MIN_VALUE;
+            offsetUntil = Long.MAX_VALUE;
+            return;
+        }
+        final ZoneOffsetTransition previous = rules.previousTransition(instant);
+        if (previous == null) {
+            offsetFrom = Long.MIN_VALUE;
+        } else if (previous.getOffsetAfter().getTotalSeconds() * 1000L == offsetMillis) {
+            offsetFrom = previous.toEpochSecond() * 1000;
+        } else {
+            offsetFrom = epochMillis;
+        }
+        final ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetUntil = (next == null) ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+    }
+
+    /**
+     * Writes the date fields of given local epoch day, using the civil calendar algorithm by Howard Hinnant.
+     */
+    private boolean writeDate(final long epochDay) {
+        final long shifted = epochDay + 719_468;
+        final long era = Math.floorDiv(shifted, 146_097);
+        final int dayOfEra = (int) (shifted - era * 146_097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        final int month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+        final long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+        for (int i = 0; i < fieldKinds.length; ++i) {
+            switch (fieldKinds[i]) {
+                case YEAR:
+                    writeDigits(i, (int) year);
+                    break;
+                case YEAR_OF_CENTURY:
+                    writeDigits(i, (int) (year % 100));
+                    break;
+                case MONTH:
+                    writeDigits(i, month);
+                    break;
+                case DAY:
+                    writeDigits(i, day);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private void writeTime(final int secondOfDay) {
+        for (int i = 0; i < fieldKinds.length; ++i) {
+            switch (fieldKinds[i]) {
+                case HOUR:
+                    writeDigits(i, secondOfDay / 3600);
+                    break;
+                case MINUTE:
+                    writeDigits(i, secondOfDay / 60 % 60);
+                    break;
+                case SECOND:
+                    writeDigits(i, secondOfDay % 60);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void writeFraction(final int millis) {
+        for (int i = 0; i < fieldKinds.length; ++i) {
+            if (fieldKinds[i] == FRACTION) {
+                final int width = fieldWidths[i];
+                writeDigits(i, (width == 3) ? millis : ((width == 2) ? millis / 10 : millis / 100));
+            }
+        }
+    }
+
+    private void writeDigits(final int field, int value) {
+        for (int position = fieldPositions[field] + fieldWidths[field] - 1; position >= fieldPositions[field]; --position) {
+            template[position] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private String formatFallback(final long epochMillis) {
+        if (fallback == null) {
+            fallback = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+        }
+        return fallback.format(Instant.ofEpochMilli(epochMillis));
+    }
+}
@@ -240,6 +240,16 @@ class ChTest {
         assertFalse(Ch.isXdigit(Ch.DEL));
     }
 
+    @Test
+    void hexDigitValue() {
+        assertEquals(0x00, Ch.hexDigitValue('0'));
+        assertEquals(0x0B, Ch.hexDigitValue('b'));
+        assertEquals(0x0F, Ch.hexDigitValue('F'));
+        assertEquals(-1, Ch.hexDigitValue('G'));
+        assertEquals(-1, Ch.hexDigitValue(' '));
+        assertEquals(-1, Ch.hexDigitValue('\u0100'));
+    }
+
     @Test
     void toHexValue() {
         assertEquals(0x00, Ch.toHexValue('0'));
@@ -0,0 +1,85 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DblTest {
+
+    @Test
+    void toStringDouble() {
+        assertEquals("0.1", Dbl.toString(0.1));
+        assertEquals("0.30000000000000004", Dbl.toString(0.1 + 0.2));
+        assertEquals("100.0", Dbl.toString(100.0));
+        assertEquals("1234567.0", Dbl.toString(1234567.0));
+        assertEquals("1.0E7", Dbl.toString(1.0E7));
+        assertEquals("0.001", Dbl.toString(0.001));
+        assertEquals("1.0E-4", Dbl.toString(0.0001));
+        assertEquals("4.9E-324", Dbl.toString(Double.MIN_VALUE));
+        assertEquals("1.7976931348623157E308", Dbl.toString(Double.MAX_VALUE));
+        assertEquals("1.0E23", Dbl.toString(1.0E23));
+        assertEquals("2.0E23", Dbl.toString(2.0E23));
+        assertEquals("0.0", Dbl.toString(0.0));
+        assertEquals("-0.0", Dbl.toString(-0.0));
+        assertEquals("NaN", Dbl.toString(Double.NaN));
+        assertEquals("Infinity", Dbl.toString(Double.POSITIVE_INFINITY));
+        assertEquals("-Infinity", Dbl.toString(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void toStringFloat() {
+        assertEquals("0.1", Dbl.toString(0.1f));
+        assertEquals("1.0E10", Dbl.toString(1.0E10f));
+        assertEquals("1.4E-45", Dbl.toString(Float.MIN_VALUE));
+        assertEquals("3.4028235E38", Dbl.toString(Float.MAX_VALUE));
+    }
+
+    @Test
+    void roundTrip() {
+        final Random random = new Random(44);
+        final char[] buffer = new char[Dbl.MAX_CHARS];
+        for (int i = 0; i < 100_000; ++i) {
+            final double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            final int length = Dbl.write(value, buffer, 0);
+            assertEquals(value, Double.parseDouble(new String(buffer, 0, length)), 0.0);
+            final float floatValue = Float.intBitsToFloat(random.nextInt());
+            if (!Float.isNaN(floatValue)) {
+                assertEquals(floatValue, Float.parseFloat(Dbl.toString(floatValue)), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    void toFixed() {
+        assertEquals("1.01", Dbl.toFixed(1.005, 2));
+        assertEquals("0.01", Dbl.toFixed(0.006, 2));
+        assertEquals("10.00", Dbl.toFixed(9.996, 2));
+        assertEquals("-0.00", Dbl.toFixed(-0.001, 2));
+        assertEquals("3", Dbl.toFixed(2.5, 0));
+        assertEquals("1234567.000", Dbl.toFixed(1234567.0, 3));
+    }
+}
@@ -1,12 +1,18 @@
 package pl.mjaron.etudes;
 
 import org.junit.jupiter.api.Test;
+import pl.mjaron.etudes.io.AsyncFileWriter;
+import pl.mjaron.etudes.io.DeleteContext;
+import pl.mjaron.etudes.io.DeleteStats;
 
 import java.io.File;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class IOTest {
 
@@ -37,5 +43,157 @@ class IOTest {
         IO.cleanDirectory("./test_dir/to_delete");
         assertEquals(Objects.requireNonNull(new File("./test_dir/to_delete").listFiles()).length, 0);
     }
-}
 
+    @Test
+    void hexDump() {
+        final byte[] data = "Hello, World!\n\0\u00FF012".getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+        final String expected = "" +
+                "00000000  48 65 6C 6C 6F 2C 20 57 6F 72 6C 64 21 0A 00 FF  |Hello, World!...|\n" +
+                "00000010  30 31 32                                         |012|\n";
+
+        final StringBuilder fromStream = new StringBuilder();
+        IO.hexDump(new java.io.ByteArrayInputStream(data), IPureAppendable.from(fromStream));
+        assertEquals(expected, fromStream.toString());
+
+        final File targetFile = new File("./test_dir/hex_dump.bin");
+        IO.write(data, targetFile);
+        final StringBuilder fromFile = new StringBuilder();
+        IO.hexDump(targetFile, IPureAppendable.from(fromFile));
+        assertEquals(expected, fromFile.toString());
+
+        final StringBuilder fromBuffer = new StringBuilder();
+        IO.hexDump(java.nio.ByteBuffer.wrap(data), IPureAppendable.from(fromBuffer), 8, ":");
+        assertEquals("00000000  48:65:6C:6C:6F:2C:20:57  |Hello, W|\n" +
+                "00000008  6F:72:6C:64:21:0A:00:FF  |orld!...|\n" +
+                "00000010  30:31:32                 |012|\n", fromBuffer.toString());
+    }
+
+    @Test
+    void copySpecialFiles() throws Exception {
+        // Special files of Linux: the procfs file reports 0 size and the FIFO is not seekable.
+        final File procFile = new File("/proc/self/status");
+        if (!procFile.exists()) {
+            return;
+        }
+        final File destination = new File("./test_dir/copy_special.txt");
+        assertTrue(IO.copy(procFile, destination) > 0);
+        assertTrue(new String(IO.readAllBytes(destination), java.nio.charset.StandardCharsets.UTF_8).contains("Name:"));
+
+        final File fifo = new File("./test_dir/copy_fifo");
+        fifo.delete();
+        if (new ProcessBuilder("mkfifo", fifo.getPath()).start().waitFor() != 0) {
+            return;
+        }
+        final byte[] data = new byte[100000];
+        java.util.Arrays.fill(data, (byte) 'x');
+        final Thread writer = new Thread(() -> IO.write(data, fifo));
+        writer.start();
+        try (java.io.FileInputStream inputStream = new java.io.FileInputStream(fifo); java.io.FileOutputStream outputStream = new java.io.FileOutputStream(destination)) {
+            IO.copyStream(inputStream, outputStream);
+        }
+        writer.join();
+        assertArrayEquals(data, IO.readAllBytes(destination));
+        assertTrue(fifo.delete());
+    }
+
+    @Test
+    void copyAndMap() {
+        final byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) (i % 251);
+        }
+        final File source = new File("./test_dir/copy_source.bin");
+        final File destination = new File("./test_dir/copy_destination.bin");
+        IO.write(data, source);
+        assertEquals(data.length, IO.copy(source, destination));
+        assertArrayEquals(data, IO.readAllBytes(destination));
+
+        final java.nio.ByteBuffer mapped = IO.map(destination);
+        assertTrue(mapped.isReadOnly());
+        final byte[] mappedData = new byte[mapped.remaining()];
+        mapped.get(mappedData);
+        assertArrayEquals(data, mappedData);
+
+        final java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+        assertEquals(data.length, IO.copy(new java.io.ByteArrayInputStream(data), outputStream));
+        assertArrayEquals(data, outputStream.toByteArray());
+    }
+
+    @Test
+    void deleteParallel() {
+        final File root = new File("./test_dir/to_delete_parallel");
+        for (int d = 0; d < 4; ++d) {
+            final File directory = IO.mkdirs(new File(root, "dir" + d + "/sub"));
+            for (int f = 0; f < 3; ++f) {
+                IO.write("0123456789", new File(directory, "file" + f + ".txt"));
+            }
+        }
+
+        final DeleteStats dryRun = DeleteContext.make().withParallel().withDryRun().run(root);
+        assertEquals(12L, dryRun.getFilesCount());
+        assertEquals(9L, dryRun.getDirectoriesCount());
+        assertEquals(120L, dryRun.getBytesCount());
+        assertTrue(root.isDirectory());
+
+        final DeleteStats cleaned = IO.cleanDirectoryParallel(root);
+        assertEquals(12L, cleaned.getFilesCount());
+        assertEquals(8L, cleaned.getDirectoriesCount());
+        assertEquals(0, Objects.requireNonNull(root.listFiles()).length);
+
+        IO.delete(root);
+        assertFalse(root.exists());
+    }
+
+    @Test
+    void writeAsync() {
+        final File directory = IO.mkdirs("./test_dir/async");
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            longText.append("Zażółć gęślą jaźń ").append(i).append('\n');
+        }
+        final String expected = longText.toString();
+        final java.util.concurrent.CompletableFuture<File> failed;
+        try (AsyncFileWriter writer = new AsyncFileWriter(AsyncFileWriter.MIN_BUFFER_SIZE, 4)) {
+            for (int i = 0; i < 10; ++i) {
+                writer.write("File " + i, new File(directory, "small" + i + ".txt"));
+            }
+            writer.write(expected, new File(directory, "long.txt"), java.nio.charset.StandardCharsets.UTF_8);
+            writer.write(new byte[]{1, 2, 3}, new File(directory, "bytes.bin"));
+            failed = writer.write("x", new File(directory, "missing/x.txt"));
+        }
+        assertTrue(failed.isCompletedExceptionally());
+        for (int i = 0; i < 10; ++i) {
+            assertEquals("File " + i, IO.readAllToString(new File(directory, "small" + i + ".txt")));
+        }
+        assertEquals(expected, new String(IO.readAllBytes(new File(directory, "long.txt")), java.nio.charset.StandardCharsets.UTF_8));
+        assertArrayEquals(new byte[]{1, 2, 3}, IO.readAllBytes(new File(directory, "bytes.bin")));
+
+        final CharSequence broken = new CharSequence() {
+            @Override
+            public int length() {
+                return 1;
+            }
+
+            @Override
+            public char charAt(final int index) {
+                throw new AssertionError("Broken text.");
+            }
+
+            @Override
+            public CharSequence subSequence(final int start, final int end) {
+                return this;
+            }
+        };
+        try (AsyncFileWriter writer = new AsyncFileWriter()) {
+            final java.util.concurrent.CompletableFuture<File> fatal = writer.write(broken, new File(directory, "broken.txt"));
+            final java.util.concurrent.CompletableFuture<File> next = writer.write("Next", new File(directory, "next.txt"));
+            assertNull(writer.flush().join());
+            assertTrue(fatal.isCompletedExceptionally());
+            assertTrue(next.isCompletedExceptionally());
+        }
+
+        final File shared = new File(directory, "shared.txt");
+        assertEquals(shared, IO.writeAsync("Shared", shared).join());
+        assertEquals("Shared", IO.readAllToString(shared));
+    }
+}
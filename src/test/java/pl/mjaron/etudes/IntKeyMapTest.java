@@ -0,0 +1,123 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes;
+
+import org.junit.jupiter.api.Test;
+import pl.mjaron.etudes.container.IntKeyMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntKeyMapTest {
+
+    private static void assertSameContent(final TreeMap<Integer, String> expected, final IntKeyMap<String> actual) {
+        assertEquals(expected.size(), actual.size());
+        final List<String> visited = new ArrayList<>();
+        actual.forEach((value, key) -> visited.add(key + "=" + value));
+        final List<String> expectedEntries = new ArrayList<>();
+        for (final Map.Entry<Integer, String> entry : expected.entrySet()) {
+            expectedEntries.add(entry.getKey() + "=" + entry.getValue());
+            assertEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+        assertEquals(expectedEntries, visited);
+    }
+
+    @Test
+    void denseKeys() {
+        final IntKeyMap<String> map = new IntKeyMap<>();
+        assertNull(map.get(0));
+        for (int i = 0; i < 1000; ++i) {
+            assertNull(map.put(i, "v" + i));
+        }
+        assertTrue(map.isDense());
+        assertEquals(1000, map.size());
+        assertEquals("v500", map.put(500, "new"));
+        assertEquals("new", map.get(500));
+        assertNull(map.get(-1));
+        assertNull(map.get(1000));
+        assertEquals("new", map.remove(500));
+        assertFalse(map.containsKey(500));
+        assertEquals(999, map.size());
+    }
+
+    @Test
+    void sparseKeys() {
+        final IntKeyMap<String> map = new IntKeyMap<>();
+        map.put(0, "a");
+        map.put(1_000_000, "b");
+        map.put(Integer.MIN_VALUE, "c");
+        map.put(Integer.MAX_VALUE, "d");
+        assertFalse(map.isDense());
+        assertEquals("a", map.get(0));
+        assertEquals("b", map.get(1_000_000));
+        assertEquals("c", map.get(Integer.MIN_VALUE));
+        assertEquals("d", map.get(Integer.MAX_VALUE));
+        assertNull(map.get(1));
+        assertNull(map.put(5, null));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    void adaptive() {
+        final IntKeyMap<String> map = new IntKeyMap<>();
+        // Descending keys leave the initial array range, but become dense again.
+        for (int i = 100; i >= 0; --i) {
+            map.put(i, "v" + i);
+        }
+        assertTrue(map.isDense());
+        map.put(10_000, "far");
+        assertFalse(map.isDense());
+        for (int i = 101; i < 10_000; ++i) {
+            map.put(i, "v" + i);
+        }
+        assertTrue(map.isDense());
+        assertEquals(10_001, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(5));
+    }
+
+    @Test
+    void randomOperations() {
+        final Random random = new Random(50);
+        for (final int keysRange : new int[]{16, 1000, Integer.MAX_VALUE}) {
+            final TreeMap<Integer, String> expected = new TreeMap<>();
+            final IntKeyMap<String> actual = new IntKeyMap<>();
+            for (int i = 0; i < 20_000; ++i) {
+                final int key = random.nextInt(keysRange) - ((keysRange == Integer.MAX_VALUE) ? keysRange / 2 : 0);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), actual.remove(key));
+                } else {
+                    final String value = "v" + i;
+                    assertEquals(expected.put(key, value), actual.put(key, value));
+                }
+                if (i % 1000 == 0) {
+                    assertSameContent(expected, actual);
+                }
+            }
+            assertSameContent(expected, actual);
+        }
+    }
+}
@@ -64,4 +64,60 @@ class IntTest {
     void toByteArrayLE() {
         assertArrayEquals(new byte[]{(byte)0x11, (byte)0x10, (byte)0x01, (byte)0xDD}, Int.toByteArrayLE(0xDD011011));
     }
+
+    @Test
+    void digitsCount() {
+        assertEquals(1, Int.digitsCount(0));
+        assertEquals(1, Int.digitsCount(9));
+        assertEquals(2, Int.digitsCount(10));
+        assertEquals(2, Int.digitsCount(-99));
+        assertEquals(3, Int.digitsCount(100));
+        assertEquals(19, Int.digitsCount(Long.MAX_VALUE));
+        assertEquals(19, Int.digitsCount(Long.MIN_VALUE));
+        long power = 1;
+        for (int digits = 1; digits < 19; ++digits) {
+            assertEquals(digits, Int.digitsCount(power));
+            assertEquals(digits, Int.digitsCount(power * 10 - 1));
+            power *= 10;
+        }
+    }
+
+    @Test
+    void toStringLong() {
+        final long[] values = {0, 7, -7, 42, 100, -999, 1000, 123456789, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (final long value : values) {
+            assertEquals(Long.toString(value), Int.toString(value));
+        }
+        final java.util.Random random = new java.util.Random(45);
+        for (int i = 0; i < 10_000; ++i) {
+            final long value = random.nextLong() >> random.nextInt(64);
+            assertEquals(Long.toString(value), Int.toString(value));
+            assertEquals(String.format("%,d", value), Int.toString(value, ','));
+        }
+    }
+
+    @Test
+    void grouping() {
+        assertEquals("0", Int.toString(0, ','));
+        assertEquals("999", Int.toString(999, ','));
+        assertEquals("1,000", Int.toString(1000, ','));
+        assertEquals("-12 345 678", Int.toString(-12345678, ' '));
+        assertEquals("-9,223,372,036,854,775,808", Int.toString(Long.MIN_VALUE, ','));
+        assertEquals(Int.MAX_GROUPED_CHARS, Int.length(Long.MIN_VALUE, ','));
+    }
+
+    @Test
+    void padding() {
+        final char[] buffer = new char[32];
+        assertEquals("   1,234", new String(buffer, 0, Int.write(1234, ',', 8, ' ', false, buffer, 0)));
+        assertEquals("1,234   ", new String(buffer, 0, Int.write(1234, ',', 8, ' ', true, buffer, 0)));
+        assertEquals("-0042", new String(buffer, 0, Int.write(-42, Int.NO_GROUPING, 5, '0', false, buffer, 0)));
+        assertEquals("12345", new String(buffer, 0, Int.write(12345, Int.NO_GROUPING, 3, ' ', false, buffer, 0)));
+
+        final StringBuilder out = new StringBuilder();
+        Int.append(-42, Int.NO_GROUPING, 5, '0', false, IPureAppendable.from(out));
+        Int.append(7, Int.NO_GROUPING, 3, '.', true, IPureAppendable.from(out));
+        Int.append(1000000, '_', 0, ' ', false, IPureAppendable.from(out));
+        assertEquals("-00427..1_000_000", out.toString());
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes;
+
+import org.junit.jupiter.api.Test;
+import pl.mjaron.etudes.table.IPropertyProvider;
+import pl.mjaron.etudes.table.property.ByColumnPropertyProvider;
+import pl.mjaron.etudes.table.property.ByRowPropertyProvider;
+import pl.mjaron.etudes.table.property.ColumnOnlyPropertyProvider;
+import pl.mjaron.etudes.table.property.FrozenPropertyProvider;
+import pl.mjaron.etudes.table.property.RowOnlyPropertyProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyProviderTest {
+
+    /**
+     * Checks whether the snapshot returns the same values as the provider for the cells around the declared ones.
+     */
+    private static <T> void assertFrozen(final IPropertyProvider<T> provider, final int columnsCount) {
+        assertFrozen(provider, columnsCount, -1);
+    }
+
+    private static <T> void assertFrozen(final IPropertyProvider<T> provider, final int columnsCount, final int firstRow) {
+        final IPropertyProvider<T> frozen = provider.freeze(columnsCount);
+        assertInstanceOf(FrozenPropertyProvider.class, frozen);
+        for (int column = 0; column < columnsCount + 2; ++column) {
+            for (int row = firstRow; row < 6; ++row) {
+                assertEquals(provider.get(column, row), frozen.get(column, row), "column: " + column + ", row: " + row);
+            }
+        }
+    }
+
+    @Test
+    void columnOnly() {
+        final ColumnOnlyPropertyProvider<String> provider = new ColumnOnlyPropertyProvider<>();
+        assertFrozen(provider, 3);
+        provider.put("table");
+        provider.put(1, "column 1");
+        provider.put(4, "column 4");
+        assertFrozen(provider, 3);
+        assertEquals("column 4", provider.freeze(3).get(4, 0));
+    }
+
+    @Test
+    void rowOnly() {
+        final RowOnlyPropertyProvider<String> provider = new RowOnlyPropertyProvider<>();
+        provider.put("table");
+        provider.put(2, "row 2");
+        assertFrozen(provider, 3, 0);
+    }
+
+    @Test
+    void byColumn() {
+        final ByColumnPropertyProvider<String> provider = new ByColumnPropertyProvider<>();
+        provider.put("table");
+        provider.put(0, "column 0");
+        provider.put(2, 3, "cell 2:3");
+        provider.put(0, -1, "header 0");
+        provider.put(5, "column 5");
+        assertFrozen(provider, 3);
+
+        provider.put(-1, "negative");
+        assertSame(provider, provider.freeze(3));
+    }
+
+    @Test
+    void byRow() {
+        final ByRowPropertyProvider<String> provider = new ByRowPropertyProvider<>();
+        provider.put("table");
+        provider.put(-1, "header");
+        provider.put(2, "row 2");
+        provider.put(2, 1, "cell 1:2");
+        provider.put(4, 0, "cell 0:4");
+        assertFrozen(provider, 3);
+    }
+
+    @Test
+    void custom() {
+        final IPropertyProvider<Integer> provider = (column, row) -> column * row;
+        assertSame(provider, provider.freeze(3));
+    }
+}
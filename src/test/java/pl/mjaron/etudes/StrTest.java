@@ -21,6 +21,8 @@ package pl.mjaron.etudes;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class StrTest {
@@ -114,4 +116,68 @@ class StrTest {
         final String hStr = Str.hex(arr, 1, 3);
         assertEquals(expectedHStr, hStr);
     }
+
+    @Test
+    void hexToCharArray() {
+        final byte[] arr = {(byte) 0xAF, (byte) 0x01, (byte) 0x00, (byte) 0xF0, (byte) 0x7E};
+        final int length = Str.hexLength(arr.length, 2, ", ");
+        final char[] chars = new char[length + 1];
+        assertEquals(length + 1, Str.hex(arr, 0, arr.length, 2, ", ", chars, 1));
+        assertEquals("AF, 01\n00, F0\n7E", new String(chars, 1, length));
+    }
+
+    @Test
+    void hexToAppendableInChunks() {
+        final byte[] arr = new byte[10000];
+        for (int i = 0; i < arr.length; ++i) {
+            arr[i] = (byte) (i * 31);
+        }
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < arr.length; ++i) {
+            Str.impl.hexEntryImpl(expected, arr[i], i, 7, ":");
+        }
+        final StringBuilder out = new StringBuilder();
+        Str.hex(arr, 0, arr.length, 7, ":", IPureAppendable.from(out));
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(expected.toString(), Str.hex(arr, 0, arr.length, 7, ":"));
+    }
+
+    @Test
+    void hexDirectByteBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        buffer.put((byte) 0xAF).put((byte) 0x01).put((byte) 0x00).put((byte) 0xF0);
+        buffer.flip();
+        buffer.get();
+        assertEquals("01 00 F0", Str.hex(buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void hexCharArrayToByteArray() {
+        final char[] chars = "  af 01\n0CfF ".toCharArray();
+        final byte[] arr = new byte[chars.length / 2];
+        assertEquals(4, Str.hex(chars, 0, chars.length, arr, 0));
+        assertArrayEquals(new byte[]{(byte) 0xAF, (byte) 0x01, (byte) 0x0C, (byte) 0xFF}, java.util.Arrays.copyOf(arr, 4));
+        assertArrayEquals(new byte[]{(byte) 0xAF, (byte) 0x01}, Str.hex("AF 01"));
+    }
+
+    @Test
+    void pad() {
+        final StringBuilder out = new StringBuilder();
+        Str.pad(out, 3, '-');
+        Str.pad(out, 0, '-');
+        Str.pad(out, -1, '-');
+        assertEquals("---", out.toString());
+
+        // Longer than cached fill Strings, appended in chunks.
+        out.setLength(0);
+        Str.pad(out, 2500, '=');
+        assertEquals(2500, out.length());
+        assertEquals(2500, Str.charsCount(out.toString(), '='));
+
+        // Not cached fill character.
+        assertEquals("\u0105\u0105x", Str.padLeft("x", 3, '\u0105'));
+        assertEquals(" x  ", Str.padCenter("x", 4, ' '));
+        assertEquals("x ", Str.padCenter("x", 2, ' '));
+    }
 }
@@ -20,12 +20,64 @@
 package pl.mjaron.etudes;
 
 import org.junit.jupiter.api.Test;
+import pl.mjaron.etudes.table.Aggregate;
+import pl.mjaron.etudes.table.BeanTableSource;
+import pl.mjaron.etudes.table.ColumnSelector;
+import pl.mjaron.etudes.table.CsvIndex;
+import pl.mjaron.etudes.table.CsvTableSource;
+import pl.mjaron.etudes.table.GroupingTableSource;
+import pl.mjaron.etudes.table.ITableSource;
+import pl.mjaron.etudes.table.ITableWriter;
+import pl.mjaron.etudes.table.JoinTableSource;
+import pl.mjaron.etudes.table.LazyRow;
+import pl.mjaron.etudes.table.ListTableSource;
+import pl.mjaron.etudes.table.MarkdownTableSource;
+import pl.mjaron.etudes.table.RenderContext;
+import pl.mjaron.etudes.table.RenderRuntime;
+import pl.mjaron.etudes.table.SpillFile;
+import pl.mjaron.etudes.table.TransposedTableSource;
 import pl.mjaron.etudes.table.VerticalAlign;
+import pl.mjaron.etudes.text.TimestampFormatter;
 
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static pl.mjaron.etudes.table.RenderContext.col;
 
+class Measure {
+    String name;
+    double value;
+
+    Measure(String name, double value) {
+        this.name = name;
+        this.value = value;
+    }
+}
+
+class LogEntry {
+    Date time;
+    String message;
+
+    LogEntry(long time, String message) {
+        this.time = new Date(time);
+        this.message = message;
+    }
+}
+
 class Cat {
     String name = "Tom";
     int age = 2;
@@ -39,6 +91,70 @@ class Cat {
     }
 }
 
+class Counted {
+    static int getterCalls = 0;
+
+    String name;
+    private String expensive = "expensive";
+
+    Counted(String name) {
+        this.name = name;
+    }
+
+    public String getExpensive() {
+        ++getterCalls;
+        return expensive;
+    }
+}
+
+/**
+ * Source of numbered rows counting its iterations and closed iterators.
+ */
+class CountingTableSource implements ITableSource {
+    final int rowsCount;
+    int iterations = 0;
+    int closed = 0;
+
+    CountingTableSource(final int rowsCount) {
+        this.rowsCount = rowsCount;
+    }
+
+    @Override
+    public int getColumnsCount() {
+        return 1;
+    }
+
+    @Override
+    public Iterable<String> getHeaders() {
+        return Collections.singletonList("n");
+    }
+
+    @Override
+    public Iterator<Iterable<String>> iterator() {
+        ++iterations;
+        return new CountingIterator();
+    }
+
+    class CountingIterator implements Iterator<Iterable<String>>, AutoCloseable {
+        int row = 0;
+
+        @Override
+        public boolean hasNext() {
+            return row < rowsCount;
+        }
+
+        @Override
+        public Iterable<String> next() {
+            return Collections.singletonList(Integer.toString(row++));
+        }
+
+        @Override
+        public void close() {
+            ++closed;
+        }
+    }
+}
+
 class TableTest {
 
     @Test
@@ -78,5 +194,499 @@ class TableTest {
         String abc = "abc";
         Table.render(cats, Cat.class).withColumns(col("name").as("Cat name").col("age", "Cat age")).run();
     }
-}
 
+    @Test
+    void spill() {
+        final List<Cat> cats = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            cats.add(new Cat("Cat | " + i + " \u017C\u00F3\u0142w \uD83D\uDC31 \u0000", i));
+        }
+        final String expected = Table.render(cats, Cat.class).markdown().withAlignedColumnWidths().withAlign(1, VerticalAlign.Right).runToString();
+
+        final Iterable<Cat> oneShot = cats.stream()::iterator;
+        final String spilled = Table.render(oneShot, Cat.class).markdown().withAlignedColumnWidths().withAlign(1, VerticalAlign.Right).withSpill(SpillFile.MIN_BUFFER_SIZE).runToString();
+        assertEquals(expected, spilled);
+
+        final String expectedCsv = Table.render(cats, Cat.class).csv().withEqualColumnWidths().withCellDelimiter(';').runToString();
+        final String spilledCsv = Table.render(cats.stream()::iterator, Cat.class).csv().withEqualColumnWidths().withCellDelimiter(';').withSpill().runToString();
+        assertEquals(expectedCsv, spilledCsv);
+    }
+
+    @Test
+    void csvSource() {
+        final List<Cat> cats = new ArrayList<>();
+        cats.add(new Cat("Tom, \"the\" cat", 2));
+        cats.add(new Cat("Multi\r\nline", 3));
+        cats.add(new Cat("", 4));
+        final String csv = Table.render(cats, Cat.class).csv().runToString();
+        final String expected = Table.render(cats, Cat.class).markdown().withAlignedColumnWidths().runToString();
+
+        for (final int bufferSize : new int[]{1, 7, CsvTableSource.DEFAULT_BUFFER_SIZE}) {
+            final CsvTableSource source = CsvTableSource.from(csv).withBufferSize(bufferSize);
+            assertEquals(2, source.getColumnsCount());
+            assertEquals(expected, Table.render(source).markdown().withAlignedColumnWidths().runToString());
+        }
+
+        final CsvTableSource semicolons = CsvTableSource.from("a;b\n1\n\"x\"\"y\";\"\"").withDelimiter(';').withoutHeaders();
+        final List<String> cells = new ArrayList<>();
+        for (final Iterable<String> row : semicolons) {
+            for (final String cell : row) {
+                cells.add(cell);
+            }
+        }
+        assertEquals(Arrays.asList("a", "b", "1", "", "x\"y", ""), cells);
+
+        final int[] readers = {0};
+        final int[] closed = {0};
+        final CsvTableSource broken = new CsvTableSource(() -> (readers[0]++ == 0) ? new StringReader("a,b") : new FilterReader(new StringReader("a,b")) {
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                final int count = super.read(buffer, offset, length);
+                if (count < 0) {
+                    throw new IOException("Broken reader.");
+                }
+                return count;
+            }
+
+            @Override
+            public void close() throws IOException {
+                ++closed[0];
+                super.close();
+            }
+        });
+        assertEquals(2, broken.getColumnsCount());
+        assertThrows(RuntimeException.class, broken::iterator);
+        assertEquals(1, closed[0]);
+    }
+
+    @Test
+    void csvIndex() {
+        final List<Cat> cats = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            cats.add(new Cat((i % 3 == 0) ? "Cat \"" + i + "\"\r\nline\n" : "Cat " + i, i));
+        }
+        final File csvFile = new File("./test_dir/cats.csv");
+        Table.render(cats, Cat.class).csv().to(csvFile).run();
+
+        final CsvIndex sequential = CsvIndex.build(csvFile, 7);
+        final CsvIndex ranges = CsvIndex.build(csvFile, 7, 13);
+        assertEquals(501, sequential.getRecordsCount());
+        assertEquals(501, ranges.getRecordsCount());
+        for (long record = 0; record < sequential.getRecordsCount(); ++record) {
+            assertEquals(sequential.getIndexedOffset(record), ranges.getIndexedOffset(record));
+        }
+
+        final File indexFile = CsvIndex.indexFileOf(csvFile);
+        ranges.write(indexFile);
+        final CsvIndex stored = CsvIndex.read(indexFile);
+        assertEquals(501, stored.getRecordsCount());
+        assertEquals(ranges.getIndexedOffset(499), stored.getIndexedOffset(499));
+
+        final CsvTableSource source = CsvTableSource.from(csvFile).withIndex(stored);
+        assertEquals(500, source.getRowsCount());
+        final String expected = Table.render(cats.subList(123, 173), Cat.class).markdown().withAlignedColumnWidths().runToString();
+        final CsvTableSource page = source.slice(123, 50);
+        assertEquals(50, page.getRowsCount());
+        assertEquals(expected, Table.render(page).markdown().withAlignedColumnWidths().runToString());
+        assertEquals(expected, Table.render(CsvTableSource.from(csvFile).slice(123, 50)).markdown().withAlignedColumnWidths().runToString());
+        assertEquals(0, source.slice(600, 10).getRowsCount());
+    }
+
+    @Test
+    void markdownSource() {
+        final List<Cat> cats = new ArrayList<>();
+        cats.add(new Cat("_Tom_ | [cat]", 2));
+        cats.add(new Cat("", 13));
+        final String table = Table.render(cats, Cat.class).markdown().withAlign(0, VerticalAlign.Center).withAlign(1, VerticalAlign.Right).runToString();
+        final String document = "# Cats\n\nSome | text\n\n" + table + "\nThe end.\n";
+
+        final MarkdownTableSource source = MarkdownTableSource.parse(document);
+        assertEquals(table, document.substring(source.getBegin(), source.getEnd()));
+        assertEquals(2, source.getColumnsCount());
+        assertEquals(2, source.getRowsCount());
+        assertEquals(VerticalAlign.Center, source.getVerticalAlign(0));
+        assertEquals(VerticalAlign.Right, source.getVerticalAlign(1));
+        assertEquals("_Tom_ | [cat]", source.getRow(0).get(0));
+        assertEquals("", source.getRow(1).get(0));
+        assertEquals("13", source.getRow(1).get(1));
+
+        final RenderContext context = Table.render(source).markdown();
+        source.applyVerticalAligns(context);
+        assertEquals(table, context.runToString());
+
+        final MarkdownTableSource plain = MarkdownTableSource.parse("a | b\n--- | :-:\n1 | 2 | 3\n\\| x\n");
+        assertEquals(null, plain.getVerticalAlign(0));
+        assertEquals(VerticalAlign.Center, plain.getVerticalAlign(1));
+        assertEquals("2", plain.getRow(0).get(1));
+        assertEquals("| x", plain.getRow(1).get(0));
+        assertEquals("", plain.getRow(1).get(1));
+    }
+
+    @Test
+    void projection() {
+        final List<Counted> rows = Arrays.asList(new Counted("a"), new Counted("b"));
+        Counted.getterCalls = 0;
+        final String rendered = Table.render(rows, Counted.class).withColumns(col("name", "Name")).markdown().runToString();
+        assertEquals(0, Counted.getterCalls);
+        assertEquals(Table.render(Arrays.asList(new Cat("a", 0), new Cat("b", 0)), Cat.class).withColumns(col("name", "Name")).markdown().runToString(), rendered);
+
+        Table.render(rows, Counted.class).withColumns(col("expensive").col("name")).withoutAlignedColumnWidths().runToString();
+        assertEquals(2, Counted.getterCalls);
+    }
+
+    @Test
+    void lazyRow() {
+        final int[] calls = new int[3];
+        final LazyRow row = new LazyRow(3, column -> {
+            ++calls[column];
+            return (column == 1) ? null : column * 10;
+        });
+        assertEquals("20", row.get(2));
+        assertEquals("20", row.get(2));
+        assertEquals(20, row.getValue(2));
+        assertEquals("", row.get(1));
+        assertArrayEquals(new int[]{0, 1, 1}, calls);
+
+        final Iterator<Iterable<String>> rows = new BeanTableSource<>(Collections.singletonList(new Counted("x")), Counted.class).iterator();
+        Counted.getterCalls = 0;
+        final LazyRow beanRow = (LazyRow) rows.next();
+        assertEquals("x", beanRow.get(1));
+        assertEquals(0, Counted.getterCalls);
+        assertEquals("expensive", beanRow.getValue(2));
+        assertEquals(1, Counted.getterCalls);
+    }
+
+    @Test
+    void query() {
+        final List<Cat> cats = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            cats.add(new Cat("Cat " + i, (i * 37) % 50));
+        }
+        final List<Cat> sorted = new ArrayList<>(cats);
+        sorted.removeIf(cat -> cat.age < 10);
+        sorted.sort(Comparator.comparingInt((Cat cat) -> cat.age).reversed());
+
+        final String topK = Table.render(cats, Cat.class).where("age", (Integer age) -> age >= 10).orderBy("age", Comparator.<Integer>reverseOrder()).offset(5).limit(10).runToString();
+        assertEquals(Table.render(sorted.subList(5, 15), Cat.class).runToString(), topK);
+
+        final RenderContext external = Table.render(cats, Cat.class).withColumns(col("name")).where("age", (Integer age) -> age >= 10).orderBy("age", Comparator.<Integer>reverseOrder());
+        external.getTableSourceBuilder().getQuery().withMaxInMemoryRows(7);
+        assertEquals(Table.render(sorted, Cat.class).withColumns(col("name")).runToString(), external.runToString());
+
+        final String computedInMemory = Table.render(cats, Cat.class).withColumns(col("name").computed("h", "age", (Integer age) -> age * 7)).orderBy("age").runToString();
+        final RenderContext computedExternal = Table.render(cats, Cat.class).withColumns(col("name").computed("h", "age", (Integer age) -> age * 7)).orderBy("age");
+        computedExternal.getTableSourceBuilder().getQuery().withMaxInMemoryRows(3);
+        assertEquals(computedInMemory, computedExternal.runToString());
+
+        final String filtered = Table.render(cats, Cat.class).where(row -> ((Integer) row.getValue(1)) == 0).runToString();
+        assertEquals(Table.render(Arrays.asList(cats.get(0), cats.get(50)), Cat.class).runToString(), filtered);
+
+        final RenderContext bigTopK = Table.render(cats, Cat.class).where("age", (Integer age) -> age >= 10).orderBy("age", Comparator.<Integer>reverseOrder()).offset(5).limit(10);
+        bigTopK.getTableSourceBuilder().getQuery().withMaxInMemoryRows(4);
+        assertEquals(topK, bigTopK.runToString());
+    }
+
+    @Test
+    void queryIteratesSourceOnce() {
+        final Comparator<String> numeric = Comparator.comparing(Integer::valueOf);
+        final CountingTableSource topK = new CountingTableSource(100);
+        final String topKString = Table.render(topK).orderBy("n", numeric.reversed()).limit(3).runToString();
+        assertEquals("| n  |\n|----|\n| 99 |\n| 98 |\n| 97 |\n", topKString);
+        assertEquals(1, topK.iterations);
+
+        final CountingTableSource external = new CountingTableSource(100);
+        final RenderContext externalContext = Table.render(external).orderBy("n", numeric.reversed()).offset(97);
+        externalContext.getTableSourceBuilder().getQuery().withMaxInMemoryRows(7);
+        assertEquals("| n |\n|---|\n| 2 |\n| 1 |\n| 0 |\n", externalContext.runToString());
+        assertEquals(1, external.iterations);
+
+        final CountingTableSource limited = new CountingTableSource(100);
+        assertEquals("| n |\n|---|\n| 0 |\n| 1 |\n", Table.render(limited).limit(2).runToString());
+        assertEquals(limited.iterations, limited.closed);
+    }
+
+    @Test
+    void page() {
+        final List<Cat> cats = new ArrayList<>();
+        for (int i = 0; i < 25; ++i) {
+            cats.add(new Cat("Cat " + i, i * 7));
+        }
+        assertEquals(Table.render(cats.subList(10, 20), Cat.class).runToString(), Table.render(cats, Cat.class).page(1, 10).runToString());
+        assertEquals(Table.render(cats.subList(20, 25), Cat.class).runToString(), Table.render(cats, Cat.class).page(2, 10).runToString());
+        assertEquals(Table.render(cats.subList(2, 4), Cat.class).runToString(), Table.render((Iterable<Cat>) cats::iterator, Cat.class).page(1, 2).runToString());
+
+        final String queried = Table.render(cats, Cat.class).where("age", (Integer age) -> age % 2 == 0).limit(7).page(1, 5).runToString();
+        assertEquals(Table.render(Arrays.asList(cats.get(10), cats.get(12)), Cat.class).runToString(), queried);
+
+        final RenderContext context = Table.render(cats, Cat.class).page(0, 3);
+        final int[] widths = context.computeColumnWidths();
+        assertArrayEquals(new int[]{6, 3}, widths);
+        assertEquals(Table.render(cats.subList(0, 3), Cat.class).withArbitraryColumnWidths(widths).runToString(), context.withArbitraryColumnWidths(widths).runToString());
+    }
+
+    @Test
+    void footer() {
+        final List<Cat> cats = Arrays.asList(new Cat("Tom", 3), new Cat("Garfield", 12), new Cat("Kitty", 6));
+        final String expected = "" +
+                "| name     | age |\n" +
+                "|----------|-----|\n" +
+                "| Tom      | 3   |\n" +
+                "| Garfield | 12  |\n" +
+                "| Kitty    | 6   |\n" +
+                "| Total: 3 | 21  |\n";
+        assertEquals(expected, Table.render(cats, Cat.class).withFooterLabel(0, "Total: 3").withAggregate(1, Aggregate.SUM).withLineBreakLF().runToString());
+
+        final String notAligned = Table.render(cats, Cat.class).withoutAlignedColumnWidths().withAggregate(0, Aggregate.COUNT).withAggregate(1, Aggregate.AVG).withLineBreakLF().runToString();
+        assertEquals("| 3 | 7.0 |\n", notAligned.substring(notAligned.lastIndexOf('\n', notAligned.length() - 2) + 1));
+
+        final String csv = "name,age\nTom,3.5\nGarfield,x\nKitty,-6\n";
+        final String spilled = Table.render(CsvTableSource.from(csv)).withCsvWriter().withAlignedColumnWidths().withSpill(SpillFile.MIN_BUFFER_SIZE).withAggregate(1, Aggregate.MIN).withAggregate(0, Aggregate.MAX).withLineBreakLF().runToString();
+        assertEquals("        ,-6.0\n", spilled.substring(spilled.lastIndexOf('\n', spilled.length() - 2) + 1));
+    }
+
+    @Test
+    void grouping() {
+        final List<Cat> cats = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            cats.add(new Cat("Cat " + (i % 3), i));
+        }
+        final GroupingTableSource grouped = new GroupingTableSource(new BeanTableSource<>(cats, Cat.class))
+                .groupBy("name")
+                .aggregate("age", Aggregate.COUNT)
+                .aggregate("age", Aggregate.SUM)
+                .aggregate("age", Aggregate.MIN, "youngest")
+                .aggregate("age", Aggregate.AVG);
+        final String expected = "" +
+                "| name  | count(age) | sum(age) | youngest | avg(age) |\n" +
+                "|-------|------------|----------|----------|----------|\n" +
+                "| Cat 0 | 334        | 166833   | 0        | 499.5    |\n" +
+                "| Cat 1 | 333        | 166167   | 1        | 499.0    |\n" +
+                "| Cat 2 | 333        | 166500   | 2        | 500.0    |\n";
+        assertEquals(expected, Table.render(grouped).withLineBreakLF().runToString());
+        assertEquals(3, grouped.getGroupsCount());
+
+        final StringBuilder csv = new StringBuilder("region,city,amount\n");
+        for (int i = 0; i < 20000; ++i) {
+            csv.append("r").append(i % 2).append(",c").append(i % 4).append(',').append(i % 2 == 0 ? "1.5" : "x").append('\n');
+        }
+        final GroupingTableSource csvGrouped = new GroupingTableSource(CsvTableSource.from(csv.toString()))
+                .groupBy("region", "city")
+                .aggregate("amount", Aggregate.SUM)
+                .aggregate("amount", Aggregate.MAX);
+        assertEquals(4, csvGrouped.getGroupsCount());
+        final Iterator<Iterable<String>> rows = csvGrouped.iterator();
+        assertEquals(Arrays.asList("r0", "c0", "7500.0", "1.5"), toList(rows.next()));
+        assertEquals(Arrays.asList("r1", "c1", "", ""), toList(rows.next()));
+
+        final StringBuilder big = new StringBuilder("g,n\na,9007199254740993\na,9007199254740992\n");
+        for (int i = 0; i < 11; ++i) {
+            big.append("b,900000000000000001\n");
+        }
+        final Iterator<Iterable<String>> bigRows = new GroupingTableSource(CsvTableSource.from(big.toString())).groupBy("g").aggregate("n", Aggregate.MAX).aggregate("n", Aggregate.MIN).iterator();
+        assertEquals(Arrays.asList("a", "9007199254740993", "9007199254740992"), toList(bigRows.next()));
+        assertEquals(Arrays.asList("b", "900000000000000001", "900000000000000001"), toList(bigRows.next()));
+
+        final List<Iterable<String>> ragged = Arrays.asList(Arrays.asList("a", "1"), Arrays.asList("a", "2", "3"));
+        final ITableSource raggedSource = new ITableSource() {
+            @Override
+            public int getColumnsCount() {
+                return 2;
+            }
+
+            @Override
+            public Iterable<String> getHeaders() {
+                return Arrays.asList("g", "n");
+            }
+
+            @Override
+            public Iterator<Iterable<String>> iterator() {
+                return ragged.iterator();
+            }
+        };
+        final RuntimeException raggedError = assertThrows(RuntimeException.class, () -> new GroupingTableSource(raggedSource).groupBy("g").aggregate("n", Aggregate.SUM).getGroupsCount());
+        assertEquals("Source row 1 has more than 2 cells.", raggedError.getMessage());
+
+        final List<Cat> distinct = new ArrayList<>();
+        for (int i = 0; i < 50000; ++i) {
+            distinct.add(new Cat("All", i % 20000));
+        }
+        final Iterable<String> estimated = new GroupingTableSource(new BeanTableSource<>(distinct, Cat.class)).groupBy("name").aggregate("age", Aggregate.DISTINCT).iterator().next();
+        final long count = Long.parseLong(toList(estimated).get(1));
+        assertEquals(20000, count, 20000 * 0.1);
+    }
+
+    @Test
+    void join() {
+        final List<Cat> cats = Arrays.asList(new Cat("Tom", 3), new Cat("Garfield", 12), new Cat("Kitty", 6));
+        final String owners = "name,owner\nTom,Ann\nKitty,Eve\nTom,Bob\n";
+        final JoinTableSource inner = new JoinTableSource(new BeanTableSource<>(cats, Cat.class), CsvTableSource.from(owners)).on("name", "name");
+        final String expected = "" +
+                "| name  | age | right.name | owner |\n" +
+                "|-------|-----|------------|-------|\n" +
+                "| Tom   | 3   | Tom        | Ann   |\n" +
+                "| Tom   | 3   | Tom        | Bob   |\n" +
+                "| Kitty | 6   | Kitty      | Eve   |\n";
+        assertEquals(expected, Table.render(inner).withLineBreakLF().runToString());
+
+        final JoinTableSource left = new JoinTableSource(new BeanTableSource<>(cats, Cat.class), CsvTableSource.from(owners)).on("name", "name").leftJoin();
+        final String expectedLeft = "" +
+                "| Cat      | Owner |\n" +
+                "|----------|-------|\n" +
+                "| Tom      | Ann   |\n" +
+                "| Tom      | Bob   |\n" +
+                "| Garfield |       |\n" +
+                "| Kitty    | Eve   |\n";
+        assertEquals(expectedLeft, Table.render(left).withColumns(col("name", "Cat").col("owner", "Owner")).withLineBreakLF().runToString());
+
+        final List<Cat> few = Arrays.asList(new Cat("Tom", 3), new Cat("Kitty", 6));
+        final List<Cat> many = Arrays.asList(new Cat("Kitty", 1), new Cat("Tom", 2), new Cat("Bob", 5), new Cat("Kitty", 7));
+        final String expectedHashedLeft = "" +
+                "| name  | age | right.name | right.age |\n" +
+                "|-------|-----|------------|-----------|\n" +
+                "| Kitty | 6   | Kitty      | 1         |\n" +
+                "| Tom   | 3   | Tom        | 2         |\n" +
+                "| Kitty | 6   | Kitty      | 7         |\n";
+        assertEquals(expectedHashedLeft, Table.render(new JoinTableSource(new BeanTableSource<>(few, Cat.class), new BeanTableSource<>(many, Cat.class)).on("name", "name")).withLineBreakLF().runToString());
+
+        final CountingTableSource numbers = new CountingTableSource(100);
+        final CountingTableSource keys = new CountingTableSource(10);
+        final String limited = Table.render(new JoinTableSource(numbers, keys).on("n", "n")).withLineBreakLF().limit(2).runToString();
+        assertEquals("| n | right.n |\n|---|---------|\n| 0 | 0       |\n| 1 | 1       |\n", limited);
+        assertEquals(numbers.iterations, numbers.closed);
+        assertEquals(keys.iterations, keys.closed);
+    }
+
+    @Test
+    void transposed() {
+        final List<Cat> cats = Arrays.asList(new Cat("Tom", 3), new Cat("Garfield", 12), new Cat("Kitty", 6));
+        final String expected = "" +
+                "| name | Tom | Garfield | Kitty |\n" +
+                "| age  | 3   | 12       | 6     |\n";
+        final String randomAccess = Table.render(new TransposedTableSource(new BeanTableSource<>(cats, Cat.class))).withLineBreakLF().runToString();
+        assertEquals(expected, randomAccess);
+
+        final Iterable<Cat> sequential = cats::iterator;
+        assertEquals(expected, Table.render(new TransposedTableSource(new BeanTableSource<>(sequential, Cat.class))).withLineBreakLF().runToString());
+
+        final StringBuilder csv = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < 100; ++i) {
+            csv.append(i).append(",x").append(i).append(",\n");
+        }
+        try (TransposedTableSource spilled = new TransposedTableSource(CsvTableSource.from(csv.toString())).withMaxBufferedCells(20)) {
+            assertEquals(101, spilled.getColumnsCount());
+            final Iterator<Iterable<String>> rows = spilled.iterator();
+            final List<String> a = toList(rows.next());
+            assertEquals("a", a.get(0));
+            assertEquals("0", a.get(1));
+            assertEquals("99", a.get(100));
+            assertEquals("x57", toList(rows.next()).get(58));
+            assertEquals("", toList(rows.next()).get(100));
+
+            spilled.close();
+            assertEquals("99", toList(spilled.iterator().next()).get(100));
+        }
+
+        final List<List<String>> ragged = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d", "e"));
+        assertThrows(RuntimeException.class, () -> new TransposedTableSource(new ListTableSource<>(ragged)).iterator());
+    }
+
+    @Test
+    void computedColumns() {
+        final List<Cat> cats = Arrays.asList(new Cat("Tom", 3), new Cat("Garfield", 12));
+        final String expected = "" +
+                "| Name     | Human years | Label         |\n" +
+                "|----------|-------------|---------------|\n" +
+                "| Tom      | 21          | Tom (3)       |\n" +
+                "| Garfield | 84          | Garfield (12) |\n";
+        final String rendered = Table.render(cats, Cat.class).withColumns(col("name", "Name")
+                .computed("humanAge", "age", (Integer age) -> age * 7).as("Human years")
+                .computed("Label", "name", "age", (String name, Integer age) -> name + " (" + age + ")")).withLineBreakLF().runToString();
+        assertEquals(expected, rendered);
+
+        final List<Counted> rows = Arrays.asList(new Counted("a"), new Counted("bb"));
+        Counted.getterCalls = 0;
+        final String lengths = Table.render(rows, Counted.class).withColumns(new ColumnSelector().computed("length", "name", (String name) -> name.length())).withLineBreakLF().runToString();
+        assertEquals("| length |\n|--------|\n| 1      |\n| 2      |\n", lengths);
+        assertEquals(0, Counted.getterCalls);
+
+        final String appended = Table.render(cats, Cat.class).withColumnNames(new ColumnSelector().computed("old", "age", (Integer age) -> age > 10)).withLineBreakLF().runToString();
+        assertEquals("| name     | age | old   |\n", appended.substring(0, appended.indexOf('\n') + 1));
+    }
+
+    @Test
+    void decimalAlign() {
+        final List<Measure> measures = Arrays.asList(new Measure("a", 1.5), new Measure("b", 12.25), new Measure("c", 100.0), new Measure("d", 0.1 + 0.2));
+        final String table = Table.render(measures, Measure.class).withAlignedColumnWidths().withAlign(1, VerticalAlign.Decimal).runToString();
+        final String expected = "" +
+                "| name |                 value |\n" +
+                "|------|----------------------:|\n" +
+                "| a    |   1.5                 |\n" +
+                "| b    |  12.25                |\n" +
+                "| c    | 100.0                 |\n" +
+                "| d    |   0.30000000000000004 |\n";
+        assertEquals(expected, table);
+    }
+
+    @Test
+    void timestampColumn() {
+        final List<LogEntry> entries = Arrays.asList(new LogEntry(1684317839120L, "started"), new LogEntry(1684317840005L, "stopped"));
+        final TimestampFormatter formatter = new TimestampFormatter("HH:mm:ss.SSS", ZoneOffset.UTC);
+        final String table = Table.render(entries, LogEntry.class).withColumns(new ColumnSelector().timestamp("time", formatter).as("at").col("message")).withCsvWriter().runToString();
+        assertEquals("at,message\n10:03:59.120,started\n10:04:00.005,stopped\n", table);
+
+        // All columns are rendered, the computed column replaces the source one.
+        final String allColumns = Table.render(entries, LogEntry.class).withColumnNames(new ColumnSelector().timestamp("time", formatter).as("at")).withCsvWriter().runToString();
+        assertEquals("at,message\n10:03:59.120,started\n10:04:00.005,stopped\n", allColumns);
+        final String appended = Table.render(entries, LogEntry.class).withColumnNames(new ColumnSelector().timestamp("time", formatter).computed("length", "message", (String message) -> message.length())).withCsvWriter().runToString();
+        assertEquals("time,message,length\n10:03:59.120,started,7\n10:04:00.005,stopped,7\n", appended);
+    }
+
+    @Test
+    void customWriter() {
+        // Writer without row-batch implementation gets cells one by one, with current column updated.
+        final StringBuilder out = new StringBuilder();
+        final ITableWriter writer = new ITableWriter() {
+            private RenderRuntime runtime;
+
+            @Override
+            public void beginTable(RenderRuntime runtime) {
+                this.runtime = runtime;
+            }
+
+            @Override
+            public void endTable() {
+            }
+
+            @Override
+            public void beginHeader() {
+            }
+
+            @Override
+            public void endHeader() {
+                out.append('\n');
+            }
+
+            @Override
+            public void beginRow() {
+            }
+
+            @Override
+            public void endRow() {
+                out.append('\n');
+            }
+
+            @Override
+            public void writeCell(String what) {
+                out.append(runtime.getColumnIdx()).append('=').append(what).append(';');
+            }
+        };
+        Table.render(Arrays.asList(new Cat("Tom", 2), new Cat("a,b", 3)), Cat.class).withWriter(writer).withCsvEscaper().run();
+        assertEquals("0=name;1=age;\n0=Tom;1=2;\n0=\"a,b\";1=3;\n", out.toString());
+    }
+
+    private static List<String> toList(final Iterable<String> row) {
+        final List<String> list = new ArrayList<>();
+        row.forEach(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright  2023  Michał Jaroń <m.jaron@protonmail.com>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies
+ * or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY
+ * KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY
+ * CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+ * OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package pl.mjaron.etudes;
+
+import org.junit.jupiter.api.Test;
+import pl.mjaron.etudes.text.TimestampFormatter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimestampFormatterTest {
+
+    @Test
+    void format() {
+        final TimestampFormatter formatter = new TimestampFormatter(TimestampFormatter.ISO_PATTERN, ZoneOffset.UTC);
+        assertEquals(23, formatter.getLength());
+        assertEquals("1970-01-01T00:00:00.000", formatter.format(0));
+        assertEquals("1969-12-31T23:59:59.999", formatter.format(-1));
+        assertEquals("2000-02-29T12:34:56.789", formatter.format(Instant.parse("2000-02-29T12:34:56.789Z")));
+        assertEquals("2000-02-29T12:34:57.001", formatter.format(new Date(Instant.parse("2000-02-29T12:34:57.001Z").toEpochMilli())));
+        assertEquals("2000-03-01T00:00:00.000", formatter.format(Instant.parse("2000-03-01T00:00:00Z")));
+
+        final char[] buffer = new char[32];
+        final int end = formatter.write(86_400_000L, buffer, 4);
+        assertEquals("1970-01-02T00:00:00.000", new String(buffer, 4, end - 4));
+    }
+
+    @Test
+    void pattern() {
+        final TimestampFormatter formatter = new TimestampFormatter("dd.MM.yy 'at' HH''mm ss.S", ZoneOffset.ofHours(2));
+        assertEquals("01.01.70 at 02'00 00.1", formatter.format(150));
+        assertThrows(IllegalArgumentException.class, () -> new TimestampFormatter("yyyy-MM-dd hh:mm"));
+        assertThrows(IllegalArgumentException.class, () -> new TimestampFormatter("yyyy 'not closed"));
+    }
+
+    @Test
+    void sameAsDateTimeFormatter() {
+        final String pattern = "yyyy-MM-dd HH:mm:ss.SS";
+        for (final String zoneName : new String[]{"UTC", "Europe/Warsaw", "America/New_York", "Asia/Kathmandu"}) {
+            final ZoneId zone = ZoneId.of(zoneName);
+            final TimestampFormatter formatter = new TimestampFormatter(pattern, zone);
+            final DateTimeFormatter expected = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+            final Random random = new Random(46);
+            long millis = Instant.parse("2023-03-20T00:00:00Z").toEpochMilli();
+            for (int i = 0; i < 20_000; ++i) {
+                // Mostly close timestamps, across days and zone transitions, and sometimes far jumps.
+                millis += (i % 1000 == 0) ? random.nextInt() * 1000L : random.nextInt(1_000_000);
+                assertEquals(expected.format(Instant.ofEpochMilli(millis)), formatter.format(millis), zoneName);
+            }
+        }
+    }
+
+    @Test
+    void outOfRange() {
+        final TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd", ZoneOffset.UTC);
+        final long millis = Instant.parse("+12345-01-02T00:00:00Z").toEpochMilli();
+        assertEquals(DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC).format(Instant.ofEpochMilli(millis)), formatter.format(millis));
+        assertThrows(IllegalArgumentException.class, () -> formatter.write(millis, new char[32], 0));
+        assertEquals("2023-05-17", formatter.format(Instant.parse("2023-05-17T10:00:00Z")));
+    }
+
+    @Test
+    void formatValue() {
+        final TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd HH:mm", ZoneOffset.UTC);
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(60_000);
+        assertEquals("1970-01-01 00:01", formatter.formatValue(calendar));
+        assertEquals("1970-01-01 00:02", formatter.formatValue(120_000L));
+        assertEquals("", formatter.formatValue(null));
+        assertEquals("text", formatter.formatValue("text"));
+    }
+}